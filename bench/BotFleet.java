@@ -0,0 +1,608 @@
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// 부하 생성용 헤드리스 봇 무리: Swing 클라이언트 없이 게임 프로토콜로 서버에 연결을 수천 개 열어 실제 클라이언트처럼 대전한다.
+// 두 봇이 같은 맵 ID(bot-<번호>-<판>)를 골라 MAPSELECT/READY로 한 판을 만들고, 판이 끝나면 다음 맵 ID로 다시 들어간다.
+// -Dshooting.bots.theme=Map1처럼 테마를 지정하면 모든 봇이 그 테마로 매치메이킹에 들어가 서버가 짝지어 준다.
+// 대전 수를 단계적으로 늘리면서 단계마다 입력 -> 스냅샷 지연 백분위, 수신 바이트, 스냅샷 수신율, 끝난 판 수를 출력하고,
+// 스냅샷 간격이 틱 간격을 넘기기 시작하면(서버 틱이 밀리면) 그 직전 단계의 대전 수로 코어당 수용 대전 수를 계산한다.
+// 실행: javac -d out src/*.java bench/*.java && java -cp out -Dshooting.bots.matches=2000 -Dshooting.bots.rampStep=100 BotFleet
+public class BotFleet {
+    private static final String HOST = System.getProperty("shooting.host", "localhost");
+    private static final int PORT = Integer.getInteger("shooting.port", 12345);
+
+    // 최대 대전 수 (봇은 두 배), 단계마다 늘릴 대전 수와 단계 길이
+    private static final int MAX_MATCHES = Integer.getInteger("shooting.bots.matches", 500);
+    private static final int RAMP_STEP = Math.max(1, Integer.getInteger("shooting.bots.rampStep", 25));
+    private static final long STEP_MILLIS = Long.getLong("shooting.bots.stepSeconds", 10) * 1000;
+    private static final long SETTLE_MILLIS = 2000; // 단계 시작 후 연결/입장이 끝날 때까지 측정하지 않는 시간
+
+    // 행동 패턴: random(무작위 이동), sweep(좌우 왕복 스크립트), aim(상대를 따라가며 조준)
+    private static final String PATTERN = System.getProperty("shooting.bots.pattern", "random");
+    private static final long INPUT_MILLIS = Long.getLong("shooting.bots.inputMillis", 50); // 이동 입력(INPUT) 묶음 간격
+    private static final long FIRE_MILLIS = Long.getLong("shooting.bots.fireMillis", 1000); // MISSILE 간격 (클라이언트 쿨다운과 같음)
+    private static final boolean REMATCH = Boolean.parseBoolean(System.getProperty("shooting.bots.rematch", "true"));
+    private static final String THEME = System.getProperty("shooting.bots.theme"); // 지정하면 매치메이킹으로 입장
+
+    // 프로토콜: text, binary, delta
+    private static final String PROTOCOL = System.getProperty("shooting.bots.protocol", "text");
+
+    // 서버 틱이 밀렸다고 보는 기준: 틱 간격의 1.5배를 넘긴 스냅샷 간격 비율, 기대 수신율 대비 비율
+    private static final long TICK_MILLIS = ServerConfig.TICK_MILLIS;
+    private static final double MAX_LATE_RATIO = Double.parseDouble(System.getProperty("shooting.bots.maxLateRatio", "0.01"));
+    private static final double MIN_RATE_RATIO = 0.9;
+    // 코어당 계산에 쓸 서버 코어 수 (서버가 다른 장비면 지정)
+    private static final int SERVER_CORES = Integer.getInteger("shooting.bots.serverCores",
+            Runtime.getRuntime().availableProcessors());
+
+    private static final FleetStats stats = new FleetStats();
+    private static final List<Bot> bots = new CopyOnWriteArrayList<>();
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.printf("Bot fleet: %s:%d, up to %d matches (+%d every %d s), pattern=%s, protocol=%s, tick=%d ms%n",
+                HOST, PORT, MAX_MATCHES, RAMP_STEP, STEP_MILLIS / 1000, PATTERN, PROTOCOL, TICK_MILLIS);
+
+        int matches = 0;
+        int step = 0;
+        int healthyMatches = 0;
+        boolean overrun = false;
+        while (matches < MAX_MATCHES) {
+            int target = Math.min(MAX_MATCHES, matches + RAMP_STEP);
+            for (; matches < target; matches++) {
+                String mapId = "bot-" + matches;
+                bots.add(new Bot(mapId).start());
+                bots.add(new Bot(mapId).start());
+            }
+            step++;
+
+            Thread.sleep(SETTLE_MILLIS);
+            stats.window(); // 입장 중 구간은 버린다
+            Thread.sleep(Math.max(1000, STEP_MILLIS - SETTLE_MILLIS));
+            FleetStats.Window window = stats.window();
+
+            boolean healthy = window.isHealthy();
+            System.out.println("[step " + step + "] matches=" + matches + " " + window + (healthy ? "" : " OVERRUN"));
+            if (!healthy) {
+                overrun = true;
+                break;
+            }
+            healthyMatches = matches;
+        }
+
+        if (overrun) {
+            System.out.printf("Capacity: %d matches held ticks within %d ms (%.1f matches per core, %d server cores)%n",
+                    healthyMatches, TICK_MILLIS, (double) healthyMatches / SERVER_CORES, SERVER_CORES);
+        } else {
+            System.out.printf("Capacity: no tick overrun up to %d matches (at least %.1f matches per core, %d server cores)%n",
+                    matches, (double) matches / SERVER_CORES, SERVER_CORES);
+        }
+        System.out.println("Matches completed: " + stats.completedMatches.sum() + ", errors: " + stats.errors.sum());
+
+        for (Bot bot : bots) {
+            bot.close();
+        }
+    }
+
+    // 봇 전체 통계 (여러 봇 스레드가 함께 기록, 단계 끝에 구간 값을 꺼내고 초기화)
+    static final class FleetStats {
+        final Histogram latency = new Histogram(); // INPUT 전송 -> 그 입력 seq가 적용된 스냅샷 수신 (ms)
+        final Histogram interval = new Histogram(); // 같은 봇의 연속 스냅샷 간격 (ms)
+        final LongAdder inboundBytes = new LongAdder();
+        final LongAdder snapshots = new LongAdder();
+        final LongAdder lateSnapshots = new LongAdder(); // 간격이 틱의 1.5배를 넘긴 스냅샷
+        final LongAdder completedMatches = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final AtomicInteger playingBots = new AtomicInteger(); // 맵에 들어가 스냅샷을 받는 중인 봇
+        private long windowStart = System.nanoTime();
+        private long completedAtWindowStart = 0;
+
+        synchronized Window window() {
+            long now = System.nanoTime();
+            long completed = completedMatches.sum();
+            Window window = new Window((now - windowStart) / 1e9, playingBots.get(),
+                    snapshots.sumThenReset(), lateSnapshots.sumThenReset(), inboundBytes.sumThenReset(),
+                    completed - completedAtWindowStart, latency.drain(), interval.drain());
+            windowStart = now;
+            completedAtWindowStart = completed;
+            return window;
+        }
+
+        // 한 단계 측정 결과
+        static final class Window {
+            final double seconds;
+            final int playingBots;
+            final long snapshots, lateSnapshots, inboundBytes, completed;
+            final long[] latency, interval;
+
+            Window(double seconds, int playingBots, long snapshots, long lateSnapshots, long inboundBytes,
+                   long completed, long[] latency, long[] interval) {
+                this.seconds = seconds;
+                this.playingBots = playingBots;
+                this.snapshots = snapshots;
+                this.lateSnapshots = lateSnapshots;
+                this.inboundBytes = inboundBytes;
+                this.completed = completed;
+                this.latency = latency;
+                this.interval = interval;
+            }
+
+            // 봇 하나가 받아야 할 스냅샷 수 대비 실제 비율
+            double rateRatio() {
+                if (playingBots == 0) return 0;
+                return snapshots / seconds / playingBots / (1000.0 / TICK_MILLIS);
+            }
+
+            double lateRatio() {
+                return snapshots == 0 ? 1 : (double) lateSnapshots / snapshots;
+            }
+
+            boolean isHealthy() {
+                return lateRatio() <= MAX_LATE_RATIO && rateRatio() >= MIN_RATE_RATIO;
+            }
+
+            @Override
+            public String toString() {
+                return String.format("bots=%d snapshots=%.0f/s (%.0f%% of tick rate) late=%.2f%% interval p99=%dms"
+                                + " latency p50=%dms p95=%dms p99=%dms inbound=%.1f KB/s completed=%d",
+                        playingBots, snapshots / seconds, rateRatio() * 100, lateRatio() * 100,
+                        Histogram.percentile(interval, 0.99), Histogram.percentile(latency, 0.50),
+                        Histogram.percentile(latency, 0.95), Histogram.percentile(latency, 0.99),
+                        inboundBytes / seconds / 1024, completed);
+            }
+        }
+    }
+
+    // 1ms 단위 지연 히스토그램 (마지막 칸은 그 이상 전부)
+    static final class Histogram {
+        private static final int BUCKETS = 2001;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos) {
+            counts.incrementAndGet((int) Math.min(BUCKETS - 1, Math.max(0, nanos / 1_000_000L)));
+        }
+
+        // 지금까지의 값을 꺼내고 초기화
+        long[] drain() {
+            long[] copy = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                copy[i] = counts.getAndSet(i, 0);
+            }
+            return copy;
+        }
+
+        static long percentile(long[] counts, double p) {
+            long total = 0;
+            for (long count : counts) total += count;
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return i;
+            }
+            return counts.length - 1;
+        }
+    }
+
+    // 수신 바이트를 세는 입력 스트림
+    static final class CountingInputStream extends FilterInputStream {
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) stats.inboundBytes.increment();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) stats.inboundBytes.add(n);
+            return n;
+        }
+    }
+
+    // 봇 하나: 연결 하나에 수신 가상 스레드와 행동 가상 스레드 하나씩
+    static final class Bot implements BinaryProtocol.FrameHandler {
+        // 한 묶음에 보내는 최대 이동 입력 수 (INPUT_MILLIS 동안 클라이언트가 보낼 수 있는 만큼, 서버의 틱당 입력 한도 안)
+        private static final int MAX_PRESSES = (int) Math.max(1, INPUT_MILLIS / ServerConfig.INPUT_PERIOD_MILLIS);
+        private static final int MOVE_STEP = PlayerMovement.SPEED * MAX_PRESSES; // 한 묶음에 움직일 최대 거리
+        private static final int PENDING = 16; // 지연 측정용으로 기억하는 최근 입력 묶음 수
+
+        private final String baseMapId;
+        private final Random random = new Random();
+        private Socket socket;
+        private OutputStream out;
+        private volatile boolean closed = false;
+
+        // 수신 스레드가 갱신 (행동 스레드가 읽음)
+        private volatile String clientId;
+        private volatile boolean playing = false;
+        private volatile boolean mirror = false;
+        private volatile int opponentX = -1;
+        private int round = 0;
+        private long lastSnapshotAt = 0;
+
+        // 바이너리 프로토콜 해석 상태 (수신 스레드 전용)
+        private final List<String> stringTable = new ArrayList<>();
+        private final EntitySnapshot[] snapshotRing = new EntitySnapshot[BinaryProtocol.SNAPSHOT_RING];
+
+        // 행동 스레드가 예측한 내 위치 (내 시점 좌표, 보낸 입력을 PlayerMovement로 적용), 입장 직후에는 수신 스레드가 첫 스냅샷 위치로 채운다
+        private volatile int x = -1, y = -1;
+        private int inputSeq = 0; // 마지막으로 보낸 입력 seq (판이 바뀌어도 계속 증가)
+        private int direction = 1; // sweep/random 진행 방향
+        private long lastFiredAt = 0;
+
+        // 보낸 입력 묶음의 마지막 seq와 전송 시각 (스냅샷의 입력 seq가 그 이상이면 지연으로 기록)
+        private final long[] pendingAt = new long[PENDING];
+        private final int[] pendingSeq = new int[PENDING];
+        private int pendingNext = 0;
+
+        Bot(String baseMapId) {
+            this.baseMapId = baseMapId;
+        }
+
+        Bot start() {
+            Thread.ofVirtual().name("bot-reader-" + baseMapId).start(this::read);
+            return this;
+        }
+
+        void close() {
+            closed = true;
+            try {
+                if (socket != null) socket.close();
+            } catch (IOException e) {
+                // 이미 닫힘
+            }
+        }
+
+        private void read() {
+            try {
+                socket = new Socket(HOST, PORT);
+                socket.setTcpNoDelay(true);
+                out = new BufferedOutputStream(socket.getOutputStream());
+                BinaryProtocol.FrameReader in = new BinaryProtocol.FrameReader(
+                        new BufferedInputStream(new CountingInputStream(socket.getInputStream())), 1 << 20);
+                joinMatch();
+                Thread.ofVirtual().name("bot-actor-" + baseMapId).start(this::act);
+
+                while (!closed && in.next(this)) {
+                    // 프레임마다 onText/onBinary에서 처리
+                }
+            } catch (IOException | RuntimeException e) {
+                if (!closed) {
+                    stats.errors.increment();
+                    System.err.println("Bot " + baseMapId + " failed: " + e);
+                }
+            } finally {
+                setPlaying(false);
+                close();
+            }
+        }
+
+        // 다음 판의 맵에 입장 (같은 판의 두 봇은 같은 순서로 맵 ID를 만든다)
+        private void joinMatch() {
+            String mapId = THEME != null ? THEME : baseMapId + "-" + round++;
+            switch (PROTOCOL) {
+                case "binary":
+                    sendLine("MAPSELECT " + mapId + " " + BinaryProtocol.NAME);
+                    break;
+                case "delta":
+                    sendLine("MAPSELECT " + mapId + " " + BinaryProtocol.NAME + " " + BinaryProtocol.DELTA);
+                    break;
+                default:
+                    sendLine("MAPSELECT " + mapId);
+            }
+            sendLine("READY");
+        }
+
+        private void setPlaying(boolean value) {
+            if (playing != value) {
+                playing = value;
+                if (value) {
+                    stats.playingBots.incrementAndGet();
+                } else {
+                    stats.playingBots.decrementAndGet();
+                }
+            }
+        }
+
+        // 행동 스레드: 패턴에 따라 이동 입력(INPUT), 주기적으로 MISSILE
+        // 서버는 INPUT 하나에 PlayerMovement 한 걸음만 움직이므로, 목표 위치까지 필요한 만큼 방향키 입력을 묶어 보낸다.
+        private void act() {
+            while (!closed) {
+                try {
+                    Thread.sleep(INPUT_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (!playing || x < 0) continue;
+
+                int dx = nextX() - x;
+                int dy = nextY() - y;
+                int xKey = dx < 0 ? PlayerMovement.LEFT : PlayerMovement.RIGHT;
+                int yKey = dy < 0 ? PlayerMovement.UP : PlayerMovement.DOWN;
+                int xPresses = presses(dx);
+                int yPresses = presses(dy);
+                for (int n = 0; n < Math.max(xPresses, yPresses); n++) {
+                    int keys = (n < xPresses ? xKey : 0) | (n < yPresses ? yKey : 0);
+                    x = PlayerMovement.stepX(x, keys);
+                    y = PlayerMovement.stepY(y, keys);
+                    sendInput(++inputSeq, keys);
+                }
+                if (xPresses > 0 || yPresses > 0) {
+                    remember(inputSeq);
+                }
+
+                long now = System.currentTimeMillis();
+                if (now - lastFiredAt >= FIRE_MILLIS) {
+                    lastFiredAt = now;
+                    sendPoint(BinaryProtocol.FRAME_MISSILE, "MISSILE", x + 40, y - 20);
+                }
+            }
+        }
+
+        private int nextX() {
+            switch (PATTERN) {
+                case "aim":
+                    // 상대 플레이어 중심을 향해 이동 (상대는 내 시점에서 화면 위쪽)
+                    int opponent = opponentX;
+                    if (opponent < 0) return x;
+                    return PlayerMovement.clampX(x + Integer.signum(opponent - x) * Math.min(MOVE_STEP, Math.abs(opponent - x)));
+                case "sweep":
+                    int swept = x + direction * MOVE_STEP;
+                    if (swept != PlayerMovement.clampX(swept)) {
+                        direction = -direction;
+                        swept = x + direction * MOVE_STEP;
+                    }
+                    return PlayerMovement.clampX(swept);
+                default:
+                    if (random.nextInt(10) == 0) direction = -direction; // 가끔 방향 전환
+                    return PlayerMovement.clampX(x + direction * random.nextInt(MOVE_STEP + 1));
+            }
+        }
+
+        private int nextY() {
+            if (!"random".equals(PATTERN)) return y;
+            return PlayerMovement.clampY(y + (random.nextInt(3) - 1) * PlayerMovement.SPEED);
+        }
+
+        // 목표까지의 거리를 움직이는 데 필요한 입력 수 (한 묶음 상한)
+        private static int presses(int distance) {
+            int step = PlayerMovement.SPEED;
+            return Math.min(MAX_PRESSES, (Math.abs(distance) + step - 1) / step);
+        }
+
+        private void remember(int seq) {
+            synchronized (pendingAt) {
+                pendingAt[pendingNext] = System.nanoTime();
+                pendingSeq[pendingNext] = seq;
+                pendingNext = (pendingNext + 1) % PENDING;
+            }
+        }
+
+        // 서버가 적용한 입력 seq까지의 묶음마다 지연 기록
+        private void matchPending(int ackedSeq, long now) {
+            synchronized (pendingAt) {
+                for (int i = 0; i < PENDING; i++) {
+                    if (pendingAt[i] != 0 && pendingSeq[i] <= ackedSeq) {
+                        stats.latency.record(now - pendingAt[i]);
+                        pendingAt[i] = 0;
+                    }
+                }
+            }
+        }
+
+        // 새 판에서는 서버의 입력 seq가 0부터 다시 오므로 지난 판의 묶음은 버린다
+        private void clearPending() {
+            synchronized (pendingAt) {
+                Arrays.fill(pendingAt, 0);
+            }
+        }
+
+        @Override
+        public void onText(String message) {
+            String[] tokens = message.split(" ");
+            switch (tokens[0]) {
+                case "SETTINGS":
+                    for (int i = 1; i + 1 < tokens.length; i += 2) {
+                        if (tokens[i].equals("PERSPECTIVE")) mirror = Integer.parseInt(tokens[i + 1]) != 0;
+                        if (tokens[i].equals("PROTOCOL")) stringTable.clear();
+                        if (tokens[i].equals("SNAPSHOT")) Arrays.fill(snapshotRing, null);
+                    }
+                    break;
+                case "CONNECTED":
+                    clientId = tokens[1];
+                    x = y = -1; // 첫 스냅샷의 서버 위치에서 시작
+                    clearPending();
+                    opponentX = -1;
+                    lastSnapshotAt = 0;
+                    setPlaying(true);
+                    break;
+                case "GAMESTATE":
+                    parseGameState(tokens);
+                    break;
+                case "VICTORY":
+                case "DEFEAT":
+                    if (tokens[0].equals("VICTORY")) stats.completedMatches.increment(); // 한 판에 한 번
+                    setPlaying(false);
+                    if (REMATCH && !closed) joinMatch();
+                    break;
+                case "MAPFULL":
+                case "SERVERFULL":
+                    stats.errors.increment();
+                    System.err.println("Bot " + baseMapId + " rejected: " + tokens[0]);
+                    close();
+                    break;
+                default:
+                    // GAMESTART, WAITING
+            }
+        }
+
+        // 텍스트 GAMESTATE: 플레이어 항목만 읽는다
+        private void parseGameState(String[] tokens) {
+            int ownX = -1, ownY = -1, ownSeq = 0, otherX = -1;
+            for (int i = 1; i + 7 < tokens.length; i++) {
+                if (!tokens[i].equals("PLAYER")) continue;
+                int px = Integer.parseInt(tokens[i + 2]);
+                int py = Integer.parseInt(tokens[i + 3]);
+                if (tokens[i + 1].equals(clientId)) {
+                    ownX = px;
+                    ownY = py;
+                    ownSeq = Integer.parseInt(tokens[i + 7]);
+                } else {
+                    otherX = px;
+                }
+                i += 7;
+            }
+            onSnapshot(ownX, ownY, ownSeq, otherX);
+        }
+
+        @Override
+        public void onBinary(int type, BinaryProtocol.Reader payload) {
+            switch (type) {
+                case BinaryProtocol.FRAME_STRING:
+                    int index = payload.readVarInt();
+                    String value = payload.readString();
+                    while (stringTable.size() <= index) stringTable.add(null);
+                    stringTable.set(index, value);
+                    break;
+                case BinaryProtocol.FRAME_GAMESTATE:
+                    parseBinaryGameState(payload);
+                    break;
+                case BinaryProtocol.FRAME_SNAPSHOT:
+                    parseSnapshot(payload);
+                    break;
+                default:
+                    // 서버가 보내지 않는 프레임
+            }
+        }
+
+        // 바이너리 GAMESTATE: 맨 앞의 플레이어 목록만 읽는다
+        private void parseBinaryGameState(BinaryProtocol.Reader payload) {
+            int ownX = -1, ownY = -1, ownSeq = 0, otherX = -1;
+            int playerCount = payload.readVarInt();
+            for (int n = 0; n < playerCount; n++) {
+                String id = stringTable.get(payload.readVarInt());
+                int px = payload.readZigZag();
+                int py = payload.readZigZag();
+                payload.readVarInt(); // 체력
+                payload.readVarInt(); // 이미지
+                payload.readByte(); // 플래그
+                int seq = payload.readVarInt(); // 입력 seq
+                if (id.equals(clientId)) {
+                    ownX = px;
+                    ownY = py;
+                    ownSeq = seq;
+                } else {
+                    otherX = px;
+                }
+            }
+            onSnapshot(ownX, ownY, ownSeq, otherX);
+        }
+
+        // delta 스냅샷: 클라이언트와 같이 기준 스냅샷에 적용하고 ACK
+        private void parseSnapshot(BinaryProtocol.Reader payload) {
+            int seq = payload.readVarInt();
+            int baseSeq = payload.readVarInt();
+            EntitySnapshot baseline = null;
+            if (baseSeq != 0) {
+                baseline = snapshotRing[baseSeq % snapshotRing.length];
+                if (baseline == null || baseline.getSeq() != baseSeq) {
+                    sendFrame(BinaryProtocol.encodeValue(BinaryProtocol.FRAME_ACK, 0));
+                    return;
+                }
+            }
+            int slot = seq % snapshotRing.length;
+            if (snapshotRing[slot] == null || snapshotRing[slot] == baseline) {
+                snapshotRing[slot] = new EntitySnapshot();
+            }
+            EntitySnapshot snapshot = snapshotRing[slot];
+            snapshot.readDelta(baseline, payload);
+            snapshot.setSeq(seq);
+            sendFrame(BinaryProtocol.encodeValue(BinaryProtocol.FRAME_ACK, seq));
+
+            int ownX = -1, ownY = -1, ownSeq = 0, otherX = -1;
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (EntitySnapshot.kindOf(snapshot.keyAt(i)) != EntitySnapshot.KIND_PLAYER) continue;
+                if (stringTable.get(snapshot.field(i, 0)).equals(clientId)) {
+                    ownX = snapshot.field(i, 1);
+                    ownY = snapshot.field(i, 2);
+                    ownSeq = snapshot.field(i, 6);
+                } else {
+                    otherX = snapshot.field(i, 1);
+                }
+            }
+            onSnapshot(ownX, ownY, ownSeq, otherX);
+        }
+
+        // 스냅샷 하나 수신 (정규 좌표, 없는 플레이어는 -1, ownSeq는 서버가 마지막으로 적용한 내 입력 seq)
+        private void onSnapshot(int ownX, int ownY, int ownSeq, int otherX) {
+            long now = System.nanoTime();
+            stats.snapshots.increment();
+            if (lastSnapshotAt != 0) {
+                long gap = now - lastSnapshotAt;
+                stats.interval.record(gap);
+                if (gap > TICK_MILLIS * 1_500_000L) stats.lateSnapshots.increment();
+            }
+            lastSnapshotAt = now;
+
+            int width = ShootingGameServer.PLAYER_WIDTH;
+            int height = ShootingGameServer.PLAYER_HEIGHT;
+            if (otherX >= 0) {
+                opponentX = mirror ? ShootingGameServer.SERVER_WIDTH - otherX - width : otherX;
+            }
+            if (ownX >= 0) {
+                int viewX = mirror ? ShootingGameServer.SERVER_WIDTH - ownX - width : ownX;
+                int viewY = mirror ? ShootingGameServer.SERVER_HEIGHT - ownY - height : ownY;
+                if (x < 0) {
+                    y = viewY; // 행동 스레드는 x >= 0을 보고 시작하므로 y 먼저
+                    x = viewX;
+                }
+                matchPending(ownSeq, now);
+            }
+        }
+
+        private void sendInput(int seq, int keys) {
+            if ("text".equals(PROTOCOL)) {
+                sendLine("INPUT " + seq + " " + keys);
+            } else {
+                sendFrame(BinaryProtocol.encodeInput(seq, keys));
+            }
+        }
+
+        private void sendPoint(int type, String command, int x, int y) {
+            if ("text".equals(PROTOCOL)) {
+                sendLine(command + " " + x + " " + y);
+            } else {
+                sendFrame(BinaryProtocol.encodePoint(type, x, y));
+            }
+        }
+
+        private void sendLine(String line) {
+            sendFrame((line + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        // 수신 스레드(ACK, 재입장)와 행동 스레드가 함께 쓰므로 봇 단위로 동기화
+        private void sendFrame(byte[] frame) {
+            synchronized (this) {
+                try {
+                    out.write(frame);
+                    out.flush();
+                } catch (IOException e) {
+                    if (!closed) {
+                        stats.errors.increment();
+                        close();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+import java.util.Random;
+
+// 충돌 판정 broadphase 벤치마크: 기존 이중 루프 vs SpatialHash 격자
+// 플레이어 수와 엔티티 수를 함께 늘려가며 틱당 판정 시간을 비교해 격자가 유리해지는 지점(엔티티 x 플레이어 쌍 수)을 찾는다.
+// 이중 루프와 격자 모두 엔티티 수에 선형이고 격자는 틱마다 다시 채우는 비용이 있으므로, 격자는 대상(플레이어)이 많을 때만 이득이다.
+// MapInstance는 이 결과로 정한 shooting.collisionGridPairs를 넘는 틱에서만 격자를 쓴다.
+// 실행: javac -d out src/*.java bench/*.java && java -cp out CollisionBenchmark [칸 크기]
+public class CollisionBenchmark {
+    private static final int WIDTH = ShootingGameServer.SERVER_WIDTH;
+    private static final int HEIGHT = ShootingGameServer.SERVER_HEIGHT;
+    private static final int PLAYER_WIDTH = ShootingGameServer.PLAYER_WIDTH;
+    private static final int PLAYER_HEIGHT = ShootingGameServer.PLAYER_HEIGHT;
+    private static final int OBSTACLE_SIZE = 50;
+    private static final int[] PLAYER_COUNTS = {2, 4, 8, 16, 32, 64};
+    private static final int[] ENTITY_COUNTS = {16, 64, 256, 1024, 4096, 16384};
+
+    private final int playerCount;
+    private final int entityCount;
+    private final int[] playerX, playerY;
+    private final int[] missileX, missileY, missileOwner;
+    private final int[] obstacleX, obstacleY;
+    private final SpatialHash missileGrid;
+    private final SpatialHash obstacleGrid;
+
+    public static void main(String[] args) {
+        int cellSize = args.length > 0 ? Integer.parseInt(args[0]) : ServerConfig.COLLISION_CELL_SIZE;
+
+        CollisionBenchmark[][] benches = new CollisionBenchmark[PLAYER_COUNTS.length][ENTITY_COUNTS.length];
+        for (int p = 0; p < PLAYER_COUNTS.length; p++) {
+            for (int e = 0; e < ENTITY_COUNTS.length; e++) {
+                CollisionBenchmark bench = new CollisionBenchmark(PLAYER_COUNTS[p], ENTITY_COUNTS[e], cellSize,
+                        new Random(PLAYER_COUNTS[p] * 31L + ENTITY_COUNTS[e]));
+
+                // 결과가 같은지 먼저 확인
+                if (bench.nestedLoop() != bench.spatialHash()) {
+                    throw new IllegalStateException("Hit count mismatch at " + PLAYER_COUNTS[p] + " players, "
+                            + ENTITY_COUNTS[e] + " entities");
+                }
+                benches[p][e] = bench;
+            }
+        }
+
+        // 전체를 한 번 돌려 JIT 워밍업 후 측정
+        for (CollisionBenchmark[] row : benches) {
+            for (CollisionBenchmark bench : row) {
+                bench.measure(false);
+                bench.measure(true);
+            }
+        }
+
+        System.out.println("cellSize=" + cellSize + " (entities = missiles = obstacles, pairs = (missiles + obstacles) x players)");
+        System.out.printf("%8s %8s %10s %14s %14s %8s%n", "players", "entities", "pairs", "nested ns/tick", "grid ns/tick", "speedup");
+        long[][] pairs = new long[PLAYER_COUNTS.length][ENTITY_COUNTS.length];
+        boolean[][] gridWins = new boolean[PLAYER_COUNTS.length][ENTITY_COUNTS.length];
+        for (int p = 0; p < PLAYER_COUNTS.length; p++) {
+            for (int e = 0; e < ENTITY_COUNTS.length; e++) {
+                CollisionBenchmark bench = benches[p][e];
+                long nested = bench.measure(false);
+                long grid = bench.measure(true);
+                pairs[p][e] = 2L * bench.entityCount * bench.playerCount;
+                gridWins[p][e] = grid < nested;
+                System.out.printf("%8d %8d %10d %14d %14d %7.2fx%n", bench.playerCount, bench.entityCount, pairs[p][e],
+                        nested, grid, (double) nested / grid);
+            }
+        }
+
+        // 측정한 모든 조합 중 이 쌍 수 이상이면 항상 격자가 빨랐던 가장 작은 값 (MapInstance 전환 기준 후보)
+        long threshold = Long.MAX_VALUE;
+        for (int p = 0; p < PLAYER_COUNTS.length; p++) {
+            for (int e = 0; e < ENTITY_COUNTS.length; e++) {
+                long candidate = pairs[p][e];
+                boolean holds = true;
+                for (int q = 0; q < PLAYER_COUNTS.length && holds; q++) {
+                    for (int f = 0; f < ENTITY_COUNTS.length; f++) {
+                        if (pairs[q][f] >= candidate && !gridWins[q][f]) {
+                            holds = false;
+                            break;
+                        }
+                    }
+                }
+                if (holds && candidate < threshold) {
+                    threshold = candidate;
+                }
+            }
+        }
+        System.out.println(threshold == Long.MAX_VALUE
+                ? "grid never faster for every shape above a pair count in this sweep"
+                : "grid faster for every measured shape with pairs >= " + threshold
+                + " (current shooting.collisionGridPairs=" + ServerConfig.COLLISION_GRID_PAIRS + ")");
+    }
+
+    CollisionBenchmark(int playerCount, int entityCount, int cellSize, Random random) {
+        this.playerCount = playerCount;
+        this.entityCount = entityCount;
+        playerX = new int[playerCount];
+        playerY = new int[playerCount];
+        missileX = new int[entityCount];
+        missileY = new int[entityCount];
+        missileOwner = new int[entityCount];
+        obstacleX = new int[entityCount];
+        obstacleY = new int[entityCount];
+        for (int i = 0; i < playerCount; i++) {
+            playerX[i] = random.nextInt(WIDTH - PLAYER_WIDTH);
+            playerY[i] = random.nextInt(HEIGHT - PLAYER_HEIGHT);
+        }
+        for (int i = 0; i < entityCount; i++) {
+            missileX[i] = random.nextInt(WIDTH);
+            missileY[i] = random.nextInt(HEIGHT);
+            missileOwner[i] = random.nextInt(playerCount);
+            obstacleX[i] = random.nextInt(WIDTH - OBSTACLE_SIZE);
+            obstacleY[i] = random.nextInt(HEIGHT - OBSTACLE_SIZE);
+        }
+        missileGrid = new SpatialHash(WIDTH, HEIGHT, cellSize);
+        obstacleGrid = new SpatialHash(WIDTH, HEIGHT, cellSize);
+    }
+
+    // 약 200ms 동안 반복 실행해 틱 하나의 평균 시간(ns) 측정
+    private long measure(boolean grid) {
+        long sink = 0;
+        long iterations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 100; i++) {
+                sink += grid ? spatialHash() : nestedLoop();
+            }
+            iterations += 100;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < 200_000_000L);
+        if (sink == 42) System.out.print(""); // 최적화로 제거되지 않도록
+        return elapsed / iterations;
+    }
+
+    // 기존 방식: 미사일 x 플레이어, 장애물 x 플레이어 전체 비교
+    private int nestedLoop() {
+        int hits = 0;
+        for (int m = 0; m < entityCount; m++) {
+            for (int p = 0; p < playerCount; p++) {
+                if (missileOwner[m] == p) continue;
+                if (missileHits(m, p)) hits++;
+            }
+        }
+        for (int o = 0; o < entityCount; o++) {
+            for (int p = 0; p < playerCount; p++) {
+                if (obstacleHits(o, p)) hits++;
+            }
+        }
+        return hits;
+    }
+
+    // 격자 방식: 틱마다 격자를 다시 채우고 플레이어와 같은 칸의 엔티티만 비교
+    private int spatialHash() {
+        missileGrid.clear();
+        obstacleGrid.clear();
+        for (int m = 0; m < entityCount; m++) {
+            missileGrid.insert(missileX[m], missileY[m], 0, 0);
+        }
+        for (int o = 0; o < entityCount; o++) {
+            obstacleGrid.insert(obstacleX[o], obstacleY[o], OBSTACLE_SIZE, OBSTACLE_SIZE);
+        }
+
+        int hits = 0;
+        for (int p = 0; p < playerCount; p++) {
+            int candidates = missileGrid.query(playerX[p], playerY[p], PLAYER_WIDTH, PLAYER_HEIGHT);
+            for (int i = 0; i < candidates; i++) {
+                int m = missileGrid.resultAt(i);
+                if (missileOwner[m] == p) continue;
+                if (missileHits(m, p)) hits++;
+            }
+            candidates = obstacleGrid.query(playerX[p], playerY[p], PLAYER_WIDTH, PLAYER_HEIGHT);
+            for (int i = 0; i < candidates; i++) {
+                if (obstacleHits(obstacleGrid.resultAt(i), p)) hits++;
+            }
+        }
+        return hits;
+    }
+
+    private boolean missileHits(int m, int p) {
+        return missileX[m] >= playerX[p] && missileX[m] <= playerX[p] + PLAYER_WIDTH &&
+                missileY[m] >= playerY[p] && missileY[m] <= playerY[p] + PLAYER_HEIGHT;
+    }
+
+    private boolean obstacleHits(int o, int p) {
+        return playerX[p] < obstacleX[o] + OBSTACLE_SIZE && playerX[p] + PLAYER_WIDTH > obstacleX[o] &&
+                playerY[p] < obstacleY[o] + OBSTACLE_SIZE && playerY[p] + PLAYER_HEIGHT > obstacleY[o];
+    }
+}
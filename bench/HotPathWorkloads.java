@@ -0,0 +1,419 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// 핫패스 JMH 벤치마크(bench/jmh/HotPathBenchmark)의 측정 대상을 만드는 곳
+// 게임 클래스는 기본 패키지에 있고 JMH 벤치마크는 이름 있는 패키지에 있어야 하므로, 상태는 여기서 만들고
+// 벤치마크에는 JDK 인터페이스로만 넘긴다: op 한 번은 LongSupplier.getAsLong() (결과는 Blackhole로),
+// 호출마다 상태를 되돌려야 하는 이동 벤치마크는 Runnable.run()도 구현한다 (되돌릴 때는 이미 늘어난 배열을 다시 써서 할당이 없다).
+public final class HotPathWorkloads {
+    public static final int COMMAND_BATCH = 300; // 명령 수신 벤치마크에서 스트림 하나에 담는 명령 수
+
+    private HotPathWorkloads() {
+    }
+
+    // 벤치마크 이름별 측정 대상 (count: 종류별 엔티티 수, variant: 상태 형식 또는 명령 프로토콜)
+    public static LongSupplier create(String name, int count, String variant) {
+        System.setProperty("java.awt.headless", "true");
+        switch (name) {
+            case "updateMissiles":
+                return updateMissiles(count);
+            case "checkCollisions":
+                return checkCollisions(count);
+            case "broadcastGameState":
+                return broadcastGameState(count, variant);
+            case "updateObstacles":
+                return updateObstacles(count);
+            case "updateItems":
+                return updateItems(count);
+            case "advanceTimingWheel":
+                return advanceTimingWheel(count);
+            case "decodeGameState":
+                return decodeGameState(count, variant);
+            case "upsertEntities":
+                return upsertEntities(count);
+            case "interpolateFrame":
+                return interpolateFrame(count);
+            case "readCommands":
+                return readCommands(variant);
+            default:
+                throw new IllegalArgumentException("Unknown workload: " + name);
+        }
+    }
+
+    // ---- 서버: MapInstance ----
+
+    // 미사일 이동: 50번 움직여도(350px) 화면 밖으로 나가지 않는 위치에 배치
+    private static LongSupplier updateMissiles(int count) {
+        MapInstance map = new MapInstance("Map1");
+        Random random = new Random(count);
+        int[] ys = new int[count];
+        for (int i = 0; i < count; i++) {
+            ys[i] = 400 + random.nextInt(ShootingGameServer.SERVER_HEIGHT - 400);
+        }
+        return new Resettable(() -> {
+            EntityStore missiles = map.getMissiles();
+            missiles.clear();
+            for (int i = 0; i < count; i++) {
+                missiles.add(i + 1, (i * 37) % ShootingGameServer.SERVER_WIDTH, ys[i],
+                        ShootingGameServer.MISSILE_WIDTH, ShootingGameServer.MISSILE_HEIGHT, -1, i % 2, 0);
+            }
+        }, () -> {
+            map.updateMissiles();
+            return map.getMissiles().size();
+        });
+    }
+
+    // 충돌 판정: 엔티티를 플레이어와 겹치지 않는 가운데 띠에 두어 상태가 바뀌지 않게 한다
+    private static LongSupplier checkCollisions(int count) {
+        MapInstance map = populatedMap(count, SnapshotStream.FORMAT_TEXT, new NullConnection());
+        return () -> {
+            map.checkCollisions();
+            return map.getMissiles().size();
+        };
+    }
+
+    // 상태 전송: 형식별 직렬화 + 두 연결에 전송 (연결은 보낸 내용을 버리는 가짜 구현)
+    private static LongSupplier broadcastGameState(int count, String format) {
+        MapInstance map = populatedMap(count, formatOf(format), new NullConnection());
+        return () -> {
+            map.broadcastGameState();
+            return map.getMissiles().size();
+        };
+    }
+
+    // 두 플레이어가 들어와 게임이 시작된 맵 (미사일, 장애물, 아이템 각각 count개, 플레이어 영역 밖)
+    // 슬롯 0 플레이어의 연결은 sink, 다른 플레이어는 보낸 내용을 버린다.
+    private static MapInstance populatedMap(int count, int format, ClientConnection sink) {
+        MapInstance map = new MapInstance("Map1");
+        for (int slot = 0; slot < 2; slot++) {
+            Player player = new Player("player-" + slot, 180, 600, 100, "images/player1.png");
+            player.setConnection(slot == 0 ? sink : new NullConnection());
+            player.setSnapshotStream(new SnapshotStream(format));
+            map.addPlayer(player);
+        }
+
+        // 플레이어는 위(슬롯 1)와 아래(슬롯 0) 끝에 있으므로 y 200~500 띠에만 배치
+        Random random = new Random(count);
+        int width = ShootingGameServer.SERVER_WIDTH;
+        for (int i = 0; i < count; i++) {
+            map.getMissiles().add(map.nextEntityId(), random.nextInt(width - 10), 200 + random.nextInt(300),
+                    ShootingGameServer.MISSILE_WIDTH, ShootingGameServer.MISSILE_HEIGHT, -1, 0, 0);
+            map.getObstacles().add(map.nextEntityId(), random.nextInt(width - 50), 200 + random.nextInt(250),
+                    ObstacleManager.OBSTACLE_SIZE, ObstacleManager.OBSTACLE_SIZE, random.nextBoolean() ? 1 : -1,
+                    EntityStore.NO_OWNER, map.getTheme().getObstacle());
+            map.getItems().add(map.nextEntityId(), random.nextInt(width - 40), 200 + random.nextInt(260),
+                    ItemManager.ITEM_SIZE, ItemManager.ITEM_SIZE, random.nextBoolean() ? 1 : -1,
+                    EntityStore.NO_OWNER, ItemManager.TYPE_DOUBLE_MISSILE);
+        }
+        return map;
+    }
+
+    private static int formatOf(String name) {
+        switch (name) {
+            case "binary":
+                return SnapshotStream.FORMAT_BINARY;
+            case "delta":
+                return SnapshotStream.FORMAT_DELTA;
+            default:
+                return SnapshotStream.FORMAT_TEXT;
+        }
+    }
+
+    // ---- 서버: ObstacleManager, ItemManager, TimingWheel ----
+
+    // 장애물 이동: 20번 움직여도(100px) 끝에 닿지 않도록 가운데에 배치
+    private static LongSupplier updateObstacles(int count) {
+        ObstacleManager manager = new ObstacleManager(ShootingGameServer.SERVER_WIDTH, ShootingGameServer.SERVER_HEIGHT,
+                new Random(count), new AtomicInteger(), new TimingWheel(256));
+        return new Resettable(() -> {
+            EntityStore obstacles = manager.getObstacles();
+            obstacles.clear();
+            for (int i = 0; i < count; i++) {
+                obstacles.add(i + 1, 150 + i % 150, (i * 13) % ShootingGameServer.SERVER_HEIGHT,
+                        ObstacleManager.OBSTACLE_SIZE, ObstacleManager.OBSTACLE_SIZE, i % 2 == 0 ? 1 : -1,
+                        EntityStore.NO_OWNER, 0);
+            }
+        }, () -> {
+            manager.update();
+            return manager.getObstacles().size();
+        });
+    }
+
+    private static LongSupplier updateItems(int count) {
+        ItemManager manager = new ItemManager(ShootingGameServer.SERVER_WIDTH, ShootingGameServer.SERVER_HEIGHT,
+                new Random(count), new AtomicInteger(), new TimingWheel(256));
+        return new Resettable(() -> {
+            EntityStore items = manager.getItems();
+            items.clear();
+            for (int i = 0; i < count; i++) {
+                items.add(i + 1, 150 + i % 150, (i * 13) % ShootingGameServer.SERVER_HEIGHT,
+                        ItemManager.ITEM_SIZE, ItemManager.ITEM_SIZE, i % 2 == 0 ? 1 : -1,
+                        EntityStore.NO_OWNER, ItemManager.TYPE_DOUBLE_MISSILE);
+            }
+        }, () -> {
+            manager.update();
+            return manager.getItems().size();
+        });
+    }
+
+    // 타이밍 휠: count개의 주기 작업(1~400틱, 휠 한 바퀴보다 긴 것 포함)이 만료될 때마다 다시 등록
+    private static LongSupplier advanceTimingWheel(int count) {
+        TimingWheel wheel = new TimingWheel(256);
+        long[] fired = new long[1];
+        for (int i = 0; i < count; i++) {
+            int period = 1 + (i * 37) % 400;
+            Runnable[] task = new Runnable[1];
+            task[0] = () -> {
+                fired[0]++;
+                wheel.schedule(period, task[0]);
+            };
+            wheel.schedule(period, task[0]);
+        }
+        return () -> {
+            wheel.advance();
+            return fired[0];
+        };
+    }
+
+    // ---- 클라이언트 ----
+
+    // 서버가 실제로 보낸 형식별 상태 프레임 하나를 GameStateDecoder로 해석해 월드에 반영
+    // (바이너리 형식은 앞서 받은 문자열 테이블 프레임을 먼저 적용해 둔다, delta는 기준 없는 전체 스냅샷)
+    private static LongSupplier decodeGameState(int count, String format) {
+        RecordingConnection sink = new RecordingConnection();
+        MapInstance map = populatedMap(count, formatOf(format), sink);
+        map.broadcastGameState();
+
+        long[] published = new long[1];
+        GameStateDecoder decoder = new GameStateDecoder(new ClientWorld.Exchange(), new GameStateDecoder.Listener() {
+            @Override
+            public void worldPublished() {
+                published[0]++;
+            }
+
+            @Override
+            public void ownPlayer(String id, int x, int y, int ackedInputSeq, boolean doubleMissileEnabled) {
+            }
+
+            @Override
+            public void acknowledge(int seq) {
+            }
+        });
+        decoder.setClientId("player-0");
+        decoder.resetSnapshots("delta".equals(format));
+
+        if (sink.binary.size() == 0) {
+            String message = sink.lastText;
+            return () -> {
+                decoder.parseGameState(message.split(" "));
+                return published[0];
+            };
+        }
+
+        // 받은 바이트를 클라이언트처럼(프레임 한도 1MiB) 끊어 해석하고, 마지막 상태 프레임의 내용을 복사해 둔다
+        int[] type = new int[1];
+        byte[][] frame = new byte[1][];
+        BinaryProtocol.FrameReader in = new BinaryProtocol.FrameReader(
+                new ByteArrayInputStream(sink.binary.toByteArray()), 1 << 20);
+        BinaryProtocol.FrameHandler handler = new BinaryProtocol.FrameHandler() {
+            @Override
+            public void onText(String line) {
+            }
+
+            @Override
+            public void onBinary(int frameType, BinaryProtocol.Reader payload) {
+                if (frameType != BinaryProtocol.FRAME_STRING) {
+                    type[0] = frameType;
+                    frame[0] = new byte[payload.remaining()];
+                    payload.readBytes(frame[0], 0, frame[0].length);
+                    return;
+                }
+                decoder.decodeBinary(frameType, payload);
+            }
+        };
+        try {
+            while (in.next(handler)) {
+                // 프레임마다 onBinary에서 처리
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        BinaryProtocol.Reader reader = new BinaryProtocol.Reader();
+        return () -> {
+            reader.reset(frame[0], 0, frame[0].length);
+            decoder.decodeBinary(type[0], reader);
+            return published[0];
+        };
+    }
+
+    // 엔티티 테이블: 같은 키 count개를 스냅샷마다 제자리 갱신 (평상시 스냅샷 수신)
+    private static LongSupplier upsertEntities(int count) {
+        ClientEntityTable<Missile> table = new ClientEntityTable<>(() -> new Missile(null, 0, 0));
+        return () -> {
+            table.begin();
+            for (int i = 0; i < count; i++) {
+                Missile missile = table.upsert(EntitySnapshot.key(EntitySnapshot.KIND_MISSILE, i));
+                missile.setX(i);
+                missile.setY(i);
+            }
+            table.end();
+            return table.size();
+        };
+    }
+
+    // 보간 버퍼: 50ms 간격 스냅샷 하나 기록 + 그릴 시점(100ms 지연) 준비 + 엔티티마다 보간 위치 조회
+    private static LongSupplier interpolateFrame(int count) {
+        long snapshotNanos = 50_000_000L;
+        InterpolationBuffer buffer = new InterpolationBuffer(100, 100);
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = EntitySnapshot.key(EntitySnapshot.KIND_MISSILE, i);
+        }
+        long[] time = new long[1];
+        return () -> {
+            long now = time[0] += snapshotNanos;
+            int step = (int) (now / snapshotNanos) & 0xff;
+            buffer.beginFrame(now);
+            for (int i = 0; i < count; i++) {
+                buffer.record(keys[i], i + step, i - step);
+            }
+            buffer.prepare(now + snapshotNanos / 2);
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += buffer.x(keys[i], 0) + buffer.y(keys[i], 0);
+            }
+            return sum;
+        };
+    }
+
+    // ---- 서버: 명령 수신 (ClientHandler 읽기 경로: FrameReader -> 처리기) ----
+
+    // 텍스트 명령은 ClientSession이 분리/해석 (맵 선택 전 세션이라 해석 뒤 입력 큐에는 넣지 않음),
+    // 바이너리 프레임은 ClientSession이 협상하려면 맵에 들어가야 하므로 같은 필드 해석만 하는 처리기로 잰다.
+    // op 한 번은 명령 하나, 스트림 끝에 닿으면 Runnable.run()으로 처음으로 되감는다.
+    private static LongSupplier readCommands(String protocol) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryProtocol.FrameHandler handler;
+        long[] decoded = new long[1];
+        if ("text".equals(protocol)) {
+            String[] lines = {"MOVE 120 600", "MISSILE 160 580", "INPUT 42 5"};
+            for (int i = 0; i < COMMAND_BATCH; i++) {
+                out.writeBytes((lines[i % lines.length] + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            handler = new ClientSession(new NullConnection());
+        } else {
+            byte[][] frames = {
+                    BinaryProtocol.encodePoint(BinaryProtocol.FRAME_MOVE, 120, 600),
+                    BinaryProtocol.encodePoint(BinaryProtocol.FRAME_MISSILE, 160, 580),
+                    BinaryProtocol.encodeInput(42, 5)};
+            for (int i = 0; i < COMMAND_BATCH; i++) {
+                out.writeBytes(frames[i % frames.length]);
+            }
+            handler = new BinaryProtocol.FrameHandler() {
+                @Override
+                public void onText(String line) {
+                }
+
+                @Override
+                public void onBinary(int type, BinaryProtocol.Reader payload) {
+                    if (type == BinaryProtocol.FRAME_INPUT) {
+                        decoded[0] += payload.readVarInt() + payload.readByte();
+                    } else {
+                        decoded[0] += payload.readZigZag() + payload.readZigZag();
+                    }
+                }
+            };
+        }
+
+        // 스트림 전체를 읽기 버퍼에 담아 두고 되감는다 (되감기에는 할당이 없다)
+        byte[] stream = out.toByteArray();
+        BufferedInputStream in = new BufferedInputStream(new ByteArrayInputStream(stream), stream.length);
+        in.mark(stream.length);
+        BinaryProtocol.FrameReader reader = new BinaryProtocol.FrameReader(in, ServerConfig.MAX_FRAME_BYTES);
+        return new Resettable(() -> {
+            try {
+                in.reset();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, () -> {
+            try {
+                return reader.next(handler) ? decoded[0] : -1;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // ---- 공용 ----
+
+    // 호출마다 상태를 되돌리는 측정 대상 (run: 되돌리기, getAsLong: op 한 번)
+    private static final class Resettable implements LongSupplier, Runnable {
+        private final Runnable reset;
+        private final LongSupplier op;
+
+        Resettable(Runnable reset, LongSupplier op) {
+            this.reset = reset;
+            this.op = op;
+        }
+
+        @Override
+        public void run() {
+            reset.run();
+        }
+
+        @Override
+        public long getAsLong() {
+            return op.getAsLong();
+        }
+    }
+
+    // 보낸 내용을 버리는 연결
+    private static class NullConnection implements ClientConnection {
+        @Override
+        public void send(String message) {
+        }
+
+        @Override
+        public void sendBinary(byte[] data, int offset, int length) {
+        }
+
+        @Override
+        public void sendSnapshot(String message) {
+            send(message);
+        }
+
+        @Override
+        public void sendSnapshotBinary(byte[] data, int offset, int length) {
+            sendBinary(data, offset, length);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    // 마지막 텍스트와 지금까지 보낸 바이너리 프레임을 기억하는 연결 (클라이언트 해석 벤치마크 준비용)
+    private static final class RecordingConnection extends NullConnection {
+        String lastText;
+        final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+
+        @Override
+        public void send(String message) {
+            lastText = message;
+        }
+
+        @Override
+        public void sendBinary(byte[] data, int offset, int length) {
+            binary.write(data, offset, length);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// 매치 반복 소크 테스트: 네트워크 없이 ClientSession으로 수천 판을 연달아 진행하며
+// 판이 끝난 뒤 스레드 수와 GC 후 힙 사용량이 계속 늘지 않는지(맵, 타이머, 엔티티 누수) 확인한다.
+// 판마다 두 세션이 같은 테마로 매치메이킹되고, 잠시 진행한 뒤 한쪽이 상대에게 미사일을 쏴서 승패가 나면 둘 다 연결을 끊는다.
+// 틱과 아이템 생성 간격을 줄여 짧은 판에서도 아이템 효과(더블 미사일)와 장애물이 충분히 생기도록 한다.
+// 실행: javac -d out src/*.java bench/*.java && java -cp out MatchSoak [판 수] [동시 판 수]
+public class MatchSoak {
+    private static final String THEME = "Map1";
+    private static final String[] PROTOCOLS = {"", " BINARY", " BINARY DELTA"}; // MAPSELECT 뒤에 붙는 형식
+    private static final long PLAY_MILLIS = 300; // 미사일을 쏘기 전까지 진행하는 시간
+    private static final long STUCK_MILLIS = 10_000; // 승패가 나지 않은 판으로 보는 시간
+    private static final int SAMPLES = 10; // 판 수를 나눠 측정하는 횟수
+    private static final long HEAP_SLACK_BYTES = 8L << 20; // 허용하는 힙 증가량 (측정 오차)
+    private static final int THREAD_SLACK = 2;
+
+    // 서버는 미사일을 플레이어 위치에서 쏘므로, 시작 위치(x 180)에서 오른쪽으로 6걸음(x 240) 옮기면 두 슬롯 모두
+    // 미사일(x + 40, 더블 미사일은 x + 20과 x + 60)이 상대 플레이어(대칭 시작 위치 x 230~320) 폭 안으로 날아간다.
+    // 서버는 틱마다 입력 수를 제한하므로 클라이언트처럼 입력 주기마다 한 걸음씩 보낸다.
+    private static final int AIM_STEPS = 6;
+    private static final int SHOTS = 12; // 명중 10번이면 체력 100이 0이 된다
+
+    public static void main(String[] args) throws InterruptedException {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+
+        // 서버 클래스가 설정을 읽기 전에 지정 (-D로 준 값이 우선)
+        setDefault("java.awt.headless", "true");
+        setDefault("shooting.tickMillis", "5");
+        setDefault("shooting.itemSpawnMillis", "100");
+        setDefault("shooting.metricsPort", "0");
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // 서버의 판별 로그는 버린다
+        ShootingGameServer.tickScheduler.start(0);
+        MapManager mapManager = ShootingGameServer.mapManager;
+
+        out.println("matches=" + total + ", concurrency=" + concurrency + ", tickMillis=" + ServerConfig.TICK_MILLIS
+                + ", itemSpawnMillis=" + ServerConfig.ITEM_SPAWN_MILLIS + ", mapPoolSize=" + ServerConfig.MAP_POOL_SIZE);
+        out.printf("%8s %8s %10s %8s %8s %8s %8s %8s%n",
+                "matches", "threads", "heap KB", "maps", "pooled", "created", "reused", "stuck");
+
+        List<Match> active = new ArrayList<>();
+        int started = 0, finished = 0, stuck = 0;
+        int sampleEvery = Math.max(1, total / SAMPLES);
+        long[] heap = new long[SAMPLES + 1];
+        int[] threads = new int[SAMPLES + 1];
+        int samples = 0;
+
+        while (finished < total) {
+            while (active.size() < concurrency && started < total) {
+                active.add(new Match(PROTOCOLS[started % PROTOCOLS.length]));
+                started++;
+            }
+
+            long now = System.currentTimeMillis();
+            Iterator<Match> it = active.iterator();
+            while (it.hasNext()) {
+                Match match = it.next();
+                match.aim(now);
+                if (!match.fired && now - match.startedAt >= PLAY_MILLIS) {
+                    match.fire();
+                }
+                boolean over = match.first.connection.result != null || match.second.connection.result != null;
+                if (over || now - match.startedAt >= STUCK_MILLIS) {
+                    if (!over) stuck++;
+                    match.close();
+                    it.remove();
+                    finished++;
+
+                    // 첫 구간을 워밍업으로 보고, 이후 구간마다 측정
+                    if (finished % sampleEvery == 0 && samples <= SAMPLES) {
+                        heap[samples] = usedHeapAfterGc();
+                        threads[samples] = ManagementFactory.getThreadMXBean().getThreadCount();
+                        out.printf("%8d %8d %10d %8d %8d %8d %8d %8d%n", finished, threads[samples], heap[samples] >> 10,
+                                mapManager.getMaps().size(), mapManager.getPooledMaps(),
+                                mapManager.getCreatedMaps(), mapManager.getReusedMaps(), stuck);
+                        samples++;
+                    }
+                }
+            }
+            Thread.sleep(1);
+        }
+
+        // 마지막 판의 맵이 틱 스케줄러에서 빠져 정리될 때까지 대기
+        Thread.sleep(20 * ServerConfig.TICK_MILLIS);
+        int leftMaps = mapManager.getMaps().size();
+        ShootingGameServer.tickScheduler.shutdown();
+
+        long heapGrowth = heap[samples - 1] - heap[0];
+        int threadGrowth = threads[samples - 1] - threads[0];
+        boolean heapOk = heapGrowth <= HEAP_SLACK_BYTES;
+        boolean threadsOk = threadGrowth <= THREAD_SLACK;
+        out.println("heap growth: " + (heapGrowth >> 10) + " KB" + (heapOk ? "" : " (leak?)")
+                + ", thread growth: " + threadGrowth + (threadsOk ? "" : " (leak?)")
+                + ", maps left: " + leftMaps + ", stuck matches: " + stuck);
+        boolean pass = heapOk && threadsOk && leftMaps == 0 && stuck == 0;
+        out.println(pass ? "PASS" : "FAIL");
+        System.exit(pass ? 0 : 1);
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    // 같은 방으로 매치메이킹된 두 세션
+    private static final class Match {
+        final Client first;
+        final Client second;
+        final long startedAt = System.currentTimeMillis();
+        int aimSteps = 0;
+        boolean fired = false;
+
+        Match(String protocol) {
+            first = new Client("MAPSELECT " + THEME + protocol);
+            second = new Client("MAPSELECT " + THEME + protocol);
+        }
+
+        // 먼저 들어온 쪽이 상대 앞으로 이동 (입력 주기마다 한 걸음)
+        void aim(long now) {
+            if (aimSteps < AIM_STEPS && now - startedAt >= (aimSteps + 1) * ServerConfig.INPUT_PERIOD_MILLIS) {
+                aimSteps++;
+                first.session.handleMessage("INPUT " + aimSteps + " " + PlayerMovement.RIGHT);
+            }
+        }
+
+        // 먼저 들어온 쪽이 상대에게 미사일 발사
+        void fire() {
+            fired = true;
+            for (int i = 0; i < SHOTS; i++) {
+                first.session.handleMessage("MISSILE 0 0");
+            }
+        }
+
+        void close() {
+            first.session.handleDisconnect();
+            second.session.handleDisconnect();
+        }
+    }
+
+    private static final class Client {
+        final SinkConnection connection = new SinkConnection();
+        final ClientSession session = new ClientSession(connection);
+
+        Client(String mapSelect) {
+            session.handleMessage(mapSelect);
+        }
+    }
+
+    // 보낸 내용을 버리고 승패 메시지만 기억하는 연결 (틱 스레드가 보낸다)
+    private static final class SinkConnection implements ClientConnection {
+        volatile String result;
+
+        @Override
+        public void send(String message) {
+            if (message.equals("VICTORY") || message.equals("DEFEAT")) {
+                result = message;
+            }
+        }
+
+        @Override
+        public void sendBinary(byte[] data, int offset, int length) {
+        }
+
+        @Override
+        public void sendSnapshot(String message) {
+        }
+
+        @Override
+        public void sendSnapshotBinary(byte[] data, int offset, int length) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
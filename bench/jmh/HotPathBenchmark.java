@@ -0,0 +1,184 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// 서버/클라이언트 핫패스 JMH 마이크로벤치마크
+// 맵 틱 단계(이동, 충돌, 상태 전송), 클라이언트 해석(GameStateDecoder), 엔티티 테이블, 보간 버퍼, 명령 수신 경로를
+// 종류별 엔티티 수(@Param count)에 따라 잰다. op당 할당은 -prof gc의 gc.alloc.rate.norm(B/op)으로 본다.
+// JMH 벤치마크는 기본 패키지에 둘 수 없으므로 측정 대상은 기본 패키지의 HotPathWorkloads가 만들어
+// LongSupplier로 넘긴다 (리플렉션은 준비 단계에서만 쓰고, 포크마다 대상이 하나라 호출은 인라인된다).
+// 실행: mvn -B -Pjmh test -Djmh.args="HotPathBenchmark -prof gc" > bench_output.txt
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+public class HotPathBenchmark {
+    private static final int MISSILE_STEPS = 50; // 50번 움직여도(350px) 화면 밖으로 나가지 않는다
+    private static final int SIDEWAYS_STEPS = 20; // 장애물/아이템이 20번 움직여도(100px) 끝에 닿지 않는다
+    private static final int COMMAND_BATCH = 300; // HotPathWorkloads.COMMAND_BATCH와 같아야 한다
+
+    // 상태가 바뀌지 않는 대상 (count: 종류별 엔티티 수)
+    @State(Scope.Thread)
+    public static class Entities {
+        @Param({"8", "64", "512"})
+        public int count;
+
+        LongSupplier op;
+
+        @Setup(Level.Trial)
+        public void create(BenchmarkParams params) {
+            op = workload(params, count, "");
+        }
+    }
+
+    // 엔티티가 움직여 상태가 바뀌는 대상: 호출마다 처음 상태로 되돌린다 (되돌리는 시간은 측정에서 빠진다)
+    @State(Scope.Thread)
+    public static class MovingEntities {
+        @Param({"8", "64", "512"})
+        public int count;
+
+        LongSupplier op;
+
+        @Setup(Level.Trial)
+        public void create(BenchmarkParams params) {
+            op = workload(params, count, "");
+        }
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            ((Runnable) op).run();
+        }
+    }
+
+    // 상태 형식별 대상 (text, binary, delta)
+    @State(Scope.Thread)
+    public static class Formats {
+        @Param({"8", "64", "512"})
+        public int count;
+
+        @Param({"text", "binary", "delta"})
+        public String format;
+
+        LongSupplier op;
+
+        @Setup(Level.Trial)
+        public void create(BenchmarkParams params) {
+            op = workload(params, count, format);
+        }
+    }
+
+    // 명령 수신 프로토콜별 대상
+    @State(Scope.Thread)
+    public static class Commands {
+        @Param({"text", "binary"})
+        public String protocol;
+
+        LongSupplier op;
+
+        @Setup(Level.Trial)
+        public void create(BenchmarkParams params) {
+            op = workload(params, 0, protocol);
+        }
+    }
+
+    // 벤치마크 메서드 이름의 측정 대상
+    private static LongSupplier workload(BenchmarkParams params, int count, String variant) {
+        String benchmark = params.getBenchmark();
+        String name = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+        try {
+            return (LongSupplier) Class.forName("HotPathWorkloads")
+                    .getMethod("create", String.class, int.class, String.class)
+                    .invoke(null, name, count, variant);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create workload " + name, e);
+        }
+    }
+
+    // ---- 서버: MapInstance, ObstacleManager, ItemManager, TimingWheel ----
+
+    @Benchmark
+    @OperationsPerInvocation(MISSILE_STEPS)
+    public void updateMissiles(MovingEntities state, Blackhole blackhole) {
+        for (int i = 0; i < MISSILE_STEPS; i++) {
+            blackhole.consume(state.op.getAsLong());
+        }
+    }
+
+    @Benchmark
+    public long checkCollisions(Entities state) {
+        return state.op.getAsLong();
+    }
+
+    @Benchmark
+    public long broadcastGameState(Formats state) {
+        return state.op.getAsLong();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIDEWAYS_STEPS)
+    public void updateObstacles(MovingEntities state, Blackhole blackhole) {
+        for (int i = 0; i < SIDEWAYS_STEPS; i++) {
+            blackhole.consume(state.op.getAsLong());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIDEWAYS_STEPS)
+    public void updateItems(MovingEntities state, Blackhole blackhole) {
+        for (int i = 0; i < SIDEWAYS_STEPS; i++) {
+            blackhole.consume(state.op.getAsLong());
+        }
+    }
+
+    @Benchmark
+    public long advanceTimingWheel(Entities state) {
+        return state.op.getAsLong();
+    }
+
+    // ---- 클라이언트 ----
+
+    @Benchmark
+    public long decodeGameState(Formats state) {
+        return state.op.getAsLong();
+    }
+
+    @Benchmark
+    public long upsertEntities(Entities state) {
+        return state.op.getAsLong();
+    }
+
+    @Benchmark
+    public long interpolateFrame(Entities state) {
+        return state.op.getAsLong();
+    }
+
+    // ---- 서버: 명령 수신 ----
+
+    // 스트림을 되감고 명령 COMMAND_BATCH개를 읽는다 (op는 명령 하나, 되감기는 포인터만 옮긴다)
+    @Benchmark
+    @OperationsPerInvocation(COMMAND_BATCH)
+    public void readCommands(Commands state, Blackhole blackhole) {
+        ((Runnable) state.op).run();
+        for (int i = 0; i < COMMAND_BATCH; i++) {
+            blackhole.consume(state.op.getAsLong());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+// 능동 렌더링 루프: 전용 스레드가 Canvas의 BufferStrategy에 직접 그리고 화면으로 내보낸다.
+// repaint()처럼 EDT가 요청을 합치거나 미루지 않으므로 프레임 간격이 일정하고, 입력 처리(EDT 타이머)와도 분리된다.
+// fps가 0이면 제한 없이 연속으로 그린다.
+public class ActiveRenderLoop implements Runnable {
+    // 한 프레임 그리기 (그리기 스레드에서 호출)
+    public interface Renderer {
+        void render(Graphics2D g, int width, int height);
+    }
+
+    private final Canvas canvas;
+    private final Renderer renderer;
+    private final long periodNanos;
+    private final FrameStats stats;
+    private volatile boolean running = true;
+
+    public ActiveRenderLoop(Canvas canvas, Renderer renderer, int fps, FrameStats stats) {
+        this.canvas = canvas;
+        this.renderer = renderer;
+        this.periodNanos = fps > 0 ? 1_000_000_000L / fps : 0;
+        this.stats = stats;
+    }
+
+    public void start() {
+        Thread thread = new Thread(this, "render-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        long next = System.nanoTime();
+        while (running) {
+            // 게임 화면이 보이지 않으면(맵 선택 화면) 쉬었다가 다시 확인
+            if (!canvas.isShowing()) {
+                LockSupport.parkNanos(50_000_000L);
+                next = System.nanoTime();
+                continue;
+            }
+
+            BufferStrategy strategy = canvas.getBufferStrategy();
+            if (strategy == null) {
+                try {
+                    canvas.createBufferStrategy(2);
+                } catch (IllegalStateException e) {
+                    // 그 사이 화면에서 빠짐: 다음 반복에서 다시 확인
+                }
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try {
+                renderFrame(strategy);
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // 한 프레임 실패로 루프가 멈추지 않도록
+            }
+            stats.frame(start, System.nanoTime() - start);
+
+            if (periodNanos > 0) {
+                next += periodNanos;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (-wait > periodNanos) {
+                    next = System.nanoTime(); // 한 프레임 넘게 밀리면 몰아서 그리지 않고 기준을 다시 잡는다 (놓친 프레임은 stats가 센다)
+                }
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    // BufferStrategy 표준 패턴: 그리는 도중 버퍼 내용이 복원/손실되면 다시 그린다
+    private void renderFrame(BufferStrategy strategy) {
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    renderer.render(g, canvas.getWidth(), canvas.getHeight());
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync(); // 일부 플랫폼(X11)은 sync 전까지 화면 반영이 늦다
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// 에셋(이미지) 경로 등록부: 서버는 이미지를 읽지 않고 숫자 에셋 ID만 들고 있다가 전송할 때 경로로 바꾼다.
+// 맵 테마마다 배경, 미사일, 장애물, 플레이어 후보 이미지의 에셋 ID를 가진다.
+public final class AssetRegistry {
+    private static final List<String> paths = new ArrayList<>(); // 에셋 ID -> 이미지 경로
+
+    public static final Theme DESERT = new Theme("images/back1.png", "images/saliva.png", "images/obstacle1.png",
+            numbered("images/camel", 1, 5)); // 맵1: 사막
+    public static final Theme SPACE = new Theme("images/back2.png", "images/missile.png", "images/obstacle2.png",
+            numbered("images/spaceship", 2, 6)); // 맵2: 우주
+    public static final Theme SEA = new Theme("images/back3.png", "images/ink.png", "images/obstacle3.png",
+            numbered("images/octopus", 1, 9)); // 맵3: 바다
+    public static final Theme DEFAULT = new Theme("images/back1.png", "images/saliva.png", "images/obstacle1.png",
+            new String[]{"images/default_player.png"}); // 알 수 없는 맵
+
+    private AssetRegistry() {
+    }
+
+    // 맵 ID에 해당하는 테마 (알 수 없으면 기본 테마)
+    public static Theme theme(String mapId) {
+        switch (mapId) {
+            case "Map1":
+                return DESERT;
+            case "Map2":
+                return SPACE;
+            case "Map3":
+                return SEA;
+            default:
+                return DEFAULT;
+        }
+    }
+
+    // 알려진 테마 이름인지 (매치메이킹 대상)
+    public static boolean hasTheme(String mapId) {
+        return theme(mapId) != DEFAULT;
+    }
+
+    public static String path(int assetId) {
+        return paths.get(assetId);
+    }
+
+    // 같은 경로는 같은 ID
+    private static int register(String path) {
+        int index = paths.indexOf(path);
+        if (index >= 0) return index;
+        paths.add(path);
+        return paths.size() - 1;
+    }
+
+    private static String[] numbered(String prefix, int from, int to) {
+        String[] result = new String[to - from + 1];
+        for (int i = from; i <= to; i++) {
+            result[i - from] = prefix + i + ".png";
+        }
+        return result;
+    }
+
+    // 맵 테마 하나의 에셋 ID 묶음
+    public static final class Theme {
+        private final int background;
+        private final int missile;
+        private final int obstacle;
+        private final int[] players;
+
+        private Theme(String background, String missile, String obstacle, String[] players) {
+            this.background = register(background);
+            this.missile = register(missile);
+            this.obstacle = register(obstacle);
+            this.players = new int[players.length];
+            for (int i = 0; i < players.length; i++) {
+                this.players[i] = register(players[i]);
+            }
+        }
+
+        public int getBackground() {
+            return background;
+        }
+
+        public int getMissile() {
+            return missile;
+        }
+
+        public int getObstacle() {
+            return obstacle;
+        }
+
+        // 플레이어 이미지 후보 중 하나
+        public int randomPlayer(Random random) {
+            return players[random.nextInt(players.length)];
+        }
+    }
+}
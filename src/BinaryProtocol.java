@@ -0,0 +1,273 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// 바이너리 프로토콜 (SETTINGS 핸드셰이크에서 PROTOCOL BINARY로 협상)
+// 프레임 구조: [타입 1바이트][payload 길이 varint][payload]
+// 타입 값은 0x20 미만이므로 텍스트 명령(대문자로 시작하는 한 줄)과 같은 스트림에 섞여도 첫 바이트로 구분된다.
+public final class BinaryProtocol {
+    private BinaryProtocol() {
+    }
+
+    public static final String NAME = "BINARY";
+
+    // 프레임 타입 (0x0A, 0x0D는 개행 문자와 겹치므로 사용하지 않음)
+    public static final int FRAME_STRING = 0x01; // 문자열 테이블 등록: varint 인덱스, 문자열
+    public static final int FRAME_GAMESTATE = 0x02; // 게임 상태 스냅샷
+    public static final int FRAME_MOVE = 0x03; // 클라이언트 이동: zigzag x, zigzag y
+    public static final int FRAME_MISSILE = 0x04; // 클라이언트 미사일 발사: zigzag x, zigzag y (서버는 자기 플레이어 위치에서 발사)
+    public static final int FRAME_SNAPSHOT = 0x05; // delta 스냅샷: seq, 기준 seq, 변경분
+    public static final int FRAME_ACK = 0x06; // 클라이언트가 적용한 스냅샷 seq (0이면 전체 스냅샷 요청)
+    public static final int FRAME_INPUT = 0x07; // 클라이언트 이동 입력: varint 입력 seq, 방향키 비트 1바이트
+
+    public static final String DELTA = "DELTA"; // MAPSELECT/SETTINGS의 delta 스냅샷 협상 토큰
+    public static final int SNAPSHOT_RING = 32; // 양쪽이 보관하는 최근 스냅샷 수
+
+    // 게임 상태 안의 플래그 비트
+    public static final int FLAG_DOUBLE_MISSILE = 1;
+    public static final int FLAG_MOVING_RIGHT = 1;
+
+    public static boolean isFrameType(int b) {
+        return b >= FRAME_STRING && b <= FRAME_INPUT;
+    }
+
+    // 정수 하나만 담는 프레임 (ACK)
+    public static byte[] encodeValue(int type, int value) {
+        Writer payload = new Writer(8);
+        payload.writeVarInt(value);
+        Writer frame = new Writer(8);
+        frame.writeFrame(type, payload);
+        return frame.toByteArray();
+    }
+
+    // 좌표 두 개만 담는 클라이언트 명령 프레임 (MOVE, MISSILE)
+    public static byte[] encodePoint(int type, int x, int y) {
+        Writer payload = new Writer(8);
+        payload.writeZigZag(x);
+        payload.writeZigZag(y);
+        Writer frame = new Writer(12);
+        frame.writeFrame(type, payload);
+        return frame.toByteArray();
+    }
+
+    // 이동 입력 프레임 (INPUT)
+    public static byte[] encodeInput(int seq, int keys) {
+        Writer payload = new Writer(8);
+        payload.writeVarInt(seq);
+        payload.writeByte(keys);
+        Writer frame = new Writer(12);
+        frame.writeFrame(FRAME_INPUT, payload);
+        return frame.toByteArray();
+    }
+
+    // 재사용 가능한 바이트 버퍼 작성기
+    public static class Writer {
+        private byte[] buf;
+        private int size = 0;
+
+        public Writer(int capacity) {
+            buf = new byte[Math.max(16, capacity)];
+        }
+
+        public void reset() {
+            size = 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public byte[] array() {
+            return buf;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+            }
+        }
+
+        public void writeByte(int b) {
+            ensure(1);
+            buf[size++] = (byte) b;
+        }
+
+        // 0 이상의 정수 (7비트씩, 작은 값일수록 짧게)
+        public void writeVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buf[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[size++] = (byte) value;
+        }
+
+        // 음수가 될 수 있는 좌표용
+        public void writeZigZag(int value) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        public void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        public void writeBytes(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, buf, size, length);
+            size += length;
+        }
+
+        // 다른 작성기의 내용을 프레임 하나로 감싸서 추가
+        public void writeFrame(int type, Writer payload) {
+            writeByte(type);
+            writeVarInt(payload.size);
+            writeBytes(payload.buf, 0, payload.size);
+        }
+    }
+
+    // 바이트 배열 구간을 읽는 판독기
+    public static final class Reader {
+        private byte[] buf;
+        private int pos;
+        private int limit;
+
+        public Reader() {
+        }
+
+        public Reader(byte[] buf, int offset, int length) {
+            reset(buf, offset, length);
+        }
+
+        public void reset(byte[] buf, int offset, int length) {
+            this.buf = buf;
+            this.pos = offset;
+            this.limit = offset + length;
+        }
+
+        public boolean hasRemaining() {
+            return pos < limit;
+        }
+
+        public int remaining() {
+            return limit - pos;
+        }
+
+        // 남은 바이트를 그대로 복사 (프레임을 다른 스레드로 넘길 때)
+        public void readBytes(byte[] dst, int offset, int length) {
+            if (length > limit - pos) throw new IllegalStateException("Frame underflow");
+            System.arraycopy(buf, pos, dst, offset, length);
+            pos += length;
+        }
+
+        public int readByte() {
+            if (pos >= limit) throw new IllegalStateException("Frame underflow");
+            return buf[pos++] & 0xFF;
+        }
+
+        public int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalStateException("Malformed varint");
+        }
+
+        public int readZigZag() {
+            int raw = readVarInt();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        public String readString() {
+            int length = readVarInt();
+            if (length > limit - pos) throw new IllegalStateException("Frame underflow");
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+
+    // 텍스트 줄과 바이너리 프레임이 섞인 스트림을 읽는 판독기 (블로킹 소켓용)
+    public static class FrameReader {
+        private final InputStream in;
+        private final int maxFrameBytes;
+        private byte[] buf = new byte[256];
+        private final Reader reader = new Reader();
+
+        public FrameReader(InputStream in, int maxFrameBytes) {
+            this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in);
+            this.maxFrameBytes = maxFrameBytes;
+        }
+
+        // 프레임 하나를 읽어 처리기에 전달 (스트림 끝이면 false)
+        public boolean next(FrameHandler handler) throws IOException {
+            int first = in.read();
+            if (first < 0) return false;
+
+            if (isFrameType(first)) {
+                int length = readVarInt();
+                if (length < 0) throw new IOException("Invalid frame length: " + length); // varint가 음수로 넘침
+                if (length > maxFrameBytes) throw new IOException("Frame too long: " + length);
+                ensure(length);
+                readFully(length);
+                reader.reset(buf, 0, length);
+                handler.onBinary(first, reader);
+                return true;
+            }
+
+            // 텍스트 한 줄 (개행 문자까지)
+            int size = 0;
+            int b = first;
+            while (b != '\n') {
+                if (b < 0) break; // 마지막 줄에 개행이 없는 경우
+                if (size >= maxFrameBytes) throw new IOException("Line too long");
+                ensure(size + 1);
+                buf[size++] = (byte) b;
+                b = in.read();
+            }
+            if (size > 0 && buf[size - 1] == '\r') size--;
+            handler.onText(new String(buf, 0, size, StandardCharsets.UTF_8));
+            return b >= 0;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = in.read();
+                if (b < 0) throw new EOFException();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        private void readFully(int length) throws IOException {
+            int read = 0;
+            while (read < length) {
+                int n = in.read(buf, read, length - read);
+                if (n < 0) throw new EOFException();
+                read += n;
+            }
+        }
+
+        private void ensure(int capacity) {
+            if (capacity > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, capacity));
+            }
+        }
+    }
+
+    // 프레임 처리 콜백
+    public interface FrameHandler {
+        void onText(String line) throws IOException;
+
+        void onBinary(int type, Reader payload) throws IOException;
+    }
+}
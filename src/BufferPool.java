@@ -0,0 +1,80 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 송신 프레임용 direct ByteBuffer 풀 (2의 거듭제곱 크기별)
+// direct 버퍼에 바로 인코딩해 두면 소켓 쓰기 때 JDK가 힙 버퍼를 임시 direct 버퍼로 한 번 더 복사하지 않는다.
+// 가장 큰 크기보다 큰 프레임은 풀을 쓰지 않고 힙 버퍼로 만든다 (release에서 무시).
+public final class BufferPool {
+    private BufferPool() {
+    }
+
+    private static final int MIN_SHIFT = 8; // 256 B
+    private static final int MAX_SHIFT = 16; // 64 KB
+    private static final long MAX_POOLED_BYTES = ServerConfig.BUFFER_POOL_BYTES;
+
+    private static final List<ConcurrentLinkedQueue<ByteBuffer>> FREE = freeLists(); // 크기(shift - MIN_SHIFT)별 빈 버퍼
+    private static final AtomicLong pooledBytes = new AtomicLong(); // 풀에 반납되어 쉬고 있는 버퍼 크기 합
+    private static final AtomicLong allocatedBytes = new AtomicLong(); // 지금까지 새로 할당한 direct 버퍼 크기 합
+
+    private static List<ConcurrentLinkedQueue<ByteBuffer>> freeLists() {
+        List<ConcurrentLinkedQueue<ByteBuffer>> lists = new ArrayList<>(MAX_SHIFT - MIN_SHIFT + 1);
+        for (int shift = MIN_SHIFT; shift <= MAX_SHIFT; shift++) {
+            lists.add(new ConcurrentLinkedQueue<>());
+        }
+        return List.copyOf(lists);
+    }
+
+    // size 바이트 이상 들어가는 비어 있는 버퍼 (position 0, limit = capacity)
+    public static ByteBuffer acquire(int size) {
+        int shift = Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1));
+        if (shift > MAX_SHIFT) {
+            return ByteBuffer.allocate(size);
+        }
+        ByteBuffer buffer = FREE.get(shift - MIN_SHIFT).poll();
+        if (buffer != null) {
+            pooledBytes.addAndGet(-buffer.capacity());
+            buffer.clear();
+            return buffer;
+        }
+        allocatedBytes.addAndGet(1 << shift);
+        return ByteBuffer.allocateDirect(1 << shift);
+    }
+
+    // 다 쓴 버퍼 반납 (풀 크기 상한을 넘으면 GC에 맡긴다)
+    public static void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) return;
+        int capacity = buffer.capacity();
+        int shift = Integer.numberOfTrailingZeros(capacity);
+        if (Integer.bitCount(capacity) != 1 || shift < MIN_SHIFT || shift > MAX_SHIFT) return;
+        if (pooledBytes.addAndGet(capacity) > MAX_POOLED_BYTES) {
+            pooledBytes.addAndGet(-capacity);
+            return;
+        }
+        FREE.get(shift - MIN_SHIFT).offer(buffer);
+    }
+
+    // 텍스트 한 줄 (개행 포함)을 담은 읽기 상태 버퍼
+    public static ByteBuffer encodeLine(byte[] bytes) {
+        ByteBuffer buffer = acquire(bytes.length + 1);
+        buffer.put(bytes).put((byte) '\n');
+        return buffer.flip();
+    }
+
+    // 바이너리 프레임 복사본을 담은 읽기 상태 버퍼
+    public static ByteBuffer copyOf(byte[] data, int offset, int length) {
+        ByteBuffer buffer = acquire(length);
+        buffer.put(data, offset, length);
+        return buffer.flip();
+    }
+
+    public static long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    public static long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+}
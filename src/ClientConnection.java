@@ -0,0 +1,16 @@
+// 클라이언트에게 메시지를 보내는 통로 (블로킹 소켓, NIO 채널 공용)
+public interface ClientConnection {
+    // 메시지 한 줄 전송 (개행 문자는 구현체가 붙인다)
+    void send(String message);
+
+    // 바이너리 프레임 전송 (호출 후 data는 재사용될 수 있으므로 구현체가 복사한다)
+    void sendBinary(byte[] data, int offset, int length);
+
+    // 게임 상태 스냅샷 전송: 아직 보내지 못한 이전 스냅샷이 있으면 새 것으로 대체될 수 있다
+    void sendSnapshot(String message);
+
+    void sendSnapshotBinary(byte[] data, int offset, int length);
+
+    // 연결 종료
+    void close();
+}
@@ -0,0 +1,103 @@
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+// 클라이언트 엔티티 테이블: 엔티티 키별로 객체 하나를 두고 스냅샷마다 그 객체를 제자리에서 갱신한다.
+// 스냅샷에서 빠진 엔티티의 객체는 풀로 돌려보냈다가 새로 나타나는 엔티티가 재사용하므로, 평상시 스냅샷 수신에는 할당이 없다.
+// EntitySnapshot처럼 키 오름차순 배열로 보관한다 (스냅샷도 키 순서로 오므로 보통 맨 뒤에 붙거나 제자리).
+// 동기화하지 않는다: ClientWorld 한 벌에 속해 디코더가 채우고, 발행된 뒤에는 그리기 쪽만 읽는다.
+public class ClientEntityTable<T> {
+    private final Supplier<T> factory;
+    private int count = 0;
+    private int[] keys = new int[16];
+    private Object[] entities = new Object[16];
+    private boolean[] touched = new boolean[16]; // 이번 스냅샷에 나온 엔티티
+    private Object[] pool = new Object[16];
+    private int pooled = 0;
+
+    public ClientEntityTable(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) entities[index];
+    }
+
+    public int keyAt(int index) {
+        return keys[index];
+    }
+
+    // 스냅샷 하나 반영 시작
+    public void begin() {
+        Arrays.fill(touched, 0, count, false);
+    }
+
+    // 키의 엔티티 객체 반환 (없으면 풀에서 꺼내 추가), 호출자가 필드를 채운다
+    @SuppressWarnings("unchecked")
+    public T upsert(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+            ensureCapacity(count + 1);
+            System.arraycopy(keys, index, keys, index + 1, count - index);
+            System.arraycopy(entities, index, entities, index + 1, count - index);
+            System.arraycopy(touched, index, touched, index + 1, count - index);
+            keys[index] = key;
+            entities[index] = pooled > 0 ? pool[--pooled] : factory.get();
+            count++;
+        }
+        touched[index] = true;
+        return (T) entities[index];
+    }
+
+    // 스냅샷 반영 끝: 이번에 나오지 않은 엔티티는 풀로 돌려보낸다
+    public void end() {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (touched[i]) {
+                keys[kept] = keys[i];
+                entities[kept] = entities[i];
+                touched[kept] = true;
+                kept++;
+            } else {
+                release(entities[i]);
+            }
+        }
+        Arrays.fill(entities, kept, count, null);
+        count = kept;
+    }
+
+    public void clear() {
+        for (int i = 0; i < count; i++) {
+            release(entities[i]);
+        }
+        Arrays.fill(entities, 0, count, null);
+        count = 0;
+    }
+
+    private void release(Object entity) {
+        if (pooled == pool.length) {
+            pool = Arrays.copyOf(pool, pooled * 2);
+        }
+        pool[pooled++] = entity;
+    }
+
+    // 이진 탐색 (없으면 -(삽입 위치) - 1)
+    private int indexOf(int key) {
+        if (count == 0 || keys[count - 1] < key) return -(count + 1); // 가장 흔한 경우: 맨 뒤에 추가
+        return Arrays.binarySearch(keys, 0, count, key);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newLength = Math.max(keys.length * 2, capacity);
+            keys = Arrays.copyOf(keys, newLength);
+            entities = Arrays.copyOf(entities, newLength);
+            touched = Arrays.copyOf(touched, newLength);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 클라이언트 한 명의 프로토콜 상태와 명령 처리
+// 네트워크 엔진(블로킹 소켓, NIO)과 무관하게 텍스트 명령 한 줄 또는 바이너리 프레임 하나씩 받아 처리한다.
+public class ClientSession implements BinaryProtocol.FrameHandler {
+    private final ClientConnection connection;
+    private Player player;
+    private String selectedMapId;
+    private boolean binaryProtocol = false; // SETTINGS에서 바이너리 프로토콜로 협상되었는지
+
+    public ClientSession(ClientConnection connection) {
+        this.connection = connection;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    @Override
+    public void onText(String line) {
+        handleMessage(line);
+    }
+
+    // 바이너리 프레임 처리 (협상 이후 MOVE, MISSILE)
+    @Override
+    public void onBinary(int type, BinaryProtocol.Reader payload) {
+        if (!binaryProtocol) {
+            throw new IllegalStateException("Binary frame before protocol negotiation");
+        }
+        ShootingGameServer.metrics.inboundBinary(type, payload.remaining());
+        switch (type) {
+            case BinaryProtocol.FRAME_MOVE:
+                handleMove(payload.readZigZag(), payload.readZigZag());
+                break;
+            case BinaryProtocol.FRAME_MISSILE:
+                handleMissile(payload.readZigZag(), payload.readZigZag());
+                break;
+            case BinaryProtocol.FRAME_ACK:
+                handleAck(payload.readVarInt());
+                break;
+            case BinaryProtocol.FRAME_INPUT:
+                handleInput(payload.readVarInt(), payload.readByte());
+                break;
+            default:
+                System.err.println("Unknown binary frame: " + type);
+        }
+    }
+
+    // 클라이언트가 보낸 명령 한 줄 처리
+    public void handleMessage(String message) {
+        String[] tokens = message.split(" ");
+        ShootingGameServer.metrics.inboundText(tokens[0], message.length() + 1);
+        switch (tokens[0]) {
+            case "MAPSELECT":
+                // "MAPSELECT <맵> [BINARY [DELTA]]": 추가 토큰으로 바이너리 프로토콜, delta 스냅샷 요청
+                boolean binary = tokens.length > 2 && BinaryProtocol.NAME.equals(tokens[2]) && ServerConfig.BINARY_PROTOCOL;
+                boolean delta = binary && tokens.length > 3 && BinaryProtocol.DELTA.equals(tokens[3]) && ServerConfig.DELTA_SNAPSHOTS;
+                handleMapSelect(tokens[1], binary, delta); // 맵 선택 처리
+                break;
+            case "READY":
+                handleReady(); // 준비 상태 처리
+                break;
+            case "MOVE":
+                handleMove(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+                break;
+            case "MISSILE":
+                handleMissile(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+                break;
+            case "INPUT":
+                handleInput(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+                break;
+            default:
+                System.err.println("Unknown command: " + message);
+        }
+    }
+
+    // 연결 종료 시 맵 정리
+    public void handleDisconnect() {
+        // 클라이언트 종료 시 로그 출력
+        if (player != null) {
+            System.out.println("Client disconnected: " + player.getId());
+            leaveMap();
+        } else {
+            System.out.println("Client disconnected before map selection.");
+        }
+    }
+
+    // 현재 플레이어를 맵에서 빼기 (연결 종료, 다음 판을 위한 재선택)
+    // 매치메이킹이 같은 방에 상대를 넣는 것과 겹치지 않도록 맵의 락 안에서 처리한다.
+    private void leaveMap() {
+        MapInstance map = player.getAssignedMap();
+        if (map == null) return;
+
+        synchronized (map) {
+            map.getPlayers().remove(player.getId()); // 맵에서 플레이어 제거
+            player.setAssignedMap(null); // 맵이 정리되어 다른 방으로 재사용된 뒤 명령이 섞이지 않도록
+
+            // 게임이 종료되지 않은 상태에서만 승리 메시지 전송
+            if (!map.isGameOver() && !map.getPlayers().isEmpty()) {
+                Player remainingPlayer = map.getPlayers().values().iterator().next();
+                ClientConnection remaining = remainingPlayer.getConnection();
+                if (remaining != null) {
+                    remaining.send("VICTORY"); // 승리 메시지 전송
+                }
+            }
+
+            // 게임 종료 상태에서 맵 삭제
+            if (map.getPlayers().isEmpty() && ShootingGameServer.mapManager.removeMap(map)) {
+                System.out.println("Map " + map.getMapId() + " has been deleted.");
+            }
+        }
+    }
+
+    private void handleMapSelect(String mapId, boolean binary, boolean delta) {
+        if (player != null) {
+            leaveMap(); // 이전 판의 맵에 남은 플레이어 정리 (끝난 판이면 이미 삭제된 맵)
+        }
+        selectedMapId = mapId; // 선택된 맵 ID 저장
+        binaryProtocol = binary;
+
+        // 새로운 Player 객체 생성
+        // 맵 테마의 플레이어 이미지 중 하나를 무작위로 설정
+        int playerImage = AssetRegistry.theme(mapId).randomPlayer(ThreadLocalRandom.current());
+        String playerImagePath = AssetRegistry.path(playerImage);
+
+        player = new Player(UUID.randomUUID().toString(), 180, 600, 100, playerImagePath);
+        player.setConnection(connection);
+
+        try {
+            MapInstance map = ShootingGameServer.mapManager.assignPlayerToMap(player, selectedMapId);
+
+            connection.send("SETTINGS " +
+                    "PLAYER_WIDTH " + ShootingGameServer.PLAYER_WIDTH + " " +
+                    "PLAYER_HEIGHT " + ShootingGameServer.PLAYER_HEIGHT + " " +
+                    "MISSILE_WIDTH " + ShootingGameServer.MISSILE_WIDTH + " " +
+                    "MISSILE_HEIGHT " + ShootingGameServer.MISSILE_HEIGHT + " " +
+                    "BACKGROUND_IMAGE " + map.getBackgroundImagePath() + " " +
+                    "PLAYER_IMAGE " + player.getImagePath() + " " +
+                    "MISSILE_IMAGE " + map.getMissileImagePath() + " " +
+                    "PROTOCOL " + (binary ? BinaryProtocol.NAME : "TEXT") + " " +
+                    "SNAPSHOT " + (delta ? BinaryProtocol.DELTA : "FULL") + " " +
+                    "PERSPECTIVE " + player.getSlot()); // 1이면 클라이언트가 정규 좌표를 대칭 변환
+
+            connection.send("CONNECTED " + player.getId());
+
+            // 두 번째 플레이어가 들어오면 바로 게임이 시작되어 틱이 상태를 보낼 수 있으므로,
+            // SETTINGS(클라이언트 문자열 테이블 초기화)를 보낸 뒤에야 게임 상태 수신을 시작한다.
+            player.setSnapshotStream(new SnapshotStream(delta ? SnapshotStream.FORMAT_DELTA
+                    : binary ? SnapshotStream.FORMAT_BINARY : SnapshotStream.FORMAT_TEXT));
+        } catch (IllegalStateException e) {
+            connection.send("MAPFULL"); // 맵이 가득 찬 경우 클라이언트에 알림
+        }
+    }
+
+    private void handleReady() {
+        if (player != null) {
+            player.setReady(true); // 현재 플레이어를 준비 상태로 설정
+            MapInstance map = player.getAssignedMap();
+
+            if (map != null) {
+                System.out.println("Player " + player.getId() + " is ready in map: " + map.getMapId());
+
+                // 맵의 모든 플레이어가 준비되었는지 확인
+                if (map.getPlayers().size() == 2 && map.getPlayers().values().stream().allMatch(Player::isReady)) {
+                    map.startGame(); // 게임 시작
+                } else {
+                    map.broadcast("WAITING"); // 아직 준비되지 않음
+                }
+            } else {
+                System.err.println("Player is not assigned to any map.");
+            }
+        }
+    }
+
+    // 클라이언트가 적용한 스냅샷 ACK (delta 스냅샷의 기준)
+    private void handleAck(int seq) {
+        SnapshotStream stream = player != null ? player.getSnapshotStream() : null;
+        if (stream != null) {
+            stream.acknowledge(seq);
+        }
+    }
+
+    private void handleMove(int x, int y) {
+        if (player == null) return; // 맵 선택 전 명령 무시
+        if (!ServerConfig.ABSOLUTE_MOVES) return; // 이동 입력(INPUT)만 허용
+
+        // 현재 플레이어의 맵 정보 가져오기
+        MapInstance map = player.getAssignedMap();
+        if (map != null) {
+            map.enqueueInput(new PlayerCommand(PlayerCommand.MOVE, player, x, y)); // 다음 틱에 위치 업데이트
+        } else {
+            System.err.println("Player is not assigned to any map.");
+        }
+    }
+
+    // 이동 입력: 방향키 상태를 다음 틱에 서버가 PlayerMovement로 적용 (좌표는 클라이언트가 정하지 않음)
+    private void handleInput(int seq, int keys) {
+        if (player == null) return; // 맵 선택 전 명령 무시
+
+        MapInstance map = player.getAssignedMap();
+        if (map != null) {
+            map.enqueueInput(new PlayerCommand(PlayerCommand.INPUT, player, seq, keys & PlayerMovement.ALL_KEYS));
+        } else {
+            System.err.println("Player is not assigned to any map.");
+        }
+    }
+
+    // 미사일 발사: 좌표는 예전 클라이언트와의 호환용으로만 받고, 발사 위치는 맵이 서버의 플레이어 위치로 정한다
+    private void handleMissile(int x, int y) {
+        if (player == null) return; // 맵 선택 전 명령 무시
+
+        // 현재 플레이어의 맵 정보 가져오기
+        MapInstance map = player.getAssignedMap();
+        if (map != null) {
+            map.enqueueInput(new PlayerCommand(PlayerCommand.MISSILE, player, x, y)); // 다음 틱에 미사일 추가
+        } else {
+            System.err.println("Player is not assigned to any map.");
+        }
+    }
+}
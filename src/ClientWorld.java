@@ -0,0 +1,88 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+// 클라이언트가 그릴 월드 상태 한 벌: 디코더 스레드가 스냅샷 하나를 통째로 채운 뒤 Exchange로 렌더러에게 넘긴다.
+// 넘긴 뒤에는 디코더가 다시 손대지 않으므로 렌더러는 락 없이 읽는다 (넘겨받은 쪽에서는 불변).
+// 세 벌을 돌려 쓰므로 각 테이블의 엔티티 객체 풀도 그대로 재사용된다.
+public class ClientWorld {
+    public final ClientEntityTable<Player> players = new ClientEntityTable<>(() -> new Player(null, 0, 0, 0, null));
+    public final ClientEntityTable<Missile> missiles = new ClientEntityTable<>(() -> new Missile(null, 0, 0));
+    public final ClientEntityTable<Obstacle> obstacles = new ClientEntityTable<>(() -> new Obstacle(0, 0, 0, 0, false));
+    public final ClientEntityTable<Item> items = new ClientEntityTable<>(() -> new Item(0, 0, 0, 0, null, false));
+
+    private long version = 0; // 발행 순번 (0이면 아직 발행 전)
+    private long receivedAt = 0; // 스냅샷 수신 시각 (System.nanoTime, 보간 기준)
+    private boolean stableKeys = false; // 엔티티 키가 스냅샷 사이에 유지되는지 (delta 스냅샷)
+    private volatile boolean fresh = false; // Exchange 가운데 칸에서 렌더러가 아직 가져가지 않은 상태
+
+    // 스냅샷 하나 채우기 시작/끝 (디코더 스레드)
+    public void begin(long receivedAt, boolean stableKeys) {
+        this.receivedAt = receivedAt;
+        this.stableKeys = stableKeys;
+        players.begin();
+        missiles.begin();
+        obstacles.begin();
+        items.begin();
+    }
+
+    public void end() {
+        players.end();
+        missiles.end();
+        obstacles.end();
+        items.end();
+    }
+
+    public void clear() {
+        players.clear();
+        missiles.clear();
+        obstacles.clear();
+        items.clear();
+        receivedAt = 0;
+        stableKeys = false;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getReceivedAt() {
+        return receivedAt;
+    }
+
+    public boolean hasStableKeys() {
+        return stableKeys;
+    }
+
+    // 디코더 -> 렌더러 월드 전달 (삼중 버퍼)
+    // back은 디코더만, front는 렌더러만 쓰고, 가운데 칸을 AtomicReference 교환으로 주고받는다.
+    // 디코더는 렌더러를 기다리지 않고 계속 새 상태를 덮어쓰고, 렌더러는 그릴 때마다 가장 최근 상태를 집어 간다.
+    public static final class Exchange {
+        private final AtomicReference<ClientWorld> middle = new AtomicReference<>(new ClientWorld());
+        private ClientWorld back = new ClientWorld(); // 디코더 스레드 전용
+        private ClientWorld front = new ClientWorld(); // 렌더러 전용
+        private long published = 0; // 디코더 스레드 전용
+
+        // 디코더가 채울 월드 (이전 내용이 남아 있으므로 begin ~ end 또는 clear로 새로 채운다)
+        public ClientWorld back() {
+            return back;
+        }
+
+        // 다 채운 back을 가운데 칸에 올리고, 렌더러가 가져가지 않은 이전 상태는 다음 back으로 재사용
+        public void publish() {
+            back.version = ++published;
+            back.fresh = true;
+            ClientWorld previous = middle.getAndSet(back);
+            previous.fresh = false;
+            back = previous;
+        }
+
+        // 렌더러: 새로 발행된 상태가 있으면 front와 맞바꾸고, 없으면 지난번 front 그대로
+        public ClientWorld latest() {
+            if (middle.get().fresh) {
+                ClientWorld taken = middle.getAndSet(front);
+                taken.fresh = false;
+                front = taken;
+            }
+            return front;
+        }
+    }
+}
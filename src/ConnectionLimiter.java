@@ -0,0 +1,59 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 동시 연결 수 제한 및 연결 통계 (accept 루프의 입장 제어)
+public class ConnectionLimiter {
+    private final int maxConnections;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ConnectionLimiter(int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be positive: " + maxConnections);
+        }
+        this.maxConnections = maxConnections;
+    }
+
+    // 제한 이내이면 연결 슬롯을 확보하고 true 반환
+    public boolean tryAcquire() {
+        while (true) {
+            int current = active.get();
+            if (current >= maxConnections) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (active.compareAndSet(current, current + 1)) {
+                accepted.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    // 연결 종료 시 슬롯 반환
+    public void release() {
+        active.decrementAndGet();
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public String toString() {
+        return "connections active=" + getActive() + "/" + maxConnections
+                + " accepted=" + getAccepted() + " rejected=" + getRejected();
+    }
+}
@@ -0,0 +1,204 @@
+import java.util.Arrays;
+
+// 한 시점의 엔티티 상태 (delta 압축의 기준/대상 스냅샷, 서버와 클라이언트 공용)
+// 엔티티마다 키(id << 2 | 종류)와 정수 필드 FIELDS개를 가지며 키 오름차순으로 저장한다.
+public class EntitySnapshot {
+    public static final int KIND_PLAYER = 0; // 필드: id 문자열, x, y, 체력, 이미지 문자열, 플래그, 입력 seq
+    public static final int KIND_MISSILE = 1; // 필드: 소유자 문자열, x, y
+    public static final int KIND_OBSTACLE = 2; // 필드: x, y, 너비, 높이, 플래그, 이미지 문자열
+    public static final int KIND_ITEM = 3; // 필드: x, y, 너비, 높이, 종류 문자열, 플래그
+    public static final int FIELDS = 7;
+    private static final int ALL_FIELDS_MASK = (1 << FIELDS) - 1;
+
+    private int seq;
+    private int count = 0;
+    private int[] keys = new int[32];
+    private int[] fields = new int[32 * FIELDS];
+
+    public static int key(int kind, int id) {
+        return (id << 2) | kind;
+    }
+
+    public static int kindOf(int key) {
+        return key & 3;
+    }
+
+    public static int idOf(int key) {
+        return key >>> 2;
+    }
+
+    public int getSeq() {
+        return seq;
+    }
+
+    public void setSeq(int seq) {
+        this.seq = seq;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int keyAt(int index) {
+        return keys[index];
+    }
+
+    public int field(int index, int field) {
+        return fields[index * FIELDS + field];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public void copyFrom(EntitySnapshot other) {
+        seq = other.seq;
+        count = other.count;
+        if (keys.length < count) {
+            keys = new int[other.keys.length];
+            fields = new int[other.keys.length * FIELDS];
+        }
+        System.arraycopy(other.keys, 0, keys, 0, count);
+        System.arraycopy(other.fields, 0, fields, 0, count * FIELDS);
+    }
+
+    // 엔티티 추가 또는 갱신 (대부분 키 오름차순으로 들어오므로 보통 맨 뒤에 붙는다)
+    public void put(int key, int f0, int f1, int f2, int f3, int f4, int f5, int f6) {
+        int index = indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+            ensureCapacity(count + 1);
+            System.arraycopy(keys, index, keys, index + 1, count - index);
+            System.arraycopy(fields, index * FIELDS, fields, (index + 1) * FIELDS, (count - index) * FIELDS);
+            keys[index] = key;
+            count++;
+        }
+        int base = index * FIELDS;
+        fields[base] = f0;
+        fields[base + 1] = f1;
+        fields[base + 2] = f2;
+        fields[base + 3] = f3;
+        fields[base + 4] = f4;
+        fields[base + 5] = f5;
+        fields[base + 6] = f6;
+    }
+
+    public void remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) return;
+        System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+        System.arraycopy(fields, (index + 1) * FIELDS, fields, index * FIELDS, (count - index - 1) * FIELDS);
+        count--;
+    }
+
+    // 이진 탐색 (없으면 -(삽입 위치) - 1)
+    public int indexOf(int key) {
+        if (count > 0 && keys[count - 1] < key) return -(count + 1); // 가장 흔한 경우: 맨 뒤에 추가
+        return Arrays.binarySearch(keys, 0, count, key);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newLength = Math.max(keys.length * 2, capacity);
+            keys = Arrays.copyOf(keys, newLength);
+            fields = Arrays.copyOf(fields, newLength * FIELDS);
+        }
+    }
+
+    // baseline 대비 변경분 기록: [생성/변경 수][키, 변경 필드 마스크, 필드 차이값...] [삭제 수][키...]
+    // baseline이 비어 있으면 전체 스냅샷과 같다.
+    // changes/removals는 호출자가 재사용하는 임시 버퍼
+    public void writeDelta(EntitySnapshot baseline, BinaryProtocol.Writer out,
+                           BinaryProtocol.Writer changes, BinaryProtocol.Writer removals) {
+        changes.reset();
+        removals.reset();
+        int changed = 0;
+        int removed = 0;
+        int i = 0, j = 0;
+        int baseCount = baseline == null ? 0 : baseline.count;
+
+        // 두 스냅샷 모두 키 오름차순이므로 병합하며 비교
+        while (i < count || j < baseCount) {
+            int key = i < count ? keys[i] : Integer.MAX_VALUE;
+            int baseKey = j < baseCount ? baseline.keys[j] : Integer.MAX_VALUE;
+
+            if (i < count && (j >= baseCount || key < baseKey)) {
+                writeEntity(changes, key, i, null, -1, ALL_FIELDS_MASK); // 새 엔티티
+                changed++;
+                i++;
+            } else if (j < baseCount && (i >= count || baseKey < key)) {
+                removals.writeVarInt(baseKey); // 사라진 엔티티
+                removed++;
+                j++;
+            } else {
+                int mask = 0;
+                for (int f = 0; f < FIELDS; f++) {
+                    if (fields[i * FIELDS + f] != baseline.fields[j * FIELDS + f]) mask |= 1 << f;
+                }
+                if (mask != 0) {
+                    writeEntity(changes, key, i, baseline, j, mask);
+                    changed++;
+                }
+                i++;
+                j++;
+            }
+        }
+
+        out.writeVarInt(changed);
+        out.writeBytes(changes.array(), 0, changes.size());
+        out.writeVarInt(removed);
+        out.writeBytes(removals.array(), 0, removals.size());
+    }
+
+    private void writeEntity(BinaryProtocol.Writer out, int key, int index, EntitySnapshot baseline, int baseIndex, int mask) {
+        out.writeVarInt(key);
+        out.writeByte(mask);
+        for (int f = 0; f < FIELDS; f++) {
+            if ((mask & (1 << f)) == 0) continue;
+            int value = fields[index * FIELDS + f];
+            int base = baseline == null ? 0 : baseline.fields[baseIndex * FIELDS + f];
+            out.writeZigZag(value - base); // 이전 값과의 차이 (이동량은 대부분 1바이트)
+        }
+    }
+
+    // baseline에 변경분을 적용해 이 스냅샷을 만든다 (writeDelta의 역)
+    public void readDelta(EntitySnapshot baseline, BinaryProtocol.Reader in) {
+        if (baseline == null) {
+            clear();
+        } else {
+            copyFrom(baseline);
+        }
+
+        int changed = in.readVarInt();
+        for (int n = 0; n < changed; n++) {
+            int key = in.readVarInt();
+            int mask = in.readByte();
+            int index = indexOf(key);
+            boolean existing = index >= 0;
+            int f0 = 0, f1 = 0, f2 = 0, f3 = 0, f4 = 0, f5 = 0, f6 = 0;
+            if (existing) {
+                int base = index * FIELDS;
+                f0 = fields[base];
+                f1 = fields[base + 1];
+                f2 = fields[base + 2];
+                f3 = fields[base + 3];
+                f4 = fields[base + 4];
+                f5 = fields[base + 5];
+                f6 = fields[base + 6];
+            }
+            if ((mask & 1) != 0) f0 += in.readZigZag();
+            if ((mask & 2) != 0) f1 += in.readZigZag();
+            if ((mask & 4) != 0) f2 += in.readZigZag();
+            if ((mask & 8) != 0) f3 += in.readZigZag();
+            if ((mask & 16) != 0) f4 += in.readZigZag();
+            if ((mask & 32) != 0) f5 += in.readZigZag();
+            if ((mask & 64) != 0) f6 += in.readZigZag();
+            put(key, f0, f1, f2, f3, f4, f5, f6);
+        }
+
+        int removed = in.readVarInt();
+        for (int n = 0; n < removed; n++) {
+            remove(in.readVarInt());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+import java.util.Arrays;
+
+// 맵 하나의 같은 종류 엔티티(미사일, 장애물, 아이템)를 열(column)별 int 배열로 보관
+// 엔티티 i의 속성은 각 배열의 i번째 칸에 있고, 삭제 시 마지막 엔티티를 빈 자리로 옮겨(swap-remove) 항상 빈틈없이 유지한다.
+// 삭제된 자리는 다음 add()에서 그대로 재사용되므로 용량이 찬 뒤에는 할당이 없다.
+// 틱 스레드에서만 접근한다 (동기화 없음).
+public class EntityStore {
+    public static final int NO_OWNER = -1;
+
+    private int count = 0;
+    private int[] ids;
+    private int[] xs, ys;
+    private int[] widths, heights;
+    private int[] directions; // 이동 방향 (+1 / -1, 장애물과 아이템은 가로, 미사일은 세로)
+    private int[] owners; // 소유 플레이어 슬롯 (미사일), 없으면 NO_OWNER
+    private int[] types; // 종류 (아이템 종류, 장애물 이미지 에셋 ID 등)
+    private boolean[] removed; // 이번 틱에 삭제 예정 (removeMarked()에서 한꺼번에 정리)
+    private int removedCount = 0;
+
+    public EntityStore(int capacity) {
+        capacity = Math.max(4, capacity);
+        ids = new int[capacity];
+        xs = new int[capacity];
+        ys = new int[capacity];
+        widths = new int[capacity];
+        heights = new int[capacity];
+        directions = new int[capacity];
+        owners = new int[capacity];
+        types = new int[capacity];
+        removed = new boolean[capacity];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public void clear() {
+        count = 0;
+        removedCount = 0;
+    }
+
+    // 엔티티 추가 후 위치 반환
+    public int add(int id, int x, int y, int width, int height, int direction, int owner, int type) {
+        if (count == ids.length) {
+            grow();
+        }
+        int i = count++;
+        ids[i] = id;
+        xs[i] = x;
+        ys[i] = y;
+        widths[i] = width;
+        heights[i] = height;
+        directions[i] = direction;
+        owners[i] = owner;
+        types[i] = type;
+        removed[i] = false;
+        return i;
+    }
+
+    // 위치 i의 엔티티 삭제 (마지막 엔티티가 i로 옮겨지므로 역순 순회 중이거나 i를 다시 검사해야 한다)
+    public void removeAt(int i) {
+        int last = --count;
+        if (removed[i]) removedCount--;
+        if (i != last) {
+            ids[i] = ids[last];
+            xs[i] = xs[last];
+            ys[i] = ys[last];
+            widths[i] = widths[last];
+            heights[i] = heights[last];
+            directions[i] = directions[last];
+            owners[i] = owners[last];
+            types[i] = types[last];
+            removed[i] = removed[last];
+        }
+    }
+
+    // 순회 중 위치가 바뀌면 안 될 때 삭제 예약 (같은 엔티티를 여러 번 예약해도 한 번만 삭제)
+    public void markRemoved(int i) {
+        if (!removed[i]) {
+            removed[i] = true;
+            removedCount++;
+        }
+    }
+
+    public boolean isMarkedRemoved(int i) {
+        return removed[i];
+    }
+
+    // 예약된 엔티티 일괄 삭제
+    public void removeMarked() {
+        for (int i = count - 1; i >= 0 && removedCount > 0; i--) {
+            if (removed[i]) {
+                removeAt(i);
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        directions = Arrays.copyOf(directions, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+        types = Arrays.copyOf(types, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+    }
+
+    public int id(int i) {
+        return ids[i];
+    }
+
+    public int x(int i) {
+        return xs[i];
+    }
+
+    public int y(int i) {
+        return ys[i];
+    }
+
+    public int width(int i) {
+        return widths[i];
+    }
+
+    public int height(int i) {
+        return heights[i];
+    }
+
+    public int direction(int i) {
+        return directions[i];
+    }
+
+    public int owner(int i) {
+        return owners[i];
+    }
+
+    public int type(int i) {
+        return types[i];
+    }
+
+    public void setX(int i, int x) {
+        xs[i] = x;
+    }
+
+    public void setY(int i, int y) {
+        ys[i] = y;
+    }
+}
@@ -0,0 +1,52 @@
+// 클라이언트 프레임 통계: 프레임별 그리기 시간과 놓친 프레임 수를 모아 주기적으로 출력
+// 목표 간격(periodNanos)보다 프레임 사이가 벌어지면 그 사이에 그리지 못한 프레임 수만큼 놓친 것으로 센다.
+// 한 스레드(그리기 스레드)에서만 호출한다.
+public class FrameStats {
+    private final long periodNanos; // 목표 프레임 간격 (0이면 제한 없음, 놓친 프레임을 세지 않음)
+    private final long reportNanos; // 출력 간격 (0이면 출력하지 않음)
+
+    private long lastFrameStart = 0;
+    private long windowStart = 0;
+    private int frames = 0;
+    private long totalRenderNanos = 0;
+    private long maxRenderNanos = 0;
+    private long droppedFrames = 0;
+    private long totalDroppedFrames = 0;
+
+    public FrameStats(long periodNanos, long reportMillis) {
+        this.periodNanos = periodNanos;
+        this.reportNanos = reportMillis * 1_000_000L;
+    }
+
+    // 프레임 하나 기록 (start: 프레임 시작 시각, renderNanos: 그리는 데 걸린 시간)
+    public void frame(long start, long renderNanos) {
+        if (lastFrameStart != 0 && periodNanos > 0) {
+            long missed = (start - lastFrameStart - periodNanos / 2) / periodNanos; // 간격 안에 들어갔어야 할 프레임 수 - 1
+            if (missed > 0) droppedFrames += missed;
+        }
+        if (windowStart == 0) windowStart = start;
+        lastFrameStart = start;
+
+        frames++;
+        totalRenderNanos += renderNanos;
+        if (renderNanos > maxRenderNanos) maxRenderNanos = renderNanos;
+
+        if (reportNanos > 0 && start - windowStart >= reportNanos) {
+            report(start);
+        }
+    }
+
+    private void report(long now) {
+        totalDroppedFrames += droppedFrames;
+        double seconds = (now - windowStart) / 1e9;
+        System.out.printf("Frames: %.1f fps, render avg %.2f ms, max %.2f ms, dropped %d (total %d)%n",
+                frames / seconds, totalRenderNanos / 1e6 / frames, maxRenderNanos / 1e6,
+                droppedFrames, totalDroppedFrames);
+
+        windowStart = now;
+        frames = 0;
+        totalRenderNanos = 0;
+        maxRenderNanos = 0;
+        droppedFrames = 0;
+    }
+}
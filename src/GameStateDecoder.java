@@ -0,0 +1,340 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 클라이언트 게임 상태 해석: 서버가 보낸 GAMESTATE(텍스트/바이너리)와 delta 스냅샷을 내 시점 좌표로 바꿔
+// ClientWorld의 back 월드에 채우고 발행한다 (GameStateEncoder의 반대편).
+// 문자열 테이블, delta 기준 스냅샷 같은 해석 상태를 여기서 들고 있으므로 화면이나 연결 없이도 쓸 수 있다.
+// 디코더 스레드 하나에서만 쓰며, 화면 갱신과 ACK 전송처럼 밖으로 나가는 일은 Listener로 넘긴다.
+public final class GameStateDecoder {
+    // 해석 결과를 받는 쪽 (디코더 스레드에서 호출)
+    public interface Listener {
+        // 스냅샷 하나를 월드로 발행함
+        void worldPublished();
+
+        // 발행한 스냅샷에 들어 있던 내 플레이어의 서버 상태 (내 시점 좌표)
+        void ownPlayer(String id, int x, int y, int ackedInputSeq, boolean doubleMissileEnabled);
+
+        // delta 스냅샷 ACK 전송 요청 (0이면 기준 없이 전체 스냅샷 요청)
+        void acknowledge(int seq);
+    }
+
+    private final ClientWorld.Exchange worlds;
+    private final Listener listener;
+    private final List<String> stringTable = new ArrayList<>(); // 바이너리 프로토콜 문자열 테이블
+    private final EntitySnapshot[] snapshotRing = new EntitySnapshot[BinaryProtocol.SNAPSHOT_RING]; // 최근 적용한 스냅샷
+
+    private String clientId; // 내 플레이어 ID (CONNECTED)
+    private boolean mirrorView = false; // 슬롯 1이면 받은 정규 좌표를 대칭 변환
+    // 엔티티 키가 틱 사이에 유지되는지 (delta 스냅샷만 엔티티 ID를 보낸다, 순번 키는 엔티티가 사라지면 밀리므로 보간하지 않음)
+    private boolean stableEntityKeys = false;
+    private int playerWidth = ShootingGameServer.PLAYER_WIDTH;
+    private int playerHeight = ShootingGameServer.PLAYER_HEIGHT;
+    private int missileWidth = ShootingGameServer.MISSILE_WIDTH;
+    private int missileHeight = ShootingGameServer.MISSILE_HEIGHT;
+    private long receivedAt; // 해석 중인 프레임의 수신 시각 (보간 기준)
+
+    public GameStateDecoder(ClientWorld.Exchange worlds, Listener listener) {
+        this.worlds = worlds;
+        this.listener = listener;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public void setMirrorView(boolean mirrorView) {
+        this.mirrorView = mirrorView;
+    }
+
+    public void setPlayerSize(int width, int height) {
+        playerWidth = width;
+        playerHeight = height;
+    }
+
+    public void setMissileSize(int width, int height) {
+        missileWidth = width;
+        missileHeight = height;
+    }
+
+    // 새 세션마다 문자열 테이블을 새로 받는다 (SETTINGS PROTOCOL)
+    public void resetStrings() {
+        stringTable.clear();
+    }
+
+    // delta 스냅샷은 새 세션마다 처음부터 다시 받는다 (SETTINGS SNAPSHOT)
+    public void resetSnapshots(boolean stableEntityKeys) {
+        Arrays.fill(snapshotRing, null);
+        this.stableEntityKeys = stableEntityKeys;
+    }
+
+    public void setReceivedAt(long receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+
+    // 바이너리 프레임 처리
+    public void decodeBinary(int type, BinaryProtocol.Reader payload) {
+        switch (type) {
+            case BinaryProtocol.FRAME_STRING:
+                int index = payload.readVarInt();
+                String value = payload.readString();
+                while (stringTable.size() <= index) stringTable.add(null);
+                stringTable.set(index, value);
+                break;
+            case BinaryProtocol.FRAME_GAMESTATE:
+                parseBinaryGameState(payload);
+                break;
+            case BinaryProtocol.FRAME_SNAPSHOT:
+                parseSnapshot(payload);
+                break;
+            default:
+                System.err.println("Unknown binary frame: " + type);
+        }
+    }
+
+    // 정규 좌표 -> 내 시점 좌표 (슬롯 1이면 화면 중심 기준 대칭)
+    private int viewX(int x, int width) {
+        return mirrorView ? ShootingGameServer.SERVER_WIDTH - x - width : x;
+    }
+
+    private int viewY(int y, int height) {
+        return mirrorView ? ShootingGameServer.SERVER_HEIGHT - y - height : y;
+    }
+
+    // 스냅샷 하나를 back 월드에 채우기 시작/끝, 끝나면 그리기 쪽에 발행
+    private void beginEntities() {
+        worlds.back().begin(receivedAt, stableEntityKeys);
+    }
+
+    private void endEntities() {
+        worlds.back().end();
+        worlds.publish();
+        listener.worldPublished();
+    }
+
+    // back 월드 칸 갱신 (정규 좌표를 내 시점 좌표로 바꿔 저장)
+    private void putPlayer(int key, String id, int x, int y, int health, String imagePath, boolean doubleMissileEnabled,
+                           int ackedInputSeq) {
+        Player player = worlds.back().players.upsert(key);
+        player.setId(id);
+        player.setPosition(viewX(x, playerWidth), viewY(y, playerHeight));
+        if (id.equals(clientId)) {
+            // 예측 보정은 받는 쪽(EDT)이 이 상태로 한다
+            listener.ownPlayer(id, player.getX(), player.getY(), ackedInputSeq, doubleMissileEnabled);
+        }
+        player.setHealth(health);
+        player.setImagePath(imagePath);
+        player.setDoubleMissileEnabled(doubleMissileEnabled);
+    }
+
+    private Missile putMissile(int key, String ownerId, int x, int y) {
+        Missile missile = worlds.back().missiles.upsert(key);
+        missile.setOwnerId(ownerId);
+        missile.setX(viewX(x, missileWidth));
+        missile.setY(viewY(y, missileHeight));
+        return missile;
+    }
+
+    private Obstacle putObstacle(int key, int x, int y, int width, int height, boolean movingRight, String imagePath) {
+        Obstacle obstacle = worlds.back().obstacles.upsert(key);
+        obstacle.setX(viewX(x, width));
+        obstacle.setY(viewY(y, height));
+        obstacle.setWidth(width);
+        obstacle.setHeight(height);
+        obstacle.setMovingRight(movingRight);
+        obstacle.setImagePath(imagePath);
+        return obstacle;
+    }
+
+    private Item putItem(int key, int x, int y, int width, int height, String type, boolean movingRight) {
+        Item item = worlds.back().items.upsert(key);
+        item.setX(viewX(x, width));
+        item.setY(viewY(y, height));
+        item.setWidth(width);
+        item.setHeight(height);
+        item.setType(type);
+        item.setMovingRight(movingRight);
+        return item;
+    }
+
+    // 텍스트 GAMESTATE 반영 (텍스트 형식은 엔티티 ID가 없으므로 종류별 순번으로 키를 만든다)
+    public void parseGameState(String[] tokens) {
+        int playerCount = 0, missileCount = 0, obstacleCount = 0, itemCount = 0;
+        int i = 1;
+        beginEntities();
+        try {
+            while (i < tokens.length) {
+                if (tokens[i].equals("PLAYER")) {
+                    String id = tokens[i + 1];
+                    int x = Integer.parseInt(tokens[i + 2]);
+                    int y = Integer.parseInt(tokens[i + 3]);
+                    int health = Integer.parseInt(tokens[i + 4]);
+                    String imagePath = tokens[i + 5];
+                    boolean doubleMissileEnabled = Boolean.parseBoolean(tokens[i + 6]); // 상태 추가
+                    int ackedInputSeq = Integer.parseInt(tokens[i + 7]); // 서버가 적용한 마지막 입력
+
+                    putPlayer(EntitySnapshot.key(EntitySnapshot.KIND_PLAYER, playerCount++), id, x, y, health, imagePath,
+                            doubleMissileEnabled, ackedInputSeq);
+                    i += 8; // 플레이어 데이터 길이 반영
+                } else if (tokens[i].equals("MISSILE")) {
+                    String ownerId = tokens[i + 1];
+                    int x = Integer.parseInt(tokens[i + 2]);
+                    int y = Integer.parseInt(tokens[i + 3]);
+
+                    putMissile(EntitySnapshot.key(EntitySnapshot.KIND_MISSILE, missileCount++), ownerId, x, y);
+                    i += 4;
+                } else if (tokens[i].equals("OBSTACLE")) {
+                    int x = Integer.parseInt(tokens[i + 1]);
+                    int y = Integer.parseInt(tokens[i + 2]);
+                    int width = Integer.parseInt(tokens[i + 3]);
+                    int height = Integer.parseInt(tokens[i + 4]);
+                    boolean movingRight = Boolean.parseBoolean(tokens[i + 5]);
+                    String imagePath = tokens[i + 6]; // 이미지 경로 추가
+
+                    putObstacle(EntitySnapshot.key(EntitySnapshot.KIND_OBSTACLE, obstacleCount++), x, y, width, height, movingRight, imagePath);
+                    i += 7;
+                } else if (tokens[i].equals("ITEM")) {
+                    int x = Integer.parseInt(tokens[i + 1]);
+                    int y = Integer.parseInt(tokens[i + 2]);
+                    int width = Integer.parseInt(tokens[i + 3]);
+                    int height = Integer.parseInt(tokens[i + 4]);
+                    String type = tokens[i + 5];
+                    boolean movingRight = Boolean.parseBoolean(tokens[i + 6]);
+
+                    putItem(EntitySnapshot.key(EntitySnapshot.KIND_ITEM, itemCount++), x, y, width, height, type, movingRight);
+                    i += 7;
+                } else {
+                    System.err.println("Unknown token type: " + tokens[i]);
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error parsing GAMESTATE: " + Arrays.toString(tokens));
+            e.printStackTrace();
+        } finally {
+            endEntities();
+        }
+    }
+
+    // 바이너리 GAMESTATE 프레임 반영 (문자열은 문자열 테이블 인덱스로 전달됨, 키는 종류별 순번)
+    private void parseBinaryGameState(BinaryProtocol.Reader payload) {
+        beginEntities();
+        try {
+            int playerCount = payload.readVarInt();
+            for (int n = 0; n < playerCount; n++) {
+                String id = stringTable.get(payload.readVarInt());
+                int x = payload.readZigZag();
+                int y = payload.readZigZag();
+                int health = payload.readVarInt();
+                String imagePath = stringTable.get(payload.readVarInt());
+                int flags = payload.readByte();
+                int ackedInputSeq = payload.readVarInt();
+                putPlayer(EntitySnapshot.key(EntitySnapshot.KIND_PLAYER, n), id, x, y, health, imagePath,
+                        (flags & BinaryProtocol.FLAG_DOUBLE_MISSILE) != 0, ackedInputSeq);
+            }
+
+            int missileCount = payload.readVarInt();
+            for (int n = 0; n < missileCount; n++) {
+                String ownerId = stringTable.get(payload.readVarInt());
+                int x = payload.readZigZag();
+                int y = payload.readZigZag();
+                putMissile(EntitySnapshot.key(EntitySnapshot.KIND_MISSILE, n), ownerId, x, y);
+            }
+
+            int obstacleCount = payload.readVarInt();
+            for (int n = 0; n < obstacleCount; n++) {
+                int x = payload.readZigZag();
+                int y = payload.readZigZag();
+                int width = payload.readVarInt();
+                int height = payload.readVarInt();
+                boolean movingRight = (payload.readByte() & BinaryProtocol.FLAG_MOVING_RIGHT) != 0;
+                String imagePath = stringTable.get(payload.readVarInt());
+                putObstacle(EntitySnapshot.key(EntitySnapshot.KIND_OBSTACLE, n), x, y, width, height, movingRight, imagePath);
+            }
+
+            int itemCount = payload.readVarInt();
+            for (int n = 0; n < itemCount; n++) {
+                int x = payload.readZigZag();
+                int y = payload.readZigZag();
+                int width = payload.readVarInt();
+                int height = payload.readVarInt();
+                String type = stringTable.get(payload.readVarInt());
+                boolean movingRight = (payload.readByte() & BinaryProtocol.FLAG_MOVING_RIGHT) != 0;
+                putItem(EntitySnapshot.key(EntitySnapshot.KIND_ITEM, n), x, y, width, height, type, movingRight);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error parsing binary GAMESTATE");
+            e.printStackTrace();
+        } finally {
+            endEntities();
+        }
+    }
+
+    // delta 스냅샷 반영: 기준 스냅샷에 변경분을 적용하고 적용한 seq를 ACK
+    private void parseSnapshot(BinaryProtocol.Reader payload) {
+        int seq = payload.readVarInt();
+        int baseSeq = payload.readVarInt();
+
+        EntitySnapshot baseline = null;
+        if (baseSeq != 0) {
+            baseline = snapshotRing[baseSeq % snapshotRing.length];
+            if (baseline == null || baseline.getSeq() != baseSeq) {
+                // 기준 스냅샷이 없으면 전체 스냅샷 요청
+                System.err.println("Missing snapshot baseline " + baseSeq + ", requesting full snapshot");
+                listener.acknowledge(0);
+                return;
+            }
+        }
+
+        int slot = seq % snapshotRing.length;
+        if (snapshotRing[slot] == null || snapshotRing[slot] == baseline) {
+            snapshotRing[slot] = new EntitySnapshot();
+        }
+        EntitySnapshot snapshot = snapshotRing[slot];
+        try {
+            snapshot.readDelta(baseline, payload);
+            snapshot.setSeq(seq);
+        } catch (RuntimeException e) {
+            System.err.println("Error parsing snapshot " + seq);
+            e.printStackTrace();
+            snapshot.setSeq(0); // 깨진 스냅샷은 기준으로 쓰지 않음
+            listener.acknowledge(0);
+            return;
+        }
+        listener.acknowledge(seq);
+
+        applySnapshot(snapshot);
+    }
+
+    // 스냅샷의 엔티티를 엔티티 테이블에 반영 (스냅샷 키를 그대로 테이블 키로 사용)
+    private void applySnapshot(EntitySnapshot snapshot) {
+        beginEntities();
+        for (int i = 0; i < snapshot.size(); i++) {
+            int key = snapshot.keyAt(i);
+            switch (EntitySnapshot.kindOf(key)) {
+                case EntitySnapshot.KIND_PLAYER:
+                    putPlayer(key, stringTable.get(snapshot.field(i, 0)), snapshot.field(i, 1), snapshot.field(i, 2),
+                            snapshot.field(i, 3), stringTable.get(snapshot.field(i, 4)),
+                            (snapshot.field(i, 5) & BinaryProtocol.FLAG_DOUBLE_MISSILE) != 0, snapshot.field(i, 6));
+                    break;
+                case EntitySnapshot.KIND_MISSILE:
+                    putMissile(key, stringTable.get(snapshot.field(i, 0)), snapshot.field(i, 1), snapshot.field(i, 2))
+                            .setId(EntitySnapshot.idOf(key));
+                    break;
+                case EntitySnapshot.KIND_OBSTACLE:
+                    putObstacle(key, snapshot.field(i, 0), snapshot.field(i, 1), snapshot.field(i, 2), snapshot.field(i, 3),
+                            (snapshot.field(i, 4) & BinaryProtocol.FLAG_MOVING_RIGHT) != 0,
+                            stringTable.get(snapshot.field(i, 5)))
+                            .setId(EntitySnapshot.idOf(key));
+                    break;
+                case EntitySnapshot.KIND_ITEM:
+                    putItem(key, snapshot.field(i, 0), snapshot.field(i, 1), snapshot.field(i, 2), snapshot.field(i, 3),
+                            stringTable.get(snapshot.field(i, 4)),
+                            (snapshot.field(i, 5) & BinaryProtocol.FLAG_MOVING_RIGHT) != 0)
+                            .setId(EntitySnapshot.idOf(key));
+                    break;
+            }
+        }
+        endEntities();
+    }
+}
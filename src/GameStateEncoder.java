@@ -0,0 +1,338 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// 게임 상태 스냅샷을 프로토콜 형식(텍스트/바이너리/delta)에 맞게 직렬화
+// 맵마다 형식별로 하나씩 가지며, 틱마다 begin() -> 엔티티 추가 -> finish()로 한 번만 직렬화한 뒤
+// 같은 결과를 send()로 모든 수신자에게 보낸다. 좌표는 슬롯 0 플레이어 기준(정규 좌표)이고
+// 다른 슬롯의 클라이언트는 SETTINGS의 PERSPECTIVE 값을 보고 직접 대칭 변환한다.
+public interface GameStateEncoder {
+    static GameStateEncoder create(int format) {
+        switch (format) {
+            case SnapshotStream.FORMAT_DELTA:
+                return new DeltaGameStateEncoder();
+            case SnapshotStream.FORMAT_BINARY:
+                return new BinaryGameStateEncoder();
+            default:
+                return new TextGameStateEncoder();
+        }
+    }
+
+    void begin();
+
+    // inputSeq: 서버가 마지막으로 적용한 그 플레이어의 이동 입력 seq
+    void player(String id, int x, int y, int health, String imagePath, boolean doubleMissile, int inputSeq);
+
+    void missile(int id, String ownerId, int x, int y);
+
+    void obstacle(int id, int x, int y, int width, int height, boolean movingRight, String imagePath);
+
+    void item(int id, int x, int y, int width, int height, String type, boolean movingRight);
+
+    // 이번 틱의 직렬화 완료
+    void finish();
+
+    // 직렬화된 스냅샷을 연결로 전송 (연결별 진행 상황은 stream에 기록)
+    void send(SnapshotStream stream, ClientConnection connection);
+
+    // 맵을 재사용하기 전에 이전 판의 상태(문자열 테이블, 기준 스냅샷)를 비운다
+    void reset();
+}
+
+// 기존 텍스트 프로토콜: "GAMESTATE PLAYER ... MISSILE ... OBSTACLE ... ITEM ..." 한 줄
+class TextGameStateEncoder implements GameStateEncoder {
+    private final StringBuilder state = new StringBuilder(512);
+    private String encoded;
+
+    @Override
+    public void begin() {
+        state.setLength(0);
+        state.append("GAMESTATE ");
+    }
+
+    @Override
+    public void player(String id, int x, int y, int health, String imagePath, boolean doubleMissile, int inputSeq) {
+        state.append("PLAYER ").append(id).append(" ")
+                .append(x).append(" ").append(y).append(" ")
+                .append(health).append(" ")
+                .append(imagePath).append(" ")
+                .append(doubleMissile).append(" ")
+                .append(inputSeq).append(" ");
+    }
+
+    @Override
+    public void missile(int id, String ownerId, int x, int y) {
+        state.append("MISSILE ").append(ownerId).append(" ")
+                .append(x).append(" ").append(y).append(" ");
+    }
+
+    @Override
+    public void obstacle(int id, int x, int y, int width, int height, boolean movingRight, String imagePath) {
+        state.append("OBSTACLE ").append(x).append(" ")
+                .append(y).append(" ").append(width).append(" ")
+                .append(height).append(" ").append(movingRight).append(" ").append(imagePath).append(" ");
+    }
+
+    @Override
+    public void item(int id, int x, int y, int width, int height, String type, boolean movingRight) {
+        state.append("ITEM ").append(x).append(" ").append(y).append(" ")
+                .append(width).append(" ").append(height).append(" ")
+                .append(type).append(" ").append(movingRight).append(" ");
+    }
+
+    @Override
+    public void finish() {
+        encoded = state.toString();
+    }
+
+    @Override
+    public void send(SnapshotStream stream, ClientConnection connection) {
+        connection.sendSnapshot(encoded);
+    }
+
+    @Override
+    public void reset() {
+        encoded = null;
+    }
+}
+
+// 바이너리 프로토콜: 엔티티 종류별 개수 + 고정 순서 필드, 문자열은 맵별 문자열 테이블 인덱스
+// payload: [플레이어 수][id, x, y, 체력, 이미지, 플래그, 입력 seq]... [미사일 수][owner, x, y]...
+//          [장애물 수][x, y, w, h, 플래그, 이미지]... [아이템 수][x, y, w, h, 종류, 플래그]...
+class BinaryGameStateEncoder implements GameStateEncoder {
+    private final Map<String, Integer> strings = new HashMap<>(); // 등록된 문자열
+    private final BinaryProtocol.Writer defines = new BinaryProtocol.Writer(256); // 지금까지의 문자열 등록 프레임 전체
+    private int[] defineOffsets = new int[16]; // 문자열 인덱스별 등록 프레임 시작 위치
+    private final BinaryProtocol.Writer players = new BinaryProtocol.Writer(64);
+    private final BinaryProtocol.Writer missiles = new BinaryProtocol.Writer(64);
+    private final BinaryProtocol.Writer obstacles = new BinaryProtocol.Writer(128);
+    private final BinaryProtocol.Writer items = new BinaryProtocol.Writer(64);
+    private final BinaryProtocol.Writer payload = new BinaryProtocol.Writer(256);
+    private final BinaryProtocol.Writer scratch = new BinaryProtocol.Writer(64);
+    private final BinaryProtocol.Writer frame = new BinaryProtocol.Writer(256);
+    private int playerCount, missileCount, obstacleCount, itemCount;
+
+    @Override
+    public void begin() {
+        players.reset();
+        missiles.reset();
+        obstacles.reset();
+        items.reset();
+        playerCount = missileCount = obstacleCount = itemCount = 0;
+    }
+
+    @Override
+    public void player(String id, int x, int y, int health, String imagePath, boolean doubleMissile, int inputSeq) {
+        players.writeVarInt(ref(id));
+        players.writeZigZag(x);
+        players.writeZigZag(y);
+        players.writeVarInt(health);
+        players.writeVarInt(ref(imagePath));
+        players.writeByte(doubleMissile ? BinaryProtocol.FLAG_DOUBLE_MISSILE : 0);
+        players.writeVarInt(inputSeq);
+        playerCount++;
+    }
+
+    @Override
+    public void missile(int id, String ownerId, int x, int y) {
+        missiles.writeVarInt(ref(ownerId));
+        missiles.writeZigZag(x);
+        missiles.writeZigZag(y);
+        missileCount++;
+    }
+
+    @Override
+    public void obstacle(int id, int x, int y, int width, int height, boolean movingRight, String imagePath) {
+        obstacles.writeZigZag(x);
+        obstacles.writeZigZag(y);
+        obstacles.writeVarInt(width);
+        obstacles.writeVarInt(height);
+        obstacles.writeByte(movingRight ? BinaryProtocol.FLAG_MOVING_RIGHT : 0);
+        obstacles.writeVarInt(ref(imagePath));
+        obstacleCount++;
+    }
+
+    @Override
+    public void item(int id, int x, int y, int width, int height, String type, boolean movingRight) {
+        items.writeZigZag(x);
+        items.writeZigZag(y);
+        items.writeVarInt(width);
+        items.writeVarInt(height);
+        items.writeVarInt(ref(type));
+        items.writeByte(movingRight ? BinaryProtocol.FLAG_MOVING_RIGHT : 0);
+        itemCount++;
+    }
+
+    @Override
+    public void finish() {
+        payload.reset();
+        payload.writeVarInt(playerCount);
+        payload.writeBytes(players.array(), 0, players.size());
+        payload.writeVarInt(missileCount);
+        payload.writeBytes(missiles.array(), 0, missiles.size());
+        payload.writeVarInt(obstacleCount);
+        payload.writeBytes(obstacles.array(), 0, obstacles.size());
+        payload.writeVarInt(itemCount);
+        payload.writeBytes(items.array(), 0, items.size());
+
+        frame.reset();
+        frame.writeFrame(BinaryProtocol.FRAME_GAMESTATE, payload);
+    }
+
+    @Override
+    public void send(SnapshotStream stream, ClientConnection connection) {
+        sendDefines(stream, connection);
+        connection.sendSnapshotBinary(frame.array(), 0, frame.size());
+    }
+
+    @Override
+    public void reset() {
+        strings.clear();
+        defines.reset();
+    }
+
+    // 이 연결이 아직 받지 못한 문자열 등록 프레임을 상태 프레임보다 먼저 보낸다
+    void sendDefines(SnapshotStream stream, ClientConnection connection) {
+        int defined = stream.getDefinedStrings();
+        if (defined < strings.size()) {
+            int offset = defineOffsets[defined];
+            connection.sendBinary(defines.array(), offset, defines.size() - offset);
+            stream.setDefinedStrings(strings.size());
+        }
+    }
+
+    // 문자열 테이블 인덱스 (처음 보는 문자열이면 등록 프레임 추가)
+    int ref(String value) {
+        if (value == null) value = "";
+        Integer index = strings.get(value);
+        if (index != null) return index;
+
+        int newIndex = strings.size();
+        strings.put(value, newIndex);
+        if (newIndex == defineOffsets.length) {
+            defineOffsets = Arrays.copyOf(defineOffsets, newIndex * 2);
+        }
+        defineOffsets[newIndex] = defines.size();
+        scratch.reset();
+        scratch.writeVarInt(newIndex);
+        scratch.writeString(value);
+        defines.writeFrame(BinaryProtocol.FRAME_STRING, scratch);
+        return newIndex;
+    }
+}
+
+// 바이너리 프로토콜 + delta 스냅샷: 클라이언트가 ACK한 스냅샷을 기준으로 생성/변경/삭제된 엔티티만 전송
+// 최근 스냅샷을 링 버퍼에 보관하고, 기준 스냅샷이 링에서 사라졌거나 ACK가 없으면 전체 스냅샷을 보낸다.
+// 같은 틱에서 기준 스냅샷이 같은 수신자끼리는 직렬화 결과를 공유한다.
+// payload: [seq][기준 seq (0이면 전체)][EntitySnapshot delta]
+class DeltaGameStateEncoder extends BinaryGameStateEncoder {
+    private final EntitySnapshot[] ring = new EntitySnapshot[BinaryProtocol.SNAPSHOT_RING];
+    private final BinaryProtocol.Writer payload = new BinaryProtocol.Writer(256);
+    private final BinaryProtocol.Writer changes = new BinaryProtocol.Writer(256);
+    private final BinaryProtocol.Writer removals = new BinaryProtocol.Writer(32);
+    private int nextSeq = 1;
+    private EntitySnapshot current;
+
+    // 이번 틱에 직렬화한 delta 프레임 (기준 seq별)
+    private int[] cachedBaseSeqs = new int[4];
+    private BinaryProtocol.Writer[] cachedFrames = new BinaryProtocol.Writer[4];
+    private int cachedCount = 0;
+
+    @Override
+    public void begin() {
+        super.begin();
+        int slot = nextSeq % ring.length;
+        if (ring[slot] == null) {
+            ring[slot] = new EntitySnapshot();
+        }
+        current = ring[slot];
+        current.clear();
+        current.setSeq(nextSeq);
+        cachedCount = 0;
+    }
+
+    @Override
+    public void player(String id, int x, int y, int health, String imagePath, boolean doubleMissile, int inputSeq) {
+        int idRef = ref(id);
+        current.put(EntitySnapshot.key(EntitySnapshot.KIND_PLAYER, idRef), idRef, x, y, health, ref(imagePath),
+                doubleMissile ? BinaryProtocol.FLAG_DOUBLE_MISSILE : 0, inputSeq);
+    }
+
+    @Override
+    public void missile(int id, String ownerId, int x, int y) {
+        current.put(EntitySnapshot.key(EntitySnapshot.KIND_MISSILE, id), ref(ownerId), x, y, 0, 0, 0, 0);
+    }
+
+    @Override
+    public void obstacle(int id, int x, int y, int width, int height, boolean movingRight, String imagePath) {
+        current.put(EntitySnapshot.key(EntitySnapshot.KIND_OBSTACLE, id), x, y, width, height,
+                movingRight ? BinaryProtocol.FLAG_MOVING_RIGHT : 0, ref(imagePath), 0);
+    }
+
+    @Override
+    public void item(int id, int x, int y, int width, int height, String type, boolean movingRight) {
+        current.put(EntitySnapshot.key(EntitySnapshot.KIND_ITEM, id), x, y, width, height, ref(type),
+                movingRight ? BinaryProtocol.FLAG_MOVING_RIGHT : 0, 0);
+    }
+
+    @Override
+    public void finish() {
+        nextSeq++;
+    }
+
+    @Override
+    public void send(SnapshotStream stream, ClientConnection connection) {
+        EntitySnapshot baseline = baseline(stream.getAckedSeq());
+        BinaryProtocol.Writer frame = frameFor(baseline == null ? 0 : baseline.getSeq(), baseline);
+
+        sendDefines(stream, connection);
+        connection.sendSnapshotBinary(frame.array(), 0, frame.size());
+    }
+
+    // seq는 재사용 뒤에도 이어서 증가시킨다 (이전 판의 늦은 ACK가 새 판의 스냅샷과 겹치지 않도록)
+    @Override
+    public void reset() {
+        super.reset();
+        for (EntitySnapshot snapshot : ring) {
+            if (snapshot != null) {
+                snapshot.clear();
+                snapshot.setSeq(0);
+            }
+        }
+        cachedCount = 0;
+    }
+
+    // 기준 seq에 대한 delta 프레임 (이번 틱에 이미 만든 것이 있으면 재사용)
+    private BinaryProtocol.Writer frameFor(int baseSeq, EntitySnapshot baseline) {
+        for (int i = 0; i < cachedCount; i++) {
+            if (cachedBaseSeqs[i] == baseSeq) return cachedFrames[i];
+        }
+
+        if (cachedCount == cachedFrames.length) {
+            cachedBaseSeqs = Arrays.copyOf(cachedBaseSeqs, cachedCount * 2);
+            cachedFrames = Arrays.copyOf(cachedFrames, cachedCount * 2);
+        }
+        if (cachedFrames[cachedCount] == null) {
+            cachedFrames[cachedCount] = new BinaryProtocol.Writer(256);
+        }
+        BinaryProtocol.Writer frame = cachedFrames[cachedCount];
+        cachedBaseSeqs[cachedCount] = baseSeq;
+        cachedCount++;
+
+        payload.reset();
+        payload.writeVarInt(current.getSeq());
+        payload.writeVarInt(baseSeq);
+        current.writeDelta(baseline, payload, changes, removals);
+
+        frame.reset();
+        frame.writeFrame(BinaryProtocol.FRAME_SNAPSHOT, payload);
+        return frame;
+    }
+
+    // 링에 남아 있는 ACK된 스냅샷 (없으면 null -> 전체 스냅샷)
+    private EntitySnapshot baseline(int seq) {
+        if (seq <= 0 || seq <= current.getSeq() - ring.length || seq >= current.getSeq()) return null;
+        EntitySnapshot snapshot = ring[seq % ring.length];
+        return snapshot != null && snapshot.getSeq() == seq ? snapshot : null;
+    }
+}
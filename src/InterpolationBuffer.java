@@ -0,0 +1,108 @@
+// 스냅샷 보간 버퍼: 최근 스냅샷들의 엔티티 위치를 수신 시각과 함께 보관했다가,
+// 그릴 때 "현재 - 보간 지연" 시점을 감싸는 두 스냅샷 사이에서 위치를 보간해 돌려준다.
+// 그 시점이 가장 최근 스냅샷보다 뒤면(스냅샷이 늦게 오면) 마지막 두 스냅샷의 속도로 최대 maxExtrapolation까지만 외삽한다.
+// 프레임은 EntitySnapshot을 재사용해 (키, x, y)를 키 오름차순으로 저장한다.
+// 그리기 스레드(EDT 또는 렌더 스레드) 하나에서만 쓴다.
+public class InterpolationBuffer {
+    private static final int FRAMES = 8; // 20Hz 기준 약 400ms 분량
+
+    private final EntitySnapshot[] frames = new EntitySnapshot[FRAMES];
+    private final long[] times = new long[FRAMES]; // 수신 시각 (System.nanoTime)
+    private final long delayNanos;
+    private final long maxExtrapolationNanos;
+    private int newest = FRAMES - 1;
+    private int stored = 0;
+
+    // prepare() 결과: from과 to 사이의 alpha 위치 (1보다 크면 외삽)
+    private EntitySnapshot from, to;
+    private double alpha;
+
+    public InterpolationBuffer(long delayMillis, long maxExtrapolationMillis) {
+        this.delayNanos = delayMillis * 1_000_000L;
+        this.maxExtrapolationNanos = maxExtrapolationMillis * 1_000_000L;
+        for (int i = 0; i < FRAMES; i++) {
+            frames[i] = new EntitySnapshot();
+        }
+    }
+
+    // 스냅샷 하나 기록 시작 (가장 오래된 프레임을 덮어쓴다)
+    public void beginFrame(long time) {
+        newest = (newest + 1) % FRAMES;
+        frames[newest].clear();
+        times[newest] = time;
+        if (stored < FRAMES) stored++;
+    }
+
+    public void record(int key, int x, int y) {
+        frames[newest].put(key, x, y, 0, 0, 0, 0, 0);
+    }
+
+    public void clear() {
+        stored = 0;
+        from = to = null;
+    }
+
+    // 한 프레임 그리기 전에 보간할 두 스냅샷과 비율 결정
+    public void prepare(long now) {
+        from = to = null;
+        if (stored == 0) return;
+
+        long renderTime = now - delayNanos;
+        if (renderTime >= times[newest]) {
+            // 다음 스냅샷이 늦음: 마지막 두 스냅샷으로 제한된 시간만큼 외삽
+            int previous = (newest - 1 + FRAMES) % FRAMES;
+            long span = times[newest] - times[previous];
+            if (stored < 2 || span <= 0) {
+                select(frames[newest], frames[newest], 0);
+                return;
+            }
+            long ahead = Math.min(renderTime - times[newest], maxExtrapolationNanos);
+            select(frames[previous], frames[newest], 1 + (double) ahead / span);
+            return;
+        }
+
+        for (int n = 1; n < stored; n++) {
+            int older = (newest - n + FRAMES) % FRAMES;
+            if (times[older] <= renderTime) {
+                int newer = (older + 1) % FRAMES;
+                long span = times[newer] - times[older];
+                select(frames[older], frames[newer], span > 0 ? (double) (renderTime - times[older]) / span : 1);
+                return;
+            }
+        }
+
+        // 보관한 것보다 더 과거: 가장 오래된 스냅샷 그대로
+        EntitySnapshot oldest = frames[(newest - stored + 1 + FRAMES) % FRAMES];
+        select(oldest, oldest, 0);
+    }
+
+    private void select(EntitySnapshot from, EntitySnapshot to, double alpha) {
+        this.from = from;
+        this.to = to;
+        this.alpha = alpha;
+    }
+
+    // 그릴 위치 (버퍼에 없는 엔티티는 current 그대로)
+    public int x(int key, int current) {
+        return interpolate(key, 0, current);
+    }
+
+    public int y(int key, int current) {
+        return interpolate(key, 1, current);
+    }
+
+    // 두 스냅샷 모두에 있으면 보간, 한쪽에만 있으면 그 위치 (막 생기거나 사라지는 엔티티)
+    private int interpolate(int key, int field, int current) {
+        if (to == null) return current;
+        int a = from.indexOf(key);
+        int b = to.indexOf(key);
+        if (a >= 0 && b >= 0) {
+            int start = from.field(a, field);
+            int end = to.field(b, field);
+            return (int) Math.round(start + (end - start) * alpha);
+        }
+        if (b >= 0) return to.field(b, field);
+        if (a >= 0) return from.field(a, field);
+        return current;
+    }
+}
@@ -1,13 +1,9 @@
-import javax.swing.*;
-import java.awt.*;
-import java.io.IOException;
-
 public class Item {
+    private int id; // 맵 안에서 고유한 엔티티 ID
     private int x, y, width, height;
-    private Image image; // 아이템 이미지
     private String type; // 아이템 종류
     private boolean movingRight; // 이동 방향 (true: 오른쪽 →, false: 왼쪽 ←)
-    private String imagePath; // 아이템 이미지 경로
+    private String imagePath = "images/item.png"; // 아이템 이미지 경로 (기본 이미지)
 
     public Item(int x, int y, int width, int height, String type, boolean movingRight) {
         this.x = x;
@@ -16,31 +12,28 @@ public class Item {
         this.height = height;
         this.type = type;
         this.movingRight = movingRight;
-        this.image = new ImageIcon("images/item.png").getImage(); // 기본 이미지 설정
     }
 
+    // 이미지는 클라이언트가 그릴 때 SpriteCache에서 경로로 찾는다
     public void setImagePath(String imagePath) {
         this.imagePath = imagePath;
-        try {
-            this.image = new ImageIcon(imagePath).getImage();
-            if (this.image == null) {
-                throw new IOException("Image not found: " + imagePath);
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to load item image: " + imagePath);
-            e.printStackTrace();
-        }
     }
 
+    public String getImagePath() { return imagePath; }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
     public String getType() { return type; }
     public int getX() { return x; }
     public int getY() { return y; }
     public int getWidth() { return width; }
     public int getHeight() { return height; }
-    public Image getImage() { return image; }
 
     public void setX(int x) { this.x = x; }
     public void setY(int y) { this.y = y; }
+    public void setWidth(int width) { this.width = width; }
+    public void setHeight(int height) { this.height = height; }
+    public void setType(String type) { this.type = type; }
     public boolean isMovingRight() { return movingRight; }
     public void setMovingRight(boolean movingRight) { this.movingRight = movingRight; }
 }
@@ -1,82 +1,81 @@
-import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ItemManager {
-    private List<Item> items = new CopyOnWriteArrayList<>(); // 스레드 안전한 리스트
+    public static final int ITEM_SIZE = 40;
+
+    // 아이템 종류 (EntityStore의 type 값이 인덱스)
+    public static final String[] TYPES = {"DOUBLE_MISSILE"};
+    public static final int TYPE_DOUBLE_MISSILE = 0;
+
+    private final EntityStore items = new EntityStore(8); // 아이템 (틱 스레드에서만 접근)
     private final int serverWidth;
     private final int serverHeight;
-    private boolean running = true; // 스레드 종료 플래그
+    private final Random random;
+    private final AtomicInteger entityIds; // 맵 공용 엔티티 ID 발급기
+
+    // 생성 주기 (틱 단위, 기본 10초)
+    private static final int SPAWN_INTERVAL_TICKS = (int) Math.max(1, ServerConfig.ITEM_SPAWN_MILLIS / ServerConfig.TICK_MILLIS);
+    // 종류별 효과 시간 (틱 단위, TYPES 순서, 더블 미사일 10초)
+    public static final int[] EFFECT_TICKS = {(int) Math.max(1, 10000 / ServerConfig.TICK_MILLIS)};
+    private final TimingWheel timers; // 맵의 타이밍 휠 (생성 일정)
+    private final Runnable spawnTask = this::spawnAndReschedule;
+    private TimingWheel.Timeout spawnTimer;
 
-    public ItemManager(int serverWidth, int serverHeight) {
+    public ItemManager(int serverWidth, int serverHeight, Random random, AtomicInteger entityIds, TimingWheel timers) {
         this.serverWidth = serverWidth;
         this.serverHeight = serverHeight;
+        this.random = random;
+        this.entityIds = entityIds;
+        this.timers = timers;
+        scheduleSpawn(); // 게임 시작 후 한 주기 뒤 첫 생성
     }
 
-    public List<Item> getItems() {
+    public EntityStore getItems() {
         return items;
     }
 
-    public void stop() {
-        running = false;
+    // 아이템 초기화 (맵 재사용)
+    public void reset() {
+        items.clear();
+        scheduleSpawn();
     }
 
-    // 아이템 생성 스레드
-    public void startSpawnThread() {
-        new Thread(() -> {
-            Random random = new Random();
-            while (running) {
-                try {
-                    Thread.sleep(10000); // 10초마다 생성
-                    spawnItem(random);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
-        }).start();
+    // 맵 틱마다 호출: 아이템 이동 (생성은 타이밍 휠이 먼저 실행)
+    public void update() {
+        updateItems();
     }
 
-    // 아이템 움직임 스레드
-    public void startMoveThread() {
-        new Thread(() -> {
-            while (running) {
-                try {
-                    updateItems();
-                    Thread.sleep(50); // 50ms마다 이동
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
-        }).start();
+    private void scheduleSpawn() {
+        if (spawnTimer != null) {
+            spawnTimer.cancel();
+        }
+        spawnTimer = timers.schedule(SPAWN_INTERVAL_TICKS, spawnTask);
+    }
+
+    private void spawnAndReschedule() {
+        spawnItem(random);
+        spawnTimer = timers.schedule(SPAWN_INTERVAL_TICKS, spawnTask); // 주기마다 생성
     }
 
     private void spawnItem(Random random) {
         int x = random.nextBoolean() ? 0 : serverWidth - 50; // 좌우 랜덤
         int y = random.nextInt(serverHeight); // y 위치 랜덤
-        boolean movingRight = x == 0;
+        int direction = x == 0 ? 1 : -1;
 
-        String type = "DOUBLE_MISSILE"; // 아이템 타입
-        Item item = new Item(x, y, 40, 40, type, movingRight); // 크기 40x40
-        item.setImagePath("images/double_missile_item.png"); // 이미지 경로 설정
-        items.add(item);
+        // 크기 40x40
+        items.add(entityIds.incrementAndGet(), x, y, ITEM_SIZE, ITEM_SIZE, direction, EntityStore.NO_OWNER, TYPE_DOUBLE_MISSILE);
     }
 
+    // 한 틱 동안 아이템 이동 (틱당 5px)
     private void updateItems() {
-        List<Item> toRemove = new ArrayList<>();
-
-        for (Item item : items) {
-            if (item.isMovingRight()) {
-                item.setX(item.getX() + 5); // 오른쪽으로 이동
-                if (item.getX() > serverWidth) {
-                    toRemove.add(item); // 화면 밖으로 나가면 제거
-                }
-            } else {
-                item.setX(item.getX() - 5); // 왼쪽으로 이동
-                if (item.getX() + item.getWidth() < 0) {
-                    toRemove.add(item); // 화면 밖으로 나가면 제거
-                }
+        // 역순으로 돌면서 화면 밖으로 나간 아이템은 바로 제거
+        for (int i = items.size() - 1; i >= 0; i--) {
+            int x = items.x(i) + 5 * items.direction(i);
+            items.setX(i, x);
+            if (items.direction(i) > 0 ? x > serverWidth : x + items.width(i) < 0) {
+                items.removeAt(i); // 화면 밖으로 나가면 제거
             }
         }
-
-        items.removeAll(toRemove); // 리스트에서 제거
     }
 }
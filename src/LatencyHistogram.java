@@ -0,0 +1,78 @@
+import java.util.concurrent.atomic.LongAdder;
+
+// 고정 구간 지연 시간 히스토그램 (여러 틱 스레드가 동시에 기록, 수집 스레드가 읽음)
+// 구간 경계는 Prometheus histogram의 le 값으로 그대로 내보낸다.
+public class LatencyHistogram {
+    // 틱 시간용 기본 구간 상한 (ns): 10us ~ 250ms, 마지막 구간은 +Inf
+    private static final long[] TICK_BOUNDS = {
+            10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000, 10_000_000, 25_000_000, 50_000_000, 100_000_000, 250_000_000};
+
+    private final long[] bounds;
+    private final LongAdder[] buckets;
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        this(TICK_BOUNDS);
+    }
+
+    // 구간 상한(ns, 오름차순)을 직접 지정 (매치메이킹 대기 시간처럼 틱보다 훨씬 긴 값)
+    public LatencyHistogram(long... bounds) {
+        this.bounds = bounds.clone();
+        buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < bounds.length && nanos > bounds[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public double getAverageMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : sumNanos.sum() / 1e6 / count;
+    }
+
+    // 분위수의 근사값: 해당 순위가 들어 있는 구간의 상한 (ms, +Inf 구간이면 마지막 상한)
+    public double getPercentileMillis(double percentile) {
+        long count = getCount();
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) return bounds[i] / 1e6;
+        }
+        return bounds[bounds.length - 1] / 1e6;
+    }
+
+    // Prometheus histogram 형식으로 출력 (labels는 "a=\"b\"" 형태, 없으면 빈 문자열)
+    public void writePrometheus(StringBuilder out, String name, String labels) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += buckets[i].sum();
+            out.append(name).append("_bucket{").append(prefix).append("le=\"").append(bounds[i] / 1e9).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        cumulative += buckets[bounds.length].sum();
+        out.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+        String braces = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(braces).append(' ').append(sumNanos.sum() / 1e9).append('\n');
+        out.append(name).append("_count").append(braces).append(' ').append(cumulative).append('\n');
+    }
+}
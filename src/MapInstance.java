@@ -0,0 +1,620 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// 맵 클래스
+public class MapInstance {
+    // 수명 주기: CREATED(생성/재사용 직후) -> WAITING(첫 플레이어 입장) -> RUNNING(두 명 입장, 게임 진행)
+    // -> ENDED(승패 결정 또는 모두 나가서 맵 목록에서 삭제) -> RECYCLED(틱 스케줄러에서 빠진 뒤 정리, 풀에서 재사용 대기)
+    public static final int CREATED = 0;
+    public static final int WAITING = 1;
+    public static final int RUNNING = 2;
+    public static final int ENDED = 3;
+    public static final int RECYCLED = 4;
+
+    private static final int MAX_PLAYERS = 2; // 맵당 최대 플레이어 수
+    private static final int TIMER_SLOTS = 256; // 타이밍 휠 칸 수 (50ms 틱 기준 12.8초, 효과 시간보다 길게)
+    private static final int MISSILE_COOLDOWN_TICKS = (int) (ServerConfig.MISSILE_COOLDOWN_MILLIS / ServerConfig.TICK_MILLIS);
+    // 플레이어당 틱마다 적용하는 이동 입력 수 (클라이언트 입력 주기 기준), 쓰지 않은 몫은 한 틱 분량까지 다음 틱으로 넘긴다
+    private static final int INPUT_STEPS_PER_TICK = (int) Math.max(1,
+            (ServerConfig.TICK_MILLIS + ServerConfig.INPUT_PERIOD_MILLIS - 1) / ServerConfig.INPUT_PERIOD_MILLIS);
+    private static final int MAX_INPUT_STEPS = INPUT_STEPS_PER_TICK * 2;
+    // 미사일 발사 위치 (플레이어 왼쪽 위 기준, 클라이언트가 그리는 위치와 같음)
+    private static final int MISSILE_OFFSET_X = 40;
+    private static final int DOUBLE_MISSILE_OFFSET_X = 20; // 더블 미사일은 MISSILE_OFFSET_X 양쪽으로 이만큼 벌어진다
+    private static final int MISSILE_OFFSET_Y = -20;
+    private String mapId;
+    private AssetRegistry.Theme theme; // 맵 테마 (배경, 미사일, 장애물, 플레이어 이미지 에셋 ID)
+    private volatile int state = CREATED;
+    private volatile int generation = 0; // 재사용 횟수 (이전 판에서 받아 둔 참조를 구분)
+    private Map<String, Player> players = new ConcurrentHashMap<>();
+    private final EntityStore missiles = new EntityStore(32); // 미사일 (발사한 플레이어 시점 좌표, 틱 스레드에서만 접근)
+    private final Player[] slotPlayers = new Player[MAX_PLAYERS]; // 슬롯 -> 플레이어 (틱마다 갱신)
+    private final int[] inputSteps = new int[MAX_PLAYERS]; // 슬롯별 이번 틱에 남은 이동 입력 수 (틱 스레드)
+    private final int[] shotsThisTick = new int[MAX_PLAYERS]; // 슬롯별 이번 틱에 쏜 미사일 수 (더블 미사일 좌우 구분)
+    private ObstacleManager obstacleManager;
+
+    private final Random random = new Random(); // 맵 시뮬레이션 전용 난수 (장애물/아이템 생성)
+    private final AtomicInteger entityIds = new AtomicInteger(); // 미사일/장애물/아이템 공용 ID 발급기
+    // 효과 만료, 무기 쿨다운, 생성 일정 (게임 진행 중 틱마다 한 칸씩 진행, 틱 스레드에서만 접근)
+    private final TimingWheel timers = new TimingWheel(TIMER_SLOTS);
+    private long tickCount = 0; // 게임 시작 후 진행된 틱 수
+    private volatile long lastTickNanos = 0; // 마지막 틱에 걸린 시간 (운영 지표용)
+    private final Queue<PlayerCommand> inputQueue = new ConcurrentLinkedQueue<>(); // 다음 틱에 적용할 입력
+    // 슬롯별 큐에 쌓인 입력 수 (상한 검사용, 한 플레이어가 큐를 채워 상대 입력이 버려지지 않도록 플레이어마다 센다)
+    private final AtomicIntegerArray queuedInputs = new AtomicIntegerArray(MAX_PLAYERS);
+    private long droppedInputs = 0; // 상한 초과로 버린 입력 수
+
+    private ItemManager itemManager;
+    private final GameStateEncoder[] stateEncoders = new GameStateEncoder[SnapshotStream.FORMATS]; // 형식별 직렬화기
+
+    // 충돌 판정 broadphase 격자 (틱 스레드에서만 사용, 매 틱 다시 채움)
+    private final SpatialHash missileGrid = new SpatialHash(ShootingGameServer.SERVER_WIDTH, ShootingGameServer.SERVER_HEIGHT, ServerConfig.COLLISION_CELL_SIZE);
+    private final SpatialHash obstacleGrid = new SpatialHash(ShootingGameServer.SERVER_WIDTH, ShootingGameServer.SERVER_HEIGHT, ServerConfig.COLLISION_CELL_SIZE);
+    private final SpatialHash itemGrid = new SpatialHash(ShootingGameServer.SERVER_WIDTH, ShootingGameServer.SERVER_HEIGHT, ServerConfig.COLLISION_CELL_SIZE);
+    private int[] missilePoints = new int[64]; // 미사일 위치 -> 정규 좌표 판정점 (x, y)
+    private final boolean[] neededFormats = new boolean[SnapshotStream.FORMATS]; // 이번 틱에 직렬화할 형식
+
+    // 맵 생성 및 초기 설정
+    public MapInstance(String mapId) {
+        // 맵 ID에 따라 테마 설정 (이미지는 서버에서 읽지 않고 에셋 ID로만 가진다)
+        this(mapId, AssetRegistry.theme(mapId));
+        if (theme == AssetRegistry.DEFAULT) {
+            System.err.println("Invalid mapId: " + mapId + ", defaulting to back1.png");
+        }
+    }
+
+    // 테마를 따로 지정 (매치메이킹 방은 ID가 테마 이름이 아니다)
+    public MapInstance(String mapId, AssetRegistry.Theme theme) {
+        this.mapId = mapId;
+        this.theme = theme;
+
+        this.obstacleManager = new ObstacleManager(ShootingGameServer.SERVER_WIDTH, ShootingGameServer.SERVER_HEIGHT, random, entityIds, timers);
+        this.obstacleManager.setObstacleAsset(theme.getObstacle()); // 장애물 에셋 설정
+
+        this.itemManager = new ItemManager(ShootingGameServer.SERVER_WIDTH, ShootingGameServer.SERVER_HEIGHT, random, entityIds, timers);
+
+    }
+
+    // 게임 종료 (승패가 났거나 맵이 삭제됨)
+    public boolean isGameOver() {
+        return state >= ENDED;
+    }
+
+    public boolean isGameStarted() {
+        return state >= RUNNING;
+    }
+
+    public int getState() {
+        return state;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    // 게임 시작
+    public synchronized void startGame() {
+        if (state != WAITING) return; // 이미 시작되었거나 끝난 경우 무시
+
+        state = RUNNING;
+        broadcast("GAMESTART");
+        System.out.println("Game started in map: " + mapId);
+    }
+
+    // 게임 종료 상태로 전환 (이후 틱에서 시뮬레이션과 충돌 판정 중지)
+    public synchronized void end() {
+        if (state < ENDED) {
+            state = ENDED;
+        }
+    }
+
+    // 판이 끝난 맵 정리 (틱 스케줄러에서 빠진 뒤 호출되므로 이 맵의 틱은 더 이상 돌지 않는다)
+    // 맵은 스레드나 타이머 없이 틱으로만 움직이므로, 플레이어와의 연결을 끊고 엔티티/입력/직렬화 상태를 비우면 남는 것이 없다.
+    synchronized void recycle() {
+        for (Player player : players.values()) {
+            if (player.getAssignedMap() == this) {
+                player.setAssignedMap(null); // 늦게 도착한 명령이 다음 판에 섞이지 않도록
+            }
+        }
+        players.clear();
+        Arrays.fill(slotPlayers, null);
+        Arrays.fill(inputSteps, 0);
+        inputQueue.clear();
+        for (int slot = 0; slot < MAX_PLAYERS; slot++) {
+            queuedInputs.set(slot, 0);
+        }
+        missiles.clear();
+        timers.clear(); // 남은 효과/쿨다운 타이머를 버린 뒤 생성 일정만 새로 등록
+        obstacleManager.resetObstacles();
+        itemManager.reset();
+        for (GameStateEncoder encoder : stateEncoders) {
+            if (encoder != null) {
+                encoder.reset();
+            }
+        }
+        entityIds.set(0);
+        tickCount = 0;
+        lastTickNanos = 0;
+        generation++;
+        state = RECYCLED;
+    }
+
+    // 정리된 맵을 새 방으로 다시 사용
+    synchronized void reuse(String mapId, AssetRegistry.Theme theme) {
+        if (state != RECYCLED) {
+            throw new IllegalStateException("Map is not recycled: " + this.mapId);
+        }
+        this.mapId = mapId;
+        this.theme = theme;
+        obstacleManager.setObstacleAsset(theme.getObstacle());
+        state = CREATED;
+    }
+
+    public AssetRegistry.Theme getTheme() {
+        return theme;
+    }
+
+    public String getMissileImagePath() {
+        return AssetRegistry.path(theme.getMissile());
+    }
+
+    public String getBackgroundImagePath() {
+        return AssetRegistry.path(theme.getBackground());
+    }
+
+    public String getMapId() {
+        return mapId;
+    }
+
+    public Map<String, Player> getPlayers() {
+        return players;
+    }
+
+    public EntityStore getMissiles() {
+        return missiles;
+    }
+
+    public EntityStore getObstacles() {
+        return obstacleManager.getObstacles();
+    }
+
+    public EntityStore getItems() {
+        return itemManager.getItems();
+    }
+
+    // 새 엔티티 ID 발급 (스냅샷 delta에서 엔티티를 구분하는 키)
+    public int nextEntityId() {
+        return entityIds.incrementAndGet();
+    }
+
+    public synchronized boolean canAddPlayer() {
+        return players.size() < MAX_PLAYERS; // 플레이어 수가 제한 이하인지 확인
+    }
+
+    // 맵에 플레이어 추가
+    public synchronized void addPlayer(Player player) {
+        if (players.size() >= MAX_PLAYERS) {
+            throw new IllegalStateException("Cannot add more players to the map: " + mapId);
+        }
+        // 비어 있는 자리 배정 (슬롯 0 플레이어의 시점이 정규 좌표)
+        boolean slotZeroTaken = players.values().stream().anyMatch(p -> p.getSlot() == 0);
+        player.setSlot(slotZeroTaken ? 1 : 0);
+        players.put(player.getId(), player);
+        player.setAssignedMap(this);
+        if (state == CREATED) {
+            state = WAITING;
+        }
+
+        checkAndStartGame(); // 게임 시작 여부를 확인
+    }
+
+    // 플레이어 수 체크하고 게임 시작
+    private void checkAndStartGame() {
+        if (players.size() == 2) { // 플레이어가 2명이고 게임이 시작되지 않은 경우 (startGame에서 확인)
+            startGame();
+        }
+    }
+
+    // 맵에 있는 플레이어들에게 메시지 전송
+    public void broadcast(String message) {
+        // 모든 플레이어에게 메시지를 전송
+        for (Player player : players.values()) {
+            ClientConnection connection = player.getConnection();
+            if (connection != null) {
+                connection.send(message); // 메시지를 전송
+            }
+        }
+    }
+
+    // 한 틱 동안의 맵 갱신 (담당 샤드 스레드에서 호출)
+    // 고정 간격 틱 안에서 생성 -> 이동 -> 충돌 -> 전송 순서로 처리하므로 별도 스레드가 필요 없다.
+    // 단계마다 걸린 시간은 운영 지표의 단계별 히스토그램에 기록한다.
+    public void tick() {
+        ServerMetrics metrics = ShootingGameServer.metrics;
+        long start = System.nanoTime();
+        updateSlotPlayers();
+        applyInputs();
+        long mark = metrics.recordPhase(ServerMetrics.PHASE_APPLY_INPUTS, start);
+        if (state == RUNNING) {
+            tickCount++;
+            timers.advance(); // 효과 만료, 쿨다운 해제, 장애물/아이템 생성
+            obstacleManager.update();
+            mark = metrics.recordPhase(ServerMetrics.PHASE_UPDATE_OBSTACLES, mark);
+            itemManager.update();
+            mark = metrics.recordPhase(ServerMetrics.PHASE_UPDATE_ITEMS, mark);
+        }
+        updateMissiles();
+        mark = metrics.recordPhase(ServerMetrics.PHASE_UPDATE_MISSILES, mark);
+        checkCollisions();
+        mark = metrics.recordPhase(ServerMetrics.PHASE_CHECK_COLLISIONS, mark);
+        broadcastGameState();
+        mark = metrics.recordPhase(ServerMetrics.PHASE_BROADCAST_GAME_STATE, mark);
+        lastTickNanos = mark - start;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    // 슬롯별 플레이어 갱신 (미사일 소유자 조회용)
+    private void updateSlotPlayers() {
+        Arrays.fill(slotPlayers, null);
+        for (Player player : players.values()) {
+            if (player.getSlot() < slotPlayers.length) {
+                slotPlayers[player.getSlot()] = player;
+            }
+        }
+    }
+
+    // 클라이언트 입력을 다음 틱까지 보관 (연결 스레드에서 호출)
+    // 입력 빈도와 상관없이 상태 전송은 틱당 한 번이고, 틱 사이에 쌓이는 입력 수도 플레이어마다 상한을 둔다 (넘친 입력은 그 플레이어 것만 버림).
+    public void enqueueInput(PlayerCommand command) {
+        Player player = command.getPlayer();
+        int slot = player.getSlot();
+        if (queuedInputs.incrementAndGet(slot) > ServerConfig.MAX_QUEUED_INPUTS) {
+            queuedInputs.decrementAndGet(slot);
+            ShootingGameServer.metrics.inputDropped();
+            synchronized (inputQueue) {
+                if (droppedInputs++ % 1000 == 0) {
+                    System.err.println("Input queue full for player " + player.getId() + " in map " + mapId
+                            + ", dropped inputs: " + droppedInputs);
+                }
+            }
+            return;
+        }
+        inputQueue.add(command);
+    }
+
+    // 지난 틱 이후 도착한 입력을 도착 순서대로 적용 (틱 스레드)
+    private void applyInputs() {
+        for (int slot = 0; slot < MAX_PLAYERS; slot++) {
+            inputSteps[slot] = Math.min(MAX_INPUT_STEPS, inputSteps[slot] + INPUT_STEPS_PER_TICK);
+            shotsThisTick[slot] = 0;
+        }
+
+        PlayerCommand command;
+        while ((command = inputQueue.poll()) != null) {
+            Player player = command.getPlayer();
+            queuedInputs.decrementAndGet(player.getSlot());
+            if (!players.containsKey(player.getId())) continue; // 이미 나간 플레이어
+
+            switch (command.getType()) {
+                case PlayerCommand.MOVE:
+                    // 플레이어 위치 업데이트 (이동 가능 범위 밖 좌표는 잘라낸다)
+                    player.setPosition(PlayerMovement.clampX(command.getX()), PlayerMovement.clampY(command.getY()));
+                    break;
+                case PlayerCommand.INPUT:
+                    // 클라이언트 예측과 같은 규칙으로 이동하고, 적용한 seq를 스냅샷으로 알려준다 (중복/역순 입력 무시)
+                    // 이번 틱 몫을 넘긴 입력은 이동 없이 seq만 진행하므로, 클라이언트는 재조정에서 서버 위치로 돌아온다.
+                    if (command.getSeq() > player.getLastInputSeq()) {
+                        int slot = player.getSlot();
+                        if (inputSteps[slot] > 0) {
+                            inputSteps[slot]--;
+                            player.setPosition(PlayerMovement.stepX(player.getX(), command.getKeys()),
+                                    PlayerMovement.stepY(player.getY(), command.getKeys()));
+                        }
+                        player.setLastInputSeq(command.getSeq());
+                    }
+                    break;
+                case PlayerCommand.MISSILE:
+                    if (!allowMissile(player)) break; // 쿨다운 중 (클라이언트가 쿨다운을 지키지 않음)
+                    // 발사 위치는 클라이언트가 보낸 좌표가 아니라 서버의 플레이어 위치로 정한다
+                    missiles.add(nextEntityId(), player.getX() + missileOffsetX(player), player.getY() + MISSILE_OFFSET_Y,
+                            ShootingGameServer.MISSILE_WIDTH, ShootingGameServer.MISSILE_HEIGHT,
+                            -1, player.getSlot(), 0); // 미사일 추가 (발사한 플레이어 시점에서 위로 이동)
+                    break;
+            }
+        }
+    }
+
+    // 미사일 가로 위치: 더블 미사일이면 클라이언트가 한 번에 보내는 두 발을 틱 안에서 번갈아 왼쪽/오른쪽에 둔다
+    private int missileOffsetX(Player player) {
+        if (!player.isDoubleMissileEnabled()) return MISSILE_OFFSET_X;
+        int shot = shotsThisTick[player.getSlot()]++;
+        return shot % 2 == 0 ? MISSILE_OFFSET_X - DOUBLE_MISSILE_OFFSET_X : MISSILE_OFFSET_X + DOUBLE_MISSILE_OFFSET_X;
+    }
+
+    // 무기 쿨다운: 쿨다운마다 한 번의 발사(더블 미사일이면 두 발)만 허용, 게임 진행 중에만 적용
+    private boolean allowMissile(Player player) {
+        if (MISSILE_COOLDOWN_TICKS <= 0 || state != RUNNING) return true;
+
+        if (player.getMissileCooldown() == null) {
+            player.setShotsInCooldown(1);
+            player.setMissileCooldown(timers.schedule(MISSILE_COOLDOWN_TICKS, () -> player.setMissileCooldown(null)));
+            return true;
+        }
+        int volley = player.isDoubleMissileEnabled() ? 2 : 1;
+        if (player.getShotsInCooldown() < volley) {
+            player.setShotsInCooldown(player.getShotsInCooldown() + 1);
+            return true;
+        }
+        return false;
+    }
+
+    // 미사일 움직임 관리 로직
+    public void updateMissiles() {
+        // 역순으로 돌면서 화면 밖으로 나간 미사일은 바로 제거
+        for (int i = missiles.size() - 1; i >= 0; i--) {
+            int y = missiles.y(i) + 7 * missiles.direction(i); // 미사일 위로 이동
+            missiles.setY(i, y);
+            if (y < 0) {
+                missiles.removeAt(i);
+            }
+        }
+    }
+
+    // 아이템을 먹었을 때 적용시키는 로직
+    // 효과 시간은 맵의 타이밍 휠로 센다: 같은 효과를 다시 먹으면 남은 시간을 새로 시작하고,
+    // 종류가 다른 효과는 각자의 타이머로 함께 유지된다 (효과마다 스레드나 Timer가 생기지 않는다).
+    private void applyItemEffect(Player player, int itemType) {
+        System.out.println("Applying effect of item type: " + ItemManager.TYPES[itemType]);
+
+        if (itemType == ItemManager.TYPE_DOUBLE_MISSILE) {
+            player.enableDoubleMissile();
+            System.out.println("Double missile enabled for player: " + player.getId());
+        } else {
+            System.out.println("Unknown item type: " + itemType);
+            return;
+        }
+
+        TimingWheel.Timeout previous = player.getEffectTimer(itemType);
+        if (previous != null) {
+            previous.cancel();
+        }
+        player.setEffectTimer(itemType, timers.schedule(ItemManager.EFFECT_TICKS[itemType], () -> expireItemEffect(player, itemType)));
+    }
+
+    // 효과 시간이 다 된 아이템 효과 해제 (타이밍 휠, 틱 스레드)
+    private void expireItemEffect(Player player, int itemType) {
+        player.setEffectTimer(itemType, null);
+        if (itemType == ItemManager.TYPE_DOUBLE_MISSILE) {
+            player.disableDoubleMissile();
+            System.out.println("Double missile disabled for player: " + player.getId());
+        }
+    }
+
+    // 미사일, 장애물, 아이템에 맞았는지 확인 로직
+    // 엔티티 x 플레이어 쌍이 적으면(2인 게임의 보통 상황) 모든 엔티티를 직접 비교하고,
+    // shooting.collisionGridPairs를 넘으면 정규 좌표(슬롯 0 시점)로 격자에 등록한 뒤 플레이어와 같은 칸의 엔티티만 판정한다.
+    // 격자는 틱마다 다시 채우는 비용이 있어 쌍이 적을 때는 더 느리다 (기준값 근거는 bench/CollisionBenchmark).
+    public void checkCollisions() {
+        if (isGameOver()) return; // 게임 종료 시 충돌 판정 중지
+
+        EntityStore obstacles = obstacleManager.getObstacles();
+        EntityStore items = itemManager.getItems();
+        long pairs = (long) (missiles.size() + obstacles.size() + items.size()) * players.size();
+        boolean grid = pairs > ServerConfig.COLLISION_GRID_PAIRS;
+        prepareCollisions(grid);
+
+        for (Player player : players.values()) {
+            int playerX = canonicalX(player.getSlot(), player.getX(), ShootingGameServer.PLAYER_WIDTH);
+            int playerY = canonicalY(player.getSlot(), player.getY(), ShootingGameServer.PLAYER_HEIGHT);
+
+            // 미사일: 발사한 플레이어 시점의 미사일 좌표(점)가 상대 플레이어 영역 안에 있으면 명중
+            int candidates = grid ? missileGrid.query(playerX, playerY, ShootingGameServer.PLAYER_WIDTH, ShootingGameServer.PLAYER_HEIGHT)
+                    : missiles.size();
+            for (int i = 0; i < candidates; i++) {
+                int index = grid ? missileGrid.resultAt(i) : i;
+                if (missiles.owner(index) == player.getSlot()) continue; // 자신이 쏜 미사일은 충돌 대상에서 제외
+
+                int missileX = missilePoints[index * 2];
+                int missileY = missilePoints[index * 2 + 1];
+                if (missileX >= playerX && missileX <= playerX + ShootingGameServer.PLAYER_WIDTH &&
+                        missileY >= playerY && missileY <= playerY + ShootingGameServer.PLAYER_HEIGHT) {
+                    player.reduceHealth(10); // 체력 감소
+                    missiles.markRemoved(index); // 충돌한 미사일 제거
+                    checkGameOver(player); // 게임 종료 여부 확인
+                }
+            }
+
+            // 장애물과 플레이어 충돌 확인
+            candidates = grid ? obstacleGrid.query(playerX, playerY, ShootingGameServer.PLAYER_WIDTH, ShootingGameServer.PLAYER_HEIGHT)
+                    : obstacles.size();
+            for (int i = 0; i < candidates; i++) {
+                int index = grid ? obstacleGrid.resultAt(i) : i;
+                if (overlaps(playerX, playerY, obstacles.x(index), obstacles.y(index), obstacles.width(index), obstacles.height(index))) {
+                    player.reduceHealth(10); // 체력 감소
+                    obstacles.markRemoved(index); // 충돌한 장애물 제거
+                    checkGameOver(player); // 게임 종료 여부 확인
+                }
+            }
+
+            // 아이템과 플레이어 충돌 확인
+            candidates = grid ? itemGrid.query(playerX, playerY, ShootingGameServer.PLAYER_WIDTH, ShootingGameServer.PLAYER_HEIGHT)
+                    : items.size();
+            for (int i = 0; i < candidates; i++) {
+                int index = grid ? itemGrid.resultAt(i) : i;
+                if (overlaps(playerX, playerY, items.x(index), items.y(index), items.width(index), items.height(index))) {
+                    applyItemEffect(player, items.type(index)); // 아이템 효과 적용
+                    items.markRemoved(index); // 충돌한 아이템 제거
+                }
+            }
+        }
+
+        // 판정 번호(격자 번호)가 저장 위치와 같으므로 순회가 끝난 뒤 한꺼번에 제거
+        missiles.removeMarked();
+        obstacles.removeMarked();
+        items.removeMarked();
+    }
+
+    // 이번 틱의 미사일 판정점을 정규 좌표로 계산하고, grid면 미사일, 장애물, 아이템을 격자에 등록 (격자 번호 = 저장 위치)
+    private void prepareCollisions(boolean grid) {
+        if (missilePoints.length < missiles.size() * 2) {
+            missilePoints = new int[missiles.size() * 4];
+        }
+        for (int i = 0; i < missiles.size(); i++) {
+            // 미사일 좌표는 발사한 플레이어 시점이므로 점 단위로 대칭
+            boolean mirrored = missiles.owner(i) > 0;
+            missilePoints[i * 2] = mirrored ? ShootingGameServer.SERVER_WIDTH - missiles.x(i) : missiles.x(i);
+            missilePoints[i * 2 + 1] = mirrored ? ShootingGameServer.SERVER_HEIGHT - missiles.y(i) : missiles.y(i);
+        }
+        if (!grid) return;
+
+        missileGrid.clear();
+        for (int i = 0; i < missiles.size(); i++) {
+            missileGrid.insert(missilePoints[i * 2], missilePoints[i * 2 + 1], 0, 0);
+        }
+
+        // 장애물과 아이템은 이미 정규 좌표
+        EntityStore obstacles = obstacleManager.getObstacles();
+        obstacleGrid.clear();
+        for (int i = 0; i < obstacles.size(); i++) {
+            obstacleGrid.insert(obstacles.x(i), obstacles.y(i), obstacles.width(i), obstacles.height(i));
+        }
+
+        EntityStore items = itemManager.getItems();
+        itemGrid.clear();
+        for (int i = 0; i < items.size(); i++) {
+            itemGrid.insert(items.x(i), items.y(i), items.width(i), items.height(i));
+        }
+    }
+
+    // 플레이어 영역과 사각형이 겹치는지 (정규 좌표)
+    private static boolean overlaps(int playerX, int playerY, int x, int y, int width, int height) {
+        return playerX < x + width &&
+                playerX + ShootingGameServer.PLAYER_WIDTH > x &&
+                playerY < y + height &&
+                playerY + ShootingGameServer.PLAYER_HEIGHT > y;
+    }
+
+    // 슬롯 시점 좌표 -> 정규 좌표 (슬롯 1이면 대칭)
+    private static int canonicalX(int slot, int x, int width) {
+        return slot != 0 ? ShootingGameServer.SERVER_WIDTH - x - width : x;
+    }
+
+    private static int canonicalY(int slot, int y, int height) {
+        return slot != 0 ? ShootingGameServer.SERVER_HEIGHT - y - height : y;
+    }
+
+    // 게임 종료되었는지 확인
+    public void checkGameOver(Player player) {
+        if (player.getHealth() <= 0) {
+            System.out.println(player.getId() + " defeated in map " + mapId);
+            player.getConnection().send("DEFEAT");
+
+            players.values().stream()
+                    .filter(p -> !p.getId().equals(player.getId()))
+                    .forEach(winner -> winner.getConnection().send("VICTORY"));
+
+            // 맵 객체 삭제 (같은 틱에 여러 번 불려도 종료 수는 한 번만 센다)
+            if (ShootingGameServer.mapManager.removeMap(this)) {
+                ShootingGameServer.metrics.gameFinished();
+            }
+            System.out.println("Map " + mapId + " has been deleted.");
+
+            // 게임 종료 상태 설정
+            end();
+        }
+    }
+
+    // 게임 상태를 클라이언트에게 전송
+    // 정규 좌표(슬롯 0 플레이어 기준)로 형식별 한 번만 직렬화하고 같은 결과를 모든 수신자에게 보낸다.
+    public void broadcastGameState() {
+        if (!isGameStarted()) return;
+
+        // 이번 틱에 필요한 형식만 직렬화
+        boolean[] needed = neededFormats;
+        Arrays.fill(needed, false);
+        for (Player player : players.values()) {
+            if (player.getConnection() != null && player.getSnapshotStream() != null) {
+                needed[player.getSnapshotStream().getFormat()] = true;
+            }
+        }
+        for (int format = 0; format < needed.length; format++) {
+            if (!needed[format]) continue;
+            if (stateEncoders[format] == null) {
+                stateEncoders[format] = GameStateEncoder.create(format);
+            }
+            encodeGameState(stateEncoders[format]);
+        }
+
+        // 클라이언트에 전송
+        for (Player player : players.values()) {
+            ClientConnection connection = player.getConnection();
+            SnapshotStream stream = player.getSnapshotStream();
+            if (connection == null || stream == null || stateEncoders[stream.getFormat()] == null) continue;
+
+            stateEncoders[stream.getFormat()].send(stream, connection);
+        }
+    }
+
+    // 맵 전체를 정규 좌표로 직렬화
+    private void encodeGameState(GameStateEncoder encoder) {
+        encoder.begin();
+
+        // 플레이어 데이터 (슬롯 1 플레이어는 자기 시점 좌표로 움직이므로 대칭)
+        for (Player player : players.values()) {
+            int x = player.getX();
+            int y = player.getY();
+
+            if (player.getSlot() != 0) {
+                x = ShootingGameServer.SERVER_WIDTH - x - ShootingGameServer.PLAYER_WIDTH;
+                y = ShootingGameServer.SERVER_HEIGHT - y - ShootingGameServer.PLAYER_HEIGHT;
+            }
+
+            encoder.player(player.getId(), x, y, player.getHealth(),
+                    player.getImagePath(), player.isDoubleMissileEnabled(), player.getLastInputSeq());
+        }
+
+        // 미사일 데이터 (발사한 플레이어 시점 좌표이므로 슬롯 1 소유 미사일은 대칭)
+        for (int i = 0; i < missiles.size(); i++) {
+            int x = missiles.x(i);
+            int y = missiles.y(i);
+            int owner = missiles.owner(i);
+
+            if (owner > 0) {
+                x = ShootingGameServer.SERVER_WIDTH - x - missiles.width(i);
+                y = ShootingGameServer.SERVER_HEIGHT - y - missiles.height(i);
+            }
+
+            Player ownerPlayer = owner >= 0 && owner < slotPlayers.length ? slotPlayers[owner] : null;
+            encoder.missile(missiles.id(i), ownerPlayer != null ? ownerPlayer.getId() : "", x, y);
+        }
+
+        // 장애물 데이터 (이미 정규 좌표)
+        EntityStore obstacles = obstacleManager.getObstacles();
+        for (int i = 0; i < obstacles.size(); i++) {
+            encoder.obstacle(obstacles.id(i), obstacles.x(i), obstacles.y(i), obstacles.width(i), obstacles.height(i),
+                    obstacles.direction(i) > 0, AssetRegistry.path(obstacles.type(i)));
+        }
+
+        // 아이템 데이터 (이미 정규 좌표)
+        EntityStore items = itemManager.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            encoder.item(items.id(i), items.x(i), items.y(i), items.width(i), items.height(i),
+                    ItemManager.TYPES[items.type(i)], items.direction(i) > 0);
+        }
+
+        encoder.finish();
+    }
+}
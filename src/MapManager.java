@@ -0,0 +1,132 @@
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 맵 관리 클래스
+public final class MapManager {
+    private Map<String, MapInstance> maps = new ConcurrentHashMap<>();
+    private final Matchmaker matchmaker = new Matchmaker(this);
+    private final Queue<MapInstance> pool = new ConcurrentLinkedQueue<>(); // 정리되어 재사용을 기다리는 맵
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicLong createdMaps = new AtomicLong(); // 새로 만든 맵 수
+    private final AtomicLong reusedMaps = new AtomicLong(); // 풀에서 꺼내 다시 쓴 맵 수
+    private final AtomicLong recycledMaps = new AtomicLong(); // 정리를 마친 맵 수
+    private final AtomicInteger endedMaps = new AtomicInteger(); // 맵 목록에서 삭제되어 마지막 틱과 정리를 기다리는 맵 수
+
+    public Map<String, MapInstance> getMaps() {
+        return maps;
+    }
+
+    public Matchmaker getMatchmaker() {
+        return matchmaker;
+    }
+
+    // 맵과 클라이언트 연결 로직
+    // 테마 이름(Map1/Map2/Map3)은 매치메이킹으로 새 방에 배정하고, 그 밖의 ID는 같은 ID를 고른 플레이어끼리 만나는 방이다.
+    public MapInstance assignPlayerToMap(Player player, String mapId) {
+        if (mapId == null || player == null) {
+            throw new IllegalArgumentException("Map ID and Player cannot be null");
+        }
+        if (AssetRegistry.hasTheme(mapId)) {
+            return matchmaker.join(player, mapId);
+        }
+
+        while (true) {
+            // 맵이 없으면 새로 생성하고 틱 스케줄러에 등록
+            MapInstance map = maps.computeIfAbsent(mapId, id -> {
+                System.out.println("Creating new map with ID: " + id);
+                MapInstance created = obtainMap(id, AssetRegistry.theme(id));
+                ShootingGameServer.tickScheduler.register(created);
+                return created;
+            });
+
+            synchronized (map) {
+                // 그사이 마지막 플레이어가 나가 삭제된 맵(정리되어 재사용될 수 있음)이면 다시 찾는다
+                if (maps.get(mapId) != map) continue;
+
+                // 기존에 동일한 ID의 플레이어가 있으면 삭제
+                map.getPlayers().remove(player.getId());
+
+                if (!map.canAddPlayer()) {
+                    throw new IllegalStateException("Map is full: " + mapId);
+                }
+
+                map.addPlayer(player);
+            }
+
+            return map;
+        }
+    }
+
+    // 매치메이킹용 새 방 생성 및 틱 스케줄러에 등록 (ID는 호출한 쪽이 고유하게 만든다)
+    public MapInstance createMap(String mapId, AssetRegistry.Theme theme) {
+        MapInstance map = obtainMap(mapId, theme);
+        if (maps.putIfAbsent(mapId, map) != null) {
+            recycle(map);
+            throw new IllegalStateException("Map already exists: " + mapId);
+        }
+        ShootingGameServer.tickScheduler.register(map);
+        return map;
+    }
+
+    // 맵 삭제 및 틱 스케줄러에서 제거 (마지막 틱이 끝난 뒤 정리되어 풀로 돌아간다)
+    public boolean removeMap(MapInstance map) {
+        if (maps.remove(map.getMapId(), map)) {
+            map.end();
+            endedMaps.incrementAndGet();
+            ShootingGameServer.tickScheduler.unregister(map, () -> {
+                endedMaps.decrementAndGet();
+                recycle(map);
+            });
+            return true;
+        }
+        return false;
+    }
+
+    // 풀에 정리된 맵이 있으면 다시 쓰고, 없으면 새로 만든다
+    private MapInstance obtainMap(String mapId, AssetRegistry.Theme theme) {
+        MapInstance map = pool.poll();
+        if (map != null) {
+            pooled.decrementAndGet();
+            reusedMaps.incrementAndGet();
+            map.reuse(mapId, theme);
+            return map;
+        }
+        createdMaps.incrementAndGet();
+        return new MapInstance(mapId, theme);
+    }
+
+    // 더 이상 틱이 돌지 않는 맵을 정리하고, 풀에 여유가 있으면 재사용하도록 넣는다 (넘치면 GC에 맡김)
+    private void recycle(MapInstance map) {
+        map.recycle();
+        recycledMaps.incrementAndGet();
+        if (pooled.incrementAndGet() <= ServerConfig.MAP_POOL_SIZE) {
+            pool.add(map);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    public int getEndedMaps() {
+        return endedMaps.get();
+    }
+
+    public int getPooledMaps() {
+        return pooled.get();
+    }
+
+    public long getCreatedMaps() {
+        return createdMaps.get();
+    }
+
+    public long getReusedMaps() {
+        return reusedMaps.get();
+    }
+
+    public long getRecycledMaps() {
+        return recycledMaps.get();
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 테마별 매치메이킹: 클라이언트가 고른 테마(Map1/Map2/Map3)는 방 이름이 아니라 대기열 이름이다.
+// 먼저 온 플레이어는 고유 ID(<테마>#<번호>)의 새 방에 들어가 그 테마의 대기열에 방을 올려 두고,
+// 다음 플레이어가 대기열에서 방을 꺼내 들어가면 두 명이 되어 게임이 시작된다.
+// 방 수에 제한이 없으므로 동시 대전 수는 테마 수가 아니라 틱 샤드(CPU)와 연결 수 상한으로 정해진다.
+// 대기열은 lock-free 큐이고, 꺼낸 방에 들어가는 순간만 그 방의 락으로 기다리던 플레이어가 아직 있는지 확인한다.
+public class Matchmaker {
+    private final MapManager mapManager;
+    private final Map<String, Queue<WaitingRoom>> waiting = new ConcurrentHashMap<>(); // 테마 -> 상대를 기다리는 방
+    private final AtomicLong roomIds = new AtomicLong(); // 방 ID 번호 (모든 테마 공용)
+
+    public Matchmaker(MapManager mapManager) {
+        this.mapManager = mapManager;
+    }
+
+    // 기다리는 방이 있으면 그 방에, 없으면 새 방을 만들어 배정
+    public MapInstance join(Player player, String theme) {
+        Queue<WaitingRoom> queue = waiting.computeIfAbsent(theme, t -> new ConcurrentLinkedQueue<>());
+
+        WaitingRoom room;
+        while ((room = queue.poll()) != null) {
+            synchronized (room.map) {
+                // 기다리던 플레이어가 나가서 빈 방(이미 삭제되었거나 정리되어 다른 방으로 재사용됨)은 버리고 다음 방을 본다
+                if (!room.isCurrent() || room.map.getPlayers().size() != 1 || room.map.isGameStarted()) continue;
+                room.map.addPlayer(player);
+            }
+            ShootingGameServer.metrics.matchMade(theme, System.nanoTime() - room.openedAt);
+            System.out.println("Matched player " + player.getId() + " into " + room.map.getMapId());
+            return room.map;
+        }
+
+        MapInstance map = mapManager.createMap(theme + "#" + roomIds.incrementAndGet(), AssetRegistry.theme(theme));
+        synchronized (map) {
+            map.addPlayer(player);
+        }
+        queue.add(new WaitingRoom(map, map.getGeneration(), System.nanoTime())); // 플레이어가 들어간 뒤에 공개
+        return map;
+    }
+
+    // 한 번이라도 매치메이킹을 요청받은 테마
+    public Set<String> getThemes() {
+        return waiting.keySet();
+    }
+
+    // 상대를 기다리는 플레이어 수 (지표용, 나간 플레이어의 방은 세지 않는다)
+    public int getWaitingPlayers(String theme) {
+        Queue<WaitingRoom> queue = waiting.get(theme);
+        if (queue == null) return 0;
+        int count = 0;
+        for (WaitingRoom room : queue) {
+            if (room.isCurrent() && !room.map.isGameStarted() && !room.map.getPlayers().isEmpty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getWaitingPlayers() {
+        int count = 0;
+        for (String theme : waiting.keySet()) {
+            count += getWaitingPlayers(theme);
+        }
+        return count;
+    }
+
+    // 대기열에 올린 방과 올린 시각 (대기 시간 측정용)
+    private static final class WaitingRoom {
+        final MapInstance map;
+        final int generation; // 올릴 때의 맵 재사용 횟수
+        final long openedAt;
+
+        WaitingRoom(MapInstance map, int generation, long openedAt) {
+            this.map = map;
+            this.generation = generation;
+            this.openedAt = openedAt;
+        }
+
+        // 맵 풀에서 다른 방으로 재사용되지 않았는지
+        boolean isCurrent() {
+            return map.getGeneration() == generation;
+        }
+    }
+}
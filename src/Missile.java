@@ -1,4 +1,5 @@
 public class Missile {
+    private int id; // 맵 안에서 고유한 엔티티 ID
     private String ownerId;
     private int x, y;
 
@@ -8,10 +9,22 @@ public class Missile {
         this.y = y;
     }
 
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public String getOwnerId() {
         return ownerId;
     }
 
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+
     public int getX() {
         return x;
     }
@@ -20,6 +33,10 @@ public class Missile {
         return y;
     }
 
+    public void setX(int x) {
+        this.x = x;
+    }
+
     public void setY(int y) {
         this.y = y;
     }
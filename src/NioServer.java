@@ -0,0 +1,412 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// NIO 셀렉터 기반 네트워크 엔진
+// accept 스레드 하나와 소수의 이벤트 루프 스레드가 모든 연결의 읽기/쓰기를 논블로킹으로 처리한다.
+public class NioServer {
+    private static final int MAX_GATHER = 64; // 쓰기 한 번에 모아 보낼 최대 프레임 수
+    private final int port;
+    private final NioEventLoop[] loops;
+    private final ConnectionLimiter limiter;
+    private int nextLoop = 0;
+
+    public NioServer(int port, int loopCount, ConnectionLimiter limiter) throws IOException {
+        this.port = port;
+        this.limiter = limiter;
+        this.loops = new NioEventLoop[loopCount];
+        for (int i = 0; i < loopCount; i++) {
+            loops[i] = new NioEventLoop(i);
+        }
+    }
+
+    // 이벤트 루프 시작 후 현재 스레드에서 accept 루프 실행
+    public void run() throws IOException {
+        for (NioEventLoop loop : loops) {
+            loop.start();
+        }
+
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(port), ServerConfig.ACCEPT_BACKLOG);
+            System.out.println("NIO engine listening with " + loops.length + " event loop(s)"
+                    + ", max connections: " + limiter.getMaxConnections());
+
+            while (true) {
+                SocketChannel channel = serverChannel.accept(); // accept는 블로킹으로 처리
+
+                // 연결 수 제한을 넘으면 바로 거절
+                if (!limiter.tryAcquire()) {
+                    reject(channel);
+                    continue;
+                }
+
+                // 설정 전에 상대가 연결을 끊었으면 이 연결만 정리하고 accept 루프는 계속
+                try {
+                    channel.configureBlocking(false);
+                    channel.socket().setTcpNoDelay(true);
+                } catch (IOException e) {
+                    System.err.println("Failed to set up accepted connection: " + e.getMessage());
+                    closeQuietly(channel);
+                    limiter.release();
+                    continue;
+                }
+
+                // 이벤트 루프에 순서대로 배정
+                NioEventLoop loop = loops[nextLoop];
+                nextLoop = (nextLoop + 1) % loops.length;
+                loop.register(channel);
+            }
+        }
+    }
+
+    // 연결 수 초과 시 거절 메시지 전송 후 종료 (블로킹 채널이므로 다 쓴 뒤 FIN을 보내고 정상적으로 닫는다)
+    private void reject(SocketChannel channel) {
+        try (channel) {
+            channel.write(ByteBuffer.wrap("SERVERFULL\n".getBytes(StandardCharsets.UTF_8)));
+            channel.shutdownOutput();
+        } catch (IOException e) {
+            // 거절 대상 연결이므로 오류는 무시
+        }
+        long rejected = limiter.getRejected();
+        if (rejected == 1 || rejected % 1000 == 0) {
+            System.err.println("Connection rejected: " + limiter);
+        }
+    }
+
+    // 셀렉터 하나로 여러 연결을 처리하는 이벤트 루프 스레드
+    class NioEventLoop implements Runnable {
+        private final int id;
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>(); // 다른 스레드에서 요청한 작업
+        private final AtomicBoolean wakeupPending = new AtomicBoolean();
+
+        NioEventLoop(int id) throws IOException {
+            this.id = id;
+            this.selector = Selector.open();
+        }
+
+        void start() {
+            Thread thread = new Thread(this, "nio-loop-" + id);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void register(SocketChannel channel) {
+            execute(() -> {
+                try {
+                    SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                    NioConnection connection = new NioConnection(this, channel, key);
+                    key.attach(connection);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    closeQuietly(channel);
+                    limiter.release();
+                }
+            });
+        }
+
+        // 이벤트 루프 스레드에서 작업 실행 요청
+        void execute(Runnable task) {
+            tasks.add(task);
+            if (wakeupPending.compareAndSet(false, true)) {
+                selector.wakeup();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select();
+                    wakeupPending.set(false);
+                    runTasks();
+
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        NioConnection connection = (NioConnection) key.attachment();
+                        if (connection == null || !key.isValid()) continue;
+
+                        if (key.isReadable()) {
+                            connection.onReadable();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        private void runTasks() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // NIO 채널 하나에 대한 연결 (읽기 버퍼, 쓰기 대기열, 텍스트 줄/바이너리 프레임 분리)
+    // 틱 안에서 보낸 프레임은 틱이 끝날 때(WriteBatch) 쓰기를 요청해, 쌓인 프레임을 모아 쓰기 한 번으로 보낸다.
+    class NioConnection implements ClientConnection, WriteBatch.Target {
+        private final NioEventLoop loop;
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ClientSession session;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(ServerConfig.MAX_FRAME_BYTES);
+        private final BinaryProtocol.Reader binaryReader = new BinaryProtocol.Reader();
+        private final OutboundQueue outbound = new OutboundQueue(ServerConfig.OUTBOUND_MAX_BYTES, ServerConfig.OUTBOUND_MAX_LAG_MILLIS);
+        private final ByteBuffer[] writing = new ByteBuffer[MAX_GATHER]; // 보내는 중인 프레임 (이벤트 루프 스레드 전용)
+        private int writingStart = 0;
+        private int writingCount = 0;
+        private final AtomicBoolean writeScheduled = new AtomicBoolean();
+        private volatile boolean closed = false;
+
+        NioConnection(NioEventLoop loop, SocketChannel channel, SelectionKey key) {
+            this.loop = loop;
+            this.channel = channel;
+            this.key = key;
+            this.session = new ClientSession(this);
+        }
+
+        // 어느 스레드에서든 호출 가능: 프레임을 대기열에 넣고 이벤트 루프에 쓰기 요청
+        @Override
+        public void send(String message) {
+            enqueueText(message, false);
+        }
+
+        @Override
+        public void sendBinary(byte[] data, int offset, int length) {
+            enqueueBinary(data, offset, length, false);
+        }
+
+        @Override
+        public void sendSnapshot(String message) {
+            enqueueText(message, true);
+        }
+
+        @Override
+        public void sendSnapshotBinary(byte[] data, int offset, int length) {
+            enqueueBinary(data, offset, length, true);
+        }
+
+        private void enqueueText(String message, boolean snapshot) {
+            if (closed) return;
+
+            ByteBuffer frame = BufferPool.encodeLine(message.getBytes(StandardCharsets.UTF_8));
+            ShootingGameServer.metrics.outboundText(message, frame.remaining());
+            enqueue(frame, snapshot);
+        }
+
+        private void enqueueBinary(byte[] data, int offset, int length, boolean snapshot) {
+            if (closed) return;
+
+            ShootingGameServer.metrics.outboundBinary(data, offset, length);
+            enqueue(BufferPool.copyOf(data, offset, length), snapshot);
+        }
+
+        private void enqueue(ByteBuffer frame, boolean snapshot) {
+            int result = outbound.offer(frame, snapshot);
+            if (result != OutboundQueue.ACCEPTED) {
+                System.err.println("Slow client (" + OutboundQueue.describe(result) + "), closing connection: " + describe());
+                close();
+                return;
+            }
+            if (!WriteBatch.defer(this)) {
+                flushBatch();
+            }
+        }
+
+        // 이벤트 루프에 쓰기 요청 (이미 요청되었거나 OP_WRITE 대기 중이면 생략)
+        @Override
+        public void flushBatch() {
+            if (writeScheduled.compareAndSet(false, true)) {
+                loop.execute(this::flush);
+            }
+        }
+
+        @Override
+        public void close() {
+            loop.execute(this::closeNow);
+        }
+
+        // 읽을 수 있는 데이터가 있을 때 (이벤트 루프 스레드)
+        void onReadable() {
+            int read;
+            try {
+                read = channel.read(readBuffer);
+            } catch (IOException e) {
+                closeNow();
+                return;
+            }
+            if (read < 0) {
+                closeNow();
+                return;
+            }
+
+            // 텍스트 줄 또는 바이너리 프레임 단위로 분리 후 명령 처리
+            readBuffer.flip();
+            while (readBuffer.hasRemaining()) {
+                int start = readBuffer.position();
+                int first = readBuffer.get(start) & 0xFF;
+                int next = BinaryProtocol.isFrameType(first) ? decodeBinaryFrame(first, start) : decodeTextFrame(start);
+                if (next < 0) break; // 프레임이 아직 다 도착하지 않음
+                if (closed) return;
+                readBuffer.position(next);
+            }
+            readBuffer.compact();
+
+            // 버퍼가 가득 찼는데 프레임이 완성되지 않으면 비정상 프레임
+            if (!readBuffer.hasRemaining()) {
+                System.err.println("Frame too long, closing connection: " + describe());
+                closeNow();
+            }
+        }
+
+        // 개행까지 한 줄 처리 후 다음 프레임 위치 반환 (미완성이면 -1)
+        private int decodeTextFrame(int start) {
+            for (int i = start; i < readBuffer.limit(); i++) {
+                if (readBuffer.get(i) != '\n') continue;
+
+                int end = i > start && readBuffer.get(i - 1) == '\r' ? i - 1 : i;
+                dispatch(new String(readBuffer.array(), start, end - start, StandardCharsets.UTF_8));
+                return i + 1;
+            }
+            return -1;
+        }
+
+        // [타입][varint 길이][payload] 프레임 처리 후 다음 프레임 위치 반환 (미완성이면 -1)
+        private int decodeBinaryFrame(int type, int start) {
+            int pos = start + 1;
+            int length = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (pos >= readBuffer.limit()) return -1;
+                if (shift >= 35) {
+                    closeNow(); // 잘못된 길이 필드
+                    return -1;
+                }
+                int b = readBuffer.get(pos++);
+                length |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) break;
+            }
+            if (length < 0) { // varint가 음수로 넘침 (그대로 두면 다음 프레임 위치가 뒤로 간다)
+                System.err.println("Invalid frame length, closing connection: " + describe());
+                closeNow();
+                return -1;
+            }
+            if (length > readBuffer.capacity() - (pos - start)) {
+                System.err.println("Frame too long, closing connection: " + describe());
+                closeNow();
+                return -1;
+            }
+            if (readBuffer.limit() - pos < length) return -1;
+
+            binaryReader.reset(readBuffer.array(), pos, length);
+            try {
+                session.onBinary(type, binaryReader);
+            } catch (RuntimeException e) {
+                System.err.println("Invalid binary frame from " + describe() + ": type " + type);
+                e.printStackTrace();
+                closeNow();
+            }
+            return pos + length;
+        }
+
+        private void dispatch(String frame) {
+            if (frame.isEmpty()) return;
+            try {
+                session.handleMessage(frame);
+            } catch (RuntimeException e) {
+                // 잘못된 명령은 블로킹 엔진과 동일하게 연결 종료로 처리
+                System.err.println("Invalid frame from " + describe() + ": " + frame);
+                e.printStackTrace();
+                closeNow();
+            }
+        }
+
+        // 대기 중인 프레임을 모아 쓰기로 가능한 만큼 전송 (이벤트 루프 스레드)
+        void flush() {
+            if (closed) return;
+            try {
+                while (true) {
+                    if (writingCount == 0) {
+                        writingStart = 0;
+                        writingCount = outbound.drainTo(writing);
+                    }
+                    while (writingCount > 0) {
+                        long written = channel.write(writing, writingStart, writingCount);
+                        ShootingGameServer.metrics.socketWrite(writingCount, written);
+                        while (writingCount > 0 && !writing[writingStart].hasRemaining()) {
+                            BufferPool.release(writing[writingStart]);
+                            writing[writingStart++] = null;
+                            writingCount--;
+                        }
+                        if (writingCount > 0) {
+                            // 소켓 송신 버퍼가 가득 참: 쓰기 가능해질 때까지 대기
+                            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                            return;
+                        }
+                        writingStart = 0;
+                        writingCount = outbound.drainTo(writing);
+                    }
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                    writeScheduled.set(false);
+
+                    // 플래그를 내리는 사이에 새 프레임이 들어온 경우 다시 전송
+                    if (outbound.isEmpty() || !writeScheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } catch (IOException | CancelledKeyException e) {
+                closeNow();
+            }
+        }
+
+        private void closeNow() {
+            if (closed) return;
+            closed = true;
+            key.cancel();
+            closeQuietly(channel);
+            outbound.close();
+            for (int i = writingStart; i < writingStart + writingCount; i++) {
+                BufferPool.release(writing[i]);
+                writing[i] = null;
+            }
+            writingCount = 0;
+            try {
+                session.handleDisconnect();
+            } finally {
+                limiter.release(); // 연결 슬롯 반환
+            }
+        }
+
+        private String describe() {
+            try {
+                return String.valueOf(channel.getRemoteAddress());
+            } catch (IOException e) {
+                return "unknown";
+            }
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // 이미 닫힌 채널
+        }
+    }
+}
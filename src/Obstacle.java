@@ -1,10 +1,6 @@
-import javax.swing.*;
-import java.awt.*;
-import java.io.IOException;
-
 public class Obstacle {
+    private int id; // 맵 안에서 고유한 엔티티 ID
     private int x, y, width, height;
-    private Image image; // 장애물 이미지를 저장할 변수
     private boolean movingRight; // 장애물의 현재 이동 방향 (true: 오른쪽, false: 왼쪽)
     private String imagePath; // 이미지 경로 추가
 
@@ -13,30 +9,25 @@ public class Obstacle {
         this.y = y;
         this.width = width;
         this.height = height;
-        this.image = new ImageIcon("images/obstacle.png").getImage(); // 이미지 로드
         this.movingRight = movingRight;
     }
 
+    // 이미지는 클라이언트가 그릴 때 SpriteCache에서 경로로 찾는다
     public void setImagePath(String imagePath) {
         this.imagePath = imagePath;
-        try {
-            this.image = new ImageIcon(imagePath).getImage();
-            if (this.image == null) {
-                throw new IOException("Image not found: " + imagePath);
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to load obstacle image: " + imagePath);
-            e.printStackTrace();
-        }
     }
 
 
-    public String getImagePath() {
-        return imagePath;
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
     }
 
-    public void setImage(String imagePath) {
-        this.image = new ImageIcon(imagePath).getImage();
+    public String getImagePath() {
+        return imagePath;
     }
 
     public int getX() {
@@ -55,10 +46,6 @@ public class Obstacle {
         return height;
     }
 
-    public Image getImage() {
-        return image;
-    }
-
     public void setX(int x) {
         this.x = x;
     }
@@ -66,6 +53,14 @@ public class Obstacle {
     public void setY(int y) {
         this.y = y;
     }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
     public boolean isMovingRight() {
         return movingRight;
     }
@@ -1,96 +1,80 @@
-import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ObstacleManager {
-    private List<Obstacle> obstacles = new CopyOnWriteArrayList<>(); // 스레드 안전한 리스트
+    public static final int OBSTACLE_SIZE = 50;
+
+    private final EntityStore obstacles = new EntityStore(16); // 장애물 (틱 스레드에서만 접근)
     private final int serverWidth;
     private final int serverHeight;
-    private boolean running = true; // 스레드 종료 플래그
-    private String obstacleImagePath; // 맵별 장애물 이미지 경로
+    private final Random random;
+    private final AtomicInteger entityIds; // 맵 공용 엔티티 ID 발급기
+    private int obstacleAsset; // 맵별 장애물 이미지 에셋 ID
+
+    // 생성 주기 (틱 단위, 50ms 틱 기준 2초)
+    private static final int SPAWN_INTERVAL_TICKS = (int) Math.max(1, 2000 / ServerConfig.TICK_MILLIS);
+    private final TimingWheel timers; // 맵의 타이밍 휠 (생성 일정)
+    private final Runnable spawnTask = this::spawnAndReschedule;
+    private TimingWheel.Timeout spawnTimer;
 
-    public ObstacleManager(int serverWidth, int serverHeight) {
+    public ObstacleManager(int serverWidth, int serverHeight, Random random, AtomicInteger entityIds, TimingWheel timers) {
         this.serverWidth = serverWidth;
         this.serverHeight = serverHeight;
+        this.random = random;
+        this.entityIds = entityIds;
+        this.timers = timers;
+        scheduleSpawn(0); // 게임 시작 첫 틱에 바로 생성
     }
 
-    public void setObstacleImagePath(String obstacleImagePath) {
-        this.obstacleImagePath = obstacleImagePath;
+    public void setObstacleAsset(int obstacleAsset) {
+        this.obstacleAsset = obstacleAsset;
     }
 
-    public List<Obstacle> getObstacles() {
+    public EntityStore getObstacles() {
         return obstacles;
     }
 
-    public void stop() {
-        running = false;
-    }
-
     // 장애물 초기화 메서드
     public void resetObstacles() {
         obstacles.clear(); // 기존 장애물 목록 초기화
+        scheduleSpawn(0);
     }
 
+    // 맵 틱마다 호출: 장애물 이동 (생성은 타이밍 휠이 먼저 실행)
+    public void update() {
+        updateObstacles();
+    }
 
-    // 장애물 생성 스레드
-    public void startSpawnThread() {
-        new Thread(() -> {
-            Random random = new Random();
-            while (true) { // 임의의 조건으로 루프
-                try {
-                    // 장애물 생성
-                    spawnObstacle(random);
-                    Thread.sleep(2000); // 2초마다 생성
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
-        }).start();
+    private void scheduleSpawn(int delayTicks) {
+        if (spawnTimer != null) {
+            spawnTimer.cancel();
+        }
+        spawnTimer = timers.schedule(delayTicks, spawnTask);
     }
 
-    // 장애물 움직임 스레드
-    public void startMoveThread() {
-        new Thread(() -> {
-            while (running) {
-                try {
-                    updateObstacles();
-                    Thread.sleep(50); // 50ms마다 장애물 이동
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    Thread.currentThread().interrupt(); // 스레드 상태 복구
-                }
-            }
-        }).start();
+    private void spawnAndReschedule() {
+        spawnObstacle(random);
+        spawnTimer = timers.schedule(SPAWN_INTERVAL_TICKS, spawnTask); // 2초마다 생성
     }
 
     private void spawnObstacle(Random random) {
-        int x = random.nextBoolean() ? 0 : serverWidth - 50; // 좌우 랜덤
+        int x = random.nextBoolean() ? 0 : serverWidth - OBSTACLE_SIZE; // 좌우 랜덤
         int y = random.nextInt(serverHeight); // y 위치 랜덤
-        boolean moveRight = x == 0; // 이동 방향 결정
+        int direction = x == 0 ? 1 : -1; // 이동 방향 결정
 
-        // 장애물 생성 및 이미지 설정
-        Obstacle obstacle = new Obstacle(x, y, 50, 50, moveRight);
-        obstacle.setImagePath(obstacleImagePath); // 맵의 이미지 경로 사용
-        obstacles.add(obstacle); // 장애물을 리스트에 추가
+        // 장애물 생성 (type 열에 이미지 에셋 ID 저장, 이미지 로드 없음)
+        obstacles.add(entityIds.incrementAndGet(), x, y, OBSTACLE_SIZE, OBSTACLE_SIZE, direction, EntityStore.NO_OWNER, obstacleAsset);
     }
 
+    // 한 틱 동안 장애물 이동 (틱당 5px)
     private void updateObstacles() {
-        List<Obstacle> toRemove = new ArrayList<>(); // 제거할 장애물 리스트
-
-        for (Obstacle obstacle : obstacles) {
-            if (obstacle.isMovingRight()) {
-                obstacle.setX(obstacle.getX() + 5); // 오른쪽으로 이동
-                if (obstacle.getX() + obstacle.getWidth() >= serverWidth) {
-                    toRemove.add(obstacle); // 오른쪽 끝까지 이동하면 제거
-                }
-            } else {
-                obstacle.setX(obstacle.getX() - 5); // 왼쪽으로 이동
-                if (obstacle.getX() <= 0) {
-                    toRemove.add(obstacle); // 왼쪽 끝까지 이동하면 제거
-                }
+        // 역순으로 돌면서 끝에 도달한 장애물은 바로 제거
+        for (int i = obstacles.size() - 1; i >= 0; i--) {
+            int x = obstacles.x(i) + 5 * obstacles.direction(i);
+            obstacles.setX(i, x);
+            if (obstacles.direction(i) > 0 ? x + obstacles.width(i) >= serverWidth : x <= 0) {
+                obstacles.removeAt(i); // 끝까지 이동하면 제거
             }
         }
-
-        // 제거
-        obstacles.removeAll(toRemove);
     }
 }
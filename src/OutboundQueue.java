@@ -0,0 +1,146 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+// 연결 하나의 송신 대기열 (여러 스레드가 넣고, 연결의 쓰기 담당 하나만 꺼낸다)
+// 틱 스레드는 소켓에 직접 쓰지 않고 여기에 넣기만 하므로 느린 클라이언트가 틱을 막지 않는다.
+// 게임 상태 스냅샷은 아직 보내지 못한 이전 스냅샷을 빼고 새 것을 넣어 최신 하나만 남기고,
+// 제어 메시지(SETTINGS, GAMESTART, VICTORY, DEFEAT 등)와 문자열 등록 프레임은 버리지 않는다.
+// 용량을 넘기거나 오랫동안 진행이 없으면 offer가 실패하고, 호출한 쪽이 연결을 끊는다.
+// 프레임은 BufferPool의 버퍼이며, 꺼내 간 프레임은 쓰기 담당이, 버린 프레임은 대기열이 반납한다.
+public class OutboundQueue {
+    public static final int ACCEPTED = 0;
+    public static final int OVERFLOW = 1; // 대기 바이트 상한 초과
+    public static final int LAGGING = 2; // 지연 상한 동안 하나도 보내지 못함
+
+    private final int maxBytes;
+    private final long maxLagNanos;
+    private final ArrayDeque<ByteBuffer> frames = new ArrayDeque<>();
+    private ByteBuffer pendingSnapshot; // 대기열 안의 아직 보내지 않은 스냅샷 (새 스냅샷이 오면 대체)
+    private int bytes = 0;
+    private long waitingSince = 0; // 대기열이 찬 뒤 마지막으로 꺼내 간 시각
+    private boolean flushRequested = false; // 쓰기 스레드를 깨울지 (WriteBatch로 틱 끝까지 미룰 수 있음)
+    private boolean closed = false;
+
+    public OutboundQueue(int maxBytes, long maxLagMillis) {
+        this.maxBytes = maxBytes;
+        this.maxLagNanos = maxLagMillis * 1_000_000L;
+    }
+
+    // 프레임 추가 (snapshot이면 대기 중인 이전 스냅샷을 대체), 실패하면 OVERFLOW 또는 LAGGING
+    // 실패하거나 닫힌 경우 frame은 여기서 반납한다.
+    public synchronized int offer(ByteBuffer frame, boolean snapshot) {
+        if (closed) {
+            BufferPool.release(frame); // 닫힌 연결: 조용히 버림
+            return ACCEPTED;
+        }
+
+        long now = System.nanoTime();
+        if (frames.isEmpty()) {
+            waitingSince = now;
+        } else if (now - waitingSince > maxLagNanos) {
+            ShootingGameServer.metrics.outboundEvicted(LAGGING);
+            BufferPool.release(frame);
+            return LAGGING;
+        }
+
+        boolean replace = snapshot && pendingSnapshot != null;
+        if (bytes - (replace ? pendingSnapshot.remaining() : 0) + frame.remaining() > maxBytes) {
+            ShootingGameServer.metrics.outboundEvicted(OVERFLOW);
+            BufferPool.release(frame);
+            return OVERFLOW;
+        }
+        if (replace) {
+            replacePending(frame);
+            return ACCEPTED;
+        }
+        frames.add(frame);
+        bytes += frame.remaining();
+        ShootingGameServer.metrics.outboundQueued(1, frame.remaining());
+        if (snapshot) {
+            pendingSnapshot = frame;
+        }
+        return ACCEPTED;
+    }
+
+    // 쌓인 프레임을 보내도록 블로킹 쓰기 스레드를 깨운다
+    public synchronized void requestFlush() {
+        flushRequested = true;
+        notifyAll();
+    }
+
+    // 보낼 프레임을 dst 앞부분에 차례로 꺼내고 개수 반환 (모아 쓰기용)
+    public synchronized int drainTo(ByteBuffer[] dst) {
+        int count = 0;
+        int drainedBytes = 0;
+        ByteBuffer frame;
+        while (count < dst.length && (frame = frames.poll()) != null) {
+            if (frame == pendingSnapshot) {
+                pendingSnapshot = null;
+            }
+            drainedBytes += frame.remaining();
+            dst[count++] = frame;
+        }
+        if (count > 0) {
+            bytes -= drainedBytes;
+            waitingSince = System.nanoTime();
+            ShootingGameServer.metrics.outboundQueued(-count, -drainedBytes);
+        }
+        return count;
+    }
+
+    // 쓰기 요청이 올 때까지 기다렸다가 drainTo (닫히면 -1, 블로킹 쓰기 스레드용)
+    public synchronized int take(ByteBuffer[] dst) throws InterruptedException {
+        while ((frames.isEmpty() || !flushRequested) && !closed) {
+            wait();
+        }
+        if (closed) return -1;
+        int count = drainTo(dst);
+        if (frames.isEmpty()) {
+            flushRequested = false;
+        }
+        return count;
+    }
+
+    // offer 실패 사유 (로그용)
+    public static String describe(int result) {
+        return result == OVERFLOW ? "send queue full" : result == LAGGING ? "send queue stalled" : "accepted";
+    }
+
+    public synchronized boolean isEmpty() {
+        return frames.isEmpty();
+    }
+
+    // 남은 프레임을 버리고 대기 중인 쓰기 스레드를 깨운다
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        ShootingGameServer.metrics.outboundQueued(-frames.size(), -bytes);
+        for (ByteBuffer frame : frames) {
+            BufferPool.release(frame);
+        }
+        frames.clear();
+        pendingSnapshot = null;
+        bytes = 0;
+        notifyAll();
+    }
+
+    // 이전 스냅샷을 빼고 새 스냅샷을 맨 뒤에 넣는다 (새 스냅샷이 참조하는 문자열 등록 프레임은 이미 그 앞에 있다)
+    private void replacePending(ByteBuffer frame) {
+        // ByteBuffer.equals는 내용 비교이므로 같은 객체를 직접 찾는다 (대체할 스냅샷은 보통 맨 뒤 근처)
+        Iterator<ByteBuffer> it = frames.descendingIterator();
+        while (it.hasNext()) {
+            if (it.next() == pendingSnapshot) {
+                it.remove();
+                break;
+            }
+        }
+        int delta = frame.remaining() - pendingSnapshot.remaining();
+        BufferPool.release(pendingSnapshot);
+        frames.add(frame);
+        bytes += delta;
+        pendingSnapshot = frame;
+        ShootingGameServer.metrics.outboundQueued(0, delta);
+        ShootingGameServer.metrics.snapshotDropped();
+    }
+}
@@ -1,13 +1,18 @@
-import java.io.PrintWriter;
-
 public class Player {
     private String id;
     private int x, y, health;
-    private PrintWriter out;
-    private MapInstance assignedMap; // 플레이어가 할당된 맵
+    private ClientConnection connection; // 서버에서 이 플레이어에게 메시지를 보내는 연결
+    private volatile SnapshotStream snapshotStream; // 게임 상태 수신 형식과 진행 상황 (SETTINGS를 보낸 뒤 설정)
+    private int slot; // 맵 안의 자리 (0: 정규 좌표 기준, 1: 대칭 시점)
+    private volatile MapInstance assignedMap; // 플레이어가 할당된 맵 (맵이 정리되면 null)
     private String imagePath; // 플레이어 이미지 경로
     private boolean isReady = false; // 준비 상태 추가
     private boolean doubleMissileEnabled = false; // 더블 미사일 상태 변수 추가
+    // 아이템 종류별 효과 만료 타이머와 무기 쿨다운 (맵의 타이밍 휠, 틱 스레드에서만 접근)
+    private final TimingWheel.Timeout[] effectTimers = new TimingWheel.Timeout[ItemManager.TYPES.length];
+    private TimingWheel.Timeout missileCooldown;
+    private int shotsInCooldown = 0; // 이번 쿨다운 동안 쏜 미사일 수
+    private int lastInputSeq = 0; // 서버가 마지막으로 적용한 이동 입력 seq (클라이언트 예측 보정용)
     public Player(String id, int x, int y, int health, String imagePath) {
         this.id = id;
         this.x = x;
@@ -20,6 +25,30 @@ public class Player {
         this.doubleMissileEnabled = true;
     }
 
+    public TimingWheel.Timeout getEffectTimer(int itemType) {
+        return effectTimers[itemType];
+    }
+
+    public void setEffectTimer(int itemType, TimingWheel.Timeout timer) {
+        effectTimers[itemType] = timer;
+    }
+
+    public TimingWheel.Timeout getMissileCooldown() {
+        return missileCooldown;
+    }
+
+    public void setMissileCooldown(TimingWheel.Timeout missileCooldown) {
+        this.missileCooldown = missileCooldown;
+    }
+
+    public int getShotsInCooldown() {
+        return shotsInCooldown;
+    }
+
+    public void setShotsInCooldown(int shotsInCooldown) {
+        this.shotsInCooldown = shotsInCooldown;
+    }
+
     // 더블 미사일 비활성화
     public void disableDoubleMissile() {
         this.doubleMissileEnabled = false;
@@ -41,6 +70,10 @@ public class Player {
         return id;
     }
 
+    public void setId(String id) {
+        this.id = id;
+    }
+
     public int getX() {
         return x;
     }
@@ -53,16 +86,36 @@ public class Player {
         return health;
     }
 
-    public PrintWriter getOut() {
-        return out;
+    public ClientConnection getConnection() {
+        return connection;
     }
 
     public String getImagePath() {
         return imagePath;
     }
 
-    public void setOut(PrintWriter out) {
-        this.out = out;
+    public void setImagePath(String imagePath) {
+        this.imagePath = imagePath;
+    }
+
+    public void setConnection(ClientConnection connection) {
+        this.connection = connection;
+    }
+
+    public SnapshotStream getSnapshotStream() {
+        return snapshotStream;
+    }
+
+    public void setSnapshotStream(SnapshotStream snapshotStream) {
+        this.snapshotStream = snapshotStream;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
     }
 
     public void setPosition(int x, int y) {
@@ -93,4 +146,12 @@ public class Player {
     public void setDoubleMissileEnabled(boolean doubleMissileEnabled) {
         this.doubleMissileEnabled = doubleMissileEnabled;
     }
+
+    public int getLastInputSeq() {
+        return lastInputSeq;
+    }
+
+    public void setLastInputSeq(int lastInputSeq) {
+        this.lastInputSeq = lastInputSeq;
+    }
 }
@@ -0,0 +1,41 @@
+// 클라이언트 입력 한 건 (연결 스레드에서 맵 입력 큐에 넣고, 다음 틱 시작 시 맵 틱 스레드에서 적용)
+public class PlayerCommand {
+    public static final int MOVE = 0;
+    public static final int MISSILE = 1;
+    public static final int INPUT = 2; // 이동 입력 (x: 입력 seq, y: 방향키 비트)
+
+    private final int type;
+    private final Player player;
+    private final int x, y;
+
+    public PlayerCommand(int type, Player player, int x, int y) {
+        this.type = type;
+        this.player = player;
+        this.x = x;
+        this.y = y;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getSeq() {
+        return x;
+    }
+
+    public int getKeys() {
+        return y;
+    }
+}
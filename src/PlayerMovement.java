@@ -0,0 +1,42 @@
+// 플레이어 이동 규칙 (서버 시뮬레이션과 클라이언트 예측이 같은 코드를 쓴다)
+// 좌표는 플레이어 자신의 시점 기준이며, 자기 플레이어는 화면 아래쪽 절반에서만 움직인다.
+public final class PlayerMovement {
+    // 입력 방향키 비트
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int UP = 4;
+    public static final int DOWN = 8;
+    public static final int ALL_KEYS = LEFT | RIGHT | UP | DOWN;
+
+    public static final int SPEED = 10; // 입력 한 번당 이동 거리
+
+    private static final int MIN_X = 0;
+    private static final int MAX_X = ShootingGameServer.SERVER_WIDTH - ShootingGameServer.PLAYER_WIDTH;
+    private static final int MIN_Y = ShootingGameServer.SERVER_HEIGHT / 2;
+    private static final int MAX_Y = ShootingGameServer.SERVER_HEIGHT - ShootingGameServer.PLAYER_HEIGHT;
+
+    private PlayerMovement() {
+    }
+
+    // 입력 한 번 적용 후 위치
+    public static int stepX(int x, int keys) {
+        if ((keys & LEFT) != 0) x -= SPEED;
+        if ((keys & RIGHT) != 0) x += SPEED;
+        return clampX(x);
+    }
+
+    public static int stepY(int y, int keys) {
+        if ((keys & UP) != 0) y -= SPEED;
+        if ((keys & DOWN) != 0) y += SPEED;
+        return clampY(y);
+    }
+
+    // 이동 가능 범위로 제한
+    public static int clampX(int x) {
+        return Math.max(MIN_X, Math.min(MAX_X, x));
+    }
+
+    public static int clampY(int y) {
+        return Math.max(MIN_Y, Math.min(MAX_Y, y));
+    }
+}
@@ -0,0 +1,83 @@
+// 서버 실행 옵션 (-Dshooting.xxx=값 형태의 시스템 프로퍼티로 변경 가능)
+public final class ServerConfig {
+    private ServerConfig() {
+    }
+
+    // 틱 간격 (ms)
+    public static final long TICK_MILLIS = Long.getLong("shooting.tickMillis", 50);
+
+    // 틱 샤드 스레드 수 (기본값: CPU 코어 수)
+    public static final int TICK_SHARDS = Math.max(1,
+            Integer.getInteger("shooting.shards", Runtime.getRuntime().availableProcessors()));
+
+    // 샤드별 틱 시간 로그 출력 간격 (ms, 0이면 출력하지 않음)
+    public static final long SHARD_REPORT_MILLIS = Long.getLong("shooting.shardReportMillis", 10000);
+
+    // 클라이언트 연결 처리 스레드 종류 ("virtual" 또는 "platform")
+    public static final String CONNECTION_THREADS = System.getProperty("shooting.threads", "virtual");
+
+    // 동시에 유지할 수 있는 최대 연결 수
+    public static final int MAX_CONNECTIONS = Integer.getInteger("shooting.maxConnections", 20000);
+
+    // 서버 소켓 accept 대기열 크기
+    public static final int ACCEPT_BACKLOG = Integer.getInteger("shooting.backlog", 1024);
+
+    // 네트워크 엔진 ("blocking": 연결마다 스레드, "nio": 셀렉터 이벤트 루프)
+    public static final String NETWORK_ENGINE = System.getProperty("shooting.engine", "blocking");
+
+    // NIO 엔진의 이벤트 루프 스레드 수
+    public static final int NIO_EVENT_LOOPS = Math.max(1, Integer.getInteger("shooting.nioLoops",
+            Math.min(4, Runtime.getRuntime().availableProcessors())));
+
+    // 연결 하나의 송신 대기열에 쌓일 수 있는 최대 바이트 (초과 시 연결 종료)
+    public static final int OUTBOUND_MAX_BYTES = Integer.getInteger("shooting.outboundMaxBytes", 1 << 20);
+
+    // 송신 대기열이 이 시간(ms) 동안 하나도 보내지 못하면 느린 클라이언트로 보고 연결 종료
+    public static final long OUTBOUND_MAX_LAG_MILLIS = Long.getLong("shooting.outboundMaxLagMillis", 2000);
+
+    // 클라이언트 명령 한 줄의 최대 길이 (바이트)
+    public static final int MAX_FRAME_BYTES = Integer.getInteger("shooting.maxFrameBytes", 4096);
+
+    // 플레이어 한 명이 틱 사이에 맵 입력 큐에 쌓을 수 있는 최대 입력 수 (초과분은 그 플레이어 것만 버림)
+    public static final int MAX_QUEUED_INPUTS = Integer.getInteger("shooting.maxQueuedInputs", 128);
+
+    // 클라이언트 이동 입력(INPUT) 주기 (ms, ShootingGameClient는 16ms 타이머마다 한 번 보낸다)
+    // 서버는 틱마다 플레이어당 틱 간격 / 이 값(올림)만큼만 입력을 적용하므로, 입력을 몰아 보내도 더 빨리 움직이지 않는다.
+    public static final long INPUT_PERIOD_MILLIS = Math.max(1, Long.getLong("shooting.inputPeriodMillis", 16));
+
+    // 끝난 맵을 정리해 재사용하려고 풀에 남겨 둘 최대 개수 (0이면 재사용하지 않음)
+    public static final int MAP_POOL_SIZE = Integer.getInteger("shooting.mapPoolSize", 256);
+
+    // 아이템 생성 간격 (ms)
+    public static final long ITEM_SPAWN_MILLIS = Long.getLong("shooting.itemSpawnMillis", 10000);
+
+    // 서버가 강제하는 미사일 쿨다운 (ms, 쿨다운마다 한 번 발사, 더블 미사일이면 두 발). 0이면 클라이언트 쿨다운(1초)에만 맡김
+    public static final long MISSILE_COOLDOWN_MILLIS = Long.getLong("shooting.missileCooldownMillis", 0);
+
+    // 충돌 판정에 격자(SpatialHash)를 쓰기 시작하는 (미사일 + 장애물 + 아이템) x 플레이어 쌍 수 (이하는 이중 루프)
+    // bench/CollisionBenchmark 측정에서 8192쌍 이상은 모든 조합에서 격자가 빨랐고, 그 아래는 이중 루프가 빠르거나 비슷했다.
+    // 2인 게임의 보통 엔티티 수(수십 개)는 수백 쌍이므로 이중 루프로 판정한다.
+    public static final int COLLISION_GRID_PAIRS = Integer.getInteger("shooting.collisionGridPairs", 8192);
+
+    // 충돌 판정 격자 칸 크기 (픽셀)
+    public static final int COLLISION_CELL_SIZE = Integer.getInteger("shooting.collisionCellSize", 64);
+
+    // 클라이언트가 요청하면 바이너리 프로토콜 사용 허용
+    public static final boolean BINARY_PROTOCOL = Boolean.parseBoolean(System.getProperty("shooting.binary", "true"));
+
+    // 바이너리 프로토콜 클라이언트가 요청하면 delta 스냅샷 사용 허용
+    public static final boolean DELTA_SNAPSHOTS = Boolean.parseBoolean(System.getProperty("shooting.delta", "true"));
+
+    // 송신 프레임용 direct 버퍼 풀에 쉬게 둘 최대 바이트
+    public static final long BUFFER_POOL_BYTES = Long.getLong("shooting.bufferPoolBytes", 32L << 20);
+
+    // 운영 지표 HTTP 엔드포인트 포트 (localhost에서만 접근, 0이면 열지 않음)
+    public static final int METRICS_PORT = Integer.getInteger("shooting.metricsPort", 9400);
+
+    // 운영 지표를 JMX MBean으로도 등록
+    public static final boolean METRICS_JMX = Boolean.parseBoolean(System.getProperty("shooting.metricsJmx", "true"));
+
+    // 절대 좌표 MOVE 명령 허용 (기본은 INPUT 이동 입력만 받아 서버가 직접 이동을 계산)
+    // MOVE는 한 번에 어디로든 순간이동할 수 있으므로 예측을 끈 옛 클라이언트를 받을 때만 켠다.
+    public static final boolean ABSOLUTE_MOVES = Boolean.parseBoolean(System.getProperty("shooting.absoluteMoves", "false"));
+}
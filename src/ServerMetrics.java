@@ -0,0 +1,610 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// 서버 운영 지표: 틱 단계별 시간, 맵/플레이어/엔티티 수, 명령 종류별 송수신량, 연결 수
+// 틱/연결 스레드는 LongAdder와 히스토그램에 기록만 하고, 나머지 값은 수집 요청 시 맵과 스케줄러에서 읽는다.
+// localhost HTTP 엔드포인트(/metrics, Prometheus 텍스트 형식)와 JMX MBean 두 가지로 내보낸다.
+public class ServerMetrics implements ServerMetricsMBean {
+    // 틱 단계 (MapInstance.tick 순서)
+    public static final int PHASE_APPLY_INPUTS = 0;
+    public static final int PHASE_UPDATE_OBSTACLES = 1;
+    public static final int PHASE_UPDATE_ITEMS = 2;
+    public static final int PHASE_UPDATE_MISSILES = 3;
+    public static final int PHASE_CHECK_COLLISIONS = 4;
+    public static final int PHASE_BROADCAST_GAME_STATE = 5;
+    private static final String[] PHASES = {
+            "applyInputs", "updateObstacles", "updateItems", "updateMissiles", "checkCollisions", "broadcastGameState"};
+
+    // 명령/메시지 종류 (목록에 없는 것은 OTHER 하나로 모아 레이블 수를 제한)
+    // 바이너리 프레임은 아래 인덱스로 레이블 배열의 같은 이름에 기록한다 (MAPSELECT, READY는 텍스트로만 온다).
+    private static final int INBOUND_MOVE = 2;
+    private static final int INBOUND_MISSILE = 3;
+    private static final int INBOUND_INPUT = 4;
+    private static final int INBOUND_ACK = 5;
+    private static final int INBOUND_OTHER = 6;
+    private static final String[] INBOUND = {"MAPSELECT", "READY", "MOVE", "MISSILE", "INPUT", "ACK", "OTHER"};
+    private static final String[] OUTBOUND_TEXT = {
+            "GAMESTATE", "SETTINGS", "CONNECTED", "GAMESTART", "WAITING", "VICTORY", "DEFEAT", "MAPFULL", "OTHER"};
+    private static final int OUTBOUND_STRING = 0;
+    private static final int OUTBOUND_GAMESTATE = 1;
+    private static final int OUTBOUND_SNAPSHOT = 2;
+    private static final int OUTBOUND_OTHER = 3;
+    private static final String[] OUTBOUND_BINARY = {"STRING", "GAMESTATE", "SNAPSHOT", "OTHER"};
+    private static final int TEXT = 0;
+    private static final int BINARY = 1;
+    private static final String[] PROTOCOLS = {"text", "binary"};
+    private static final int SLOWEST_MAPS = 10; // JMX로 보여 줄 느린 맵 수
+    // 매치메이킹 대기 시간 구간 상한 (ns): 10ms ~ 60s
+    private static final long[] MATCH_WAIT_BOUNDS = {
+            10_000_000L, 50_000_000L, 100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L, 30_000_000_000L, 60_000_000_000L};
+
+    private final LatencyHistogram[] phaseTimes = new LatencyHistogram[PHASES.length];
+    private final LongAdder[][] inboundMessages = adders(PROTOCOLS.length, INBOUND.length);
+    private final LongAdder[][] inboundBytes = adders(PROTOCOLS.length, INBOUND.length);
+    private final LongAdder[] outboundTextMessages = adders(1, OUTBOUND_TEXT.length)[0];
+    private final LongAdder[] outboundTextBytes = adders(1, OUTBOUND_TEXT.length)[0];
+    private final LongAdder[] outboundBinaryMessages = adders(1, OUTBOUND_BINARY.length)[0];
+    private final LongAdder[] outboundBinaryBytes = adders(1, OUTBOUND_BINARY.length)[0];
+    private final LongAdder finishedGames = new LongAdder();
+    private final LongAdder droppedInputs = new LongAdder();
+    private final LongAdder queuedFrames = new LongAdder(); // 모든 연결의 송신 대기열에 있는 프레임 수
+    private final LongAdder queuedBytes = new LongAdder();
+    private final LongAdder droppedSnapshots = new LongAdder(); // 보내기 전에 새 스냅샷으로 대체된 스냅샷
+    private final LongAdder[] evictions = adders(1, 3)[0]; // OutboundQueue.OVERFLOW, LAGGING 사유별 끊은 연결
+    private final LongAdder socketWrites = new LongAdder(); // 소켓 쓰기 호출(시스템 콜) 수
+    private final LongAdder socketWriteBytes = new LongAdder();
+    private final LongAdder socketWriteFrames = new LongAdder(); // 쓰기 호출에 모아 넘긴 프레임 수
+    private final Map<String, LatencyHistogram> matchWaits = new ConcurrentHashMap<>(); // 테마별 상대를 기다린 시간
+    private HttpServer httpServer;
+
+    public ServerMetrics() {
+        for (int i = 0; i < phaseTimes.length; i++) {
+            phaseTimes[i] = new LatencyHistogram();
+        }
+    }
+
+    // HTTP 엔드포인트(port가 0이면 생략)와 JMX MBean 등록
+    public void start(int port, boolean jmx) {
+        if (port > 0) {
+            try {
+                httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+                httpServer.createContext("/metrics", exchange -> {
+                    byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+                httpServer.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, "metrics-http");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+                httpServer.start();
+                System.out.println("Metrics endpoint: http://localhost:" + port + "/metrics");
+            } catch (IOException e) {
+                // 지표 노출 실패로 게임 서버가 멈추지 않도록 경고만 출력
+                System.err.println("Failed to start metrics endpoint on port " + port + ": " + e);
+            }
+        }
+        if (jmx) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("shooting:type=ServerMetrics"));
+            } catch (JMException e) {
+                System.err.println("Failed to register metrics MBean: " + e);
+            }
+        }
+    }
+
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+        }
+    }
+
+    // 틱 단계 하나의 시간 기록 후 현재 시각 반환 (다음 단계의 시작 시각으로 사용)
+    public long recordPhase(int phase, long startNanos) {
+        long now = System.nanoTime();
+        phaseTimes[phase].record(now - startNanos);
+        return now;
+    }
+
+    public void gameFinished() {
+        finishedGames.increment();
+    }
+
+    public void inputDropped() {
+        droppedInputs.increment();
+    }
+
+    // 송신 대기열 크기 변화 (OutboundQueue)
+    public void outboundQueued(int frames, int bytes) {
+        queuedFrames.add(frames);
+        queuedBytes.add(bytes);
+    }
+
+    public void snapshotDropped() {
+        droppedSnapshots.increment();
+    }
+
+    public void outboundEvicted(int reason) {
+        evictions[reason].increment();
+    }
+
+    // 모아 쓰기 한 번 (frames개 프레임을 한 번의 write 호출로 bytes만큼 보냄)
+    public void socketWrite(int frames, long bytes) {
+        socketWrites.increment();
+        socketWriteFrames.add(frames);
+        socketWriteBytes.add(bytes);
+    }
+
+    // 매치메이킹으로 두 플레이어가 만남 (waitNanos: 먼저 온 플레이어가 기다린 시간)
+    public void matchMade(String theme, long waitNanos) {
+        matchWaits.computeIfAbsent(theme, t -> new LatencyHistogram(MATCH_WAIT_BOUNDS)).record(waitNanos);
+    }
+
+    // 받은 텍스트 명령 한 줄 (bytes는 개행 포함)
+    public void inboundText(String command, int bytes) {
+        int type = INBOUND_OTHER;
+        for (int i = 0; i < INBOUND_OTHER; i++) {
+            if (INBOUND[i].equals(command)) {
+                type = i;
+                break;
+            }
+        }
+        inboundMessages[TEXT][type].increment();
+        inboundBytes[TEXT][type].add(bytes);
+    }
+
+    // 받은 바이너리 프레임 하나 (헤더 포함 바이트 수)
+    public void inboundBinary(int type, int payloadLength) {
+        int command;
+        switch (type) {
+            case BinaryProtocol.FRAME_MOVE:
+                command = INBOUND_MOVE;
+                break;
+            case BinaryProtocol.FRAME_MISSILE:
+                command = INBOUND_MISSILE;
+                break;
+            case BinaryProtocol.FRAME_INPUT:
+                command = INBOUND_INPUT;
+                break;
+            case BinaryProtocol.FRAME_ACK:
+                command = INBOUND_ACK;
+                break;
+            default:
+                command = INBOUND_OTHER;
+        }
+        inboundMessages[BINARY][command].increment();
+        inboundBytes[BINARY][command].add(frameSize(payloadLength));
+    }
+
+    // 보낸 텍스트 메시지 한 줄 (bytes는 개행 포함)
+    public void outboundText(String message, int bytes) {
+        int type = OUTBOUND_TEXT.length - 1;
+        for (int i = 0; i < OUTBOUND_TEXT.length - 1; i++) {
+            String name = OUTBOUND_TEXT[i];
+            if (message.startsWith(name) && (message.length() == name.length() || message.charAt(name.length()) == ' ')) {
+                type = i;
+                break;
+            }
+        }
+        outboundTextMessages[type].increment();
+        outboundTextBytes[type].add(bytes);
+    }
+
+    // 보낸 바이너리 프레임 묶음 (첫 프레임의 타입으로 분류)
+    public void outboundBinary(byte[] data, int offset, int length) {
+        int type;
+        switch (length > 0 ? data[offset] : -1) {
+            case BinaryProtocol.FRAME_STRING:
+                type = OUTBOUND_STRING;
+                break;
+            case BinaryProtocol.FRAME_GAMESTATE:
+                type = OUTBOUND_GAMESTATE;
+                break;
+            case BinaryProtocol.FRAME_SNAPSHOT:
+                type = OUTBOUND_SNAPSHOT;
+                break;
+            default:
+                type = OUTBOUND_OTHER;
+        }
+        outboundBinaryMessages[type].increment();
+        outboundBinaryBytes[type].add(length);
+    }
+
+    // Prometheus 텍스트 형식 (수집 요청마다 새로 계산)
+    @Override
+    public String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        MapCounts maps = countMaps();
+
+        header(out, "shooting_tick_phase_seconds", "histogram", "Map tick time by phase");
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseTimes[i].writePrometheus(out, "shooting_tick_phase_seconds", "phase=\"" + PHASES[i] + "\"");
+        }
+
+        TickScheduler scheduler = ShootingGameServer.tickScheduler;
+        header(out, "shooting_shard_tick_seconds", "histogram", "Tick time of all maps on a shard");
+        for (int shard = 0; shard < scheduler.getShardCount(); shard++) {
+            scheduler.getTickHistogram(shard).writePrometheus(out, "shooting_shard_tick_seconds", "shard=\"" + shard + "\"");
+        }
+        List<TickScheduler.ShardStats> shards = scheduler.getShardStats();
+        header(out, "shooting_tick_overruns_total", "counter", "Shard ticks that exceeded the tick interval");
+        for (TickScheduler.ShardStats stats : shards) {
+            out.append("shooting_tick_overruns_total{shard=\"").append(stats.shardId).append("\"} ").append(stats.overruns).append('\n');
+        }
+        header(out, "shooting_shard_migrations_total", "counter", "Maps moved away from an overloaded shard");
+        for (TickScheduler.ShardStats stats : shards) {
+            out.append("shooting_shard_migrations_total{shard=\"").append(stats.shardId).append("\"} ").append(stats.migrations).append('\n');
+        }
+        header(out, "shooting_shard_maps", "gauge", "Maps assigned to a shard");
+        for (TickScheduler.ShardStats stats : shards) {
+            out.append("shooting_shard_maps{shard=\"").append(stats.shardId).append("\"} ").append(stats.mapCount).append('\n');
+        }
+
+        header(out, "shooting_maps", "gauge", "Maps by state");
+        out.append("shooting_maps{state=\"waiting\"} ").append(maps.waiting).append('\n');
+        out.append("shooting_maps{state=\"running\"} ").append(maps.running).append('\n');
+        out.append("shooting_maps{state=\"over\"} ").append(maps.over).append('\n');
+        counter(out, "shooting_games_finished_total", "Games that ended with a defeat", finishedGames.sum());
+        MapManager mapManager = ShootingGameServer.mapManager;
+        gauge(out, "shooting_map_pool_idle", "Cleaned-up maps waiting to be reused", mapManager.getPooledMaps());
+        counter(out, "shooting_maps_created_total", "Maps allocated because the pool was empty", mapManager.getCreatedMaps());
+        counter(out, "shooting_maps_reused_total", "Maps taken from the pool for a new room", mapManager.getReusedMaps());
+        counter(out, "shooting_maps_recycled_total", "Maps cleaned up after their last tick", mapManager.getRecycledMaps());
+        gauge(out, "shooting_players", "Players assigned to maps", maps.players);
+        header(out, "shooting_entities", "gauge", "Entities across all maps");
+        out.append("shooting_entities{type=\"missile\"} ").append(maps.missiles).append('\n');
+        out.append("shooting_entities{type=\"obstacle\"} ").append(maps.obstacles).append('\n');
+        out.append("shooting_entities{type=\"item\"} ").append(maps.items).append('\n');
+        counter(out, "shooting_dropped_inputs_total", "Inputs dropped because a player exceeded its map input queue share", droppedInputs.sum());
+
+        Matchmaker matchmaker = ShootingGameServer.mapManager.getMatchmaker();
+        header(out, "shooting_matchmaking_waiting_players", "gauge", "Players waiting for an opponent by theme");
+        for (String theme : matchmaker.getThemes()) {
+            out.append("shooting_matchmaking_waiting_players{theme=\"").append(escape(theme)).append("\"} ")
+                    .append(matchmaker.getWaitingPlayers(theme)).append('\n');
+        }
+        header(out, "shooting_matchmaking_wait_seconds", "histogram", "Time the first player of a match waited for an opponent");
+        for (Map.Entry<String, LatencyHistogram> entry : matchWaits.entrySet()) {
+            entry.getValue().writePrometheus(out, "shooting_matchmaking_wait_seconds", "theme=\"" + escape(entry.getKey()) + "\"");
+        }
+
+        header(out, "shooting_inbound_messages_total", "counter", "Client commands received");
+        writeTraffic(out, "shooting_inbound_messages_total", INBOUND, inboundMessages);
+        header(out, "shooting_inbound_bytes_total", "counter", "Client command bytes received");
+        writeTraffic(out, "shooting_inbound_bytes_total", INBOUND, inboundBytes);
+        header(out, "shooting_outbound_messages_total", "counter", "Messages sent to clients");
+        writeTraffic(out, "shooting_outbound_messages_total", OUTBOUND_TEXT, new LongAdder[][]{outboundTextMessages, null});
+        writeTraffic(out, "shooting_outbound_messages_total", OUTBOUND_BINARY, new LongAdder[][]{null, outboundBinaryMessages});
+        header(out, "shooting_outbound_bytes_total", "counter", "Bytes sent to clients");
+        writeTraffic(out, "shooting_outbound_bytes_total", OUTBOUND_TEXT, new LongAdder[][]{outboundTextBytes, null});
+        writeTraffic(out, "shooting_outbound_bytes_total", OUTBOUND_BINARY, new LongAdder[][]{null, outboundBinaryBytes});
+
+        gauge(out, "shooting_outbound_queue_frames", "Frames waiting in connection send queues", queuedFrames.sum());
+        gauge(out, "shooting_outbound_queue_bytes", "Bytes waiting in connection send queues", queuedBytes.sum());
+        counter(out, "shooting_outbound_snapshots_dropped_total", "Unsent snapshots replaced by a newer one", droppedSnapshots.sum());
+        header(out, "shooting_outbound_evictions_total", "counter", "Connections closed for a full or stalled send queue");
+        out.append("shooting_outbound_evictions_total{reason=\"overflow\"} ").append(evictions[OutboundQueue.OVERFLOW].sum()).append('\n');
+        out.append("shooting_outbound_evictions_total{reason=\"lag\"} ").append(evictions[OutboundQueue.LAGGING].sum()).append('\n');
+
+        counter(out, "shooting_socket_writes_total", "Socket write calls", socketWrites.sum());
+        counter(out, "shooting_socket_write_bytes_total", "Bytes written by socket write calls", socketWriteBytes.sum());
+        counter(out, "shooting_socket_write_frames_total", "Frames handed to socket write calls", socketWriteFrames.sum());
+        gauge(out, "shooting_buffer_pool_idle_bytes", "Direct buffer bytes idle in the send buffer pool", BufferPool.getPooledBytes());
+        counter(out, "shooting_buffer_pool_allocated_bytes_total", "Direct buffer bytes allocated by the send buffer pool", BufferPool.getAllocatedBytes());
+
+        ConnectionLimiter limiter = ShootingGameServer.connectionLimiter;
+        gauge(out, "shooting_connections", "Open client connections", limiter.getActive());
+        gauge(out, "shooting_connections_max", "Connection limit", limiter.getMaxConnections());
+        counter(out, "shooting_connections_accepted_total", "Accepted connections", limiter.getAccepted());
+        counter(out, "shooting_connections_rejected_total", "Connections rejected at the limit", limiter.getRejected());
+        return out.toString();
+    }
+
+    // ---- JMX ----
+
+    @Override
+    public int getActiveConnections() {
+        return ShootingGameServer.connectionLimiter.getActive();
+    }
+
+    @Override
+    public long getAcceptedConnections() {
+        return ShootingGameServer.connectionLimiter.getAccepted();
+    }
+
+    @Override
+    public long getRejectedConnections() {
+        return ShootingGameServer.connectionLimiter.getRejected();
+    }
+
+    @Override
+    public int getWaitingMaps() {
+        return countMaps().waiting;
+    }
+
+    @Override
+    public int getRunningMaps() {
+        return countMaps().running;
+    }
+
+    @Override
+    public int getOverMaps() {
+        return countMaps().over;
+    }
+
+    @Override
+    public long getFinishedGames() {
+        return finishedGames.sum();
+    }
+
+    @Override
+    public int getPlayers() {
+        return countMaps().players;
+    }
+
+    @Override
+    public int getMissiles() {
+        return countMaps().missiles;
+    }
+
+    @Override
+    public int getObstacles() {
+        return countMaps().obstacles;
+    }
+
+    @Override
+    public int getItems() {
+        return countMaps().items;
+    }
+
+    @Override
+    public long getTickOverruns() {
+        long overruns = 0;
+        for (TickScheduler.ShardStats stats : ShootingGameServer.tickScheduler.getShardStats()) {
+            overruns += stats.overruns;
+        }
+        return overruns;
+    }
+
+    @Override
+    public long getDroppedInputs() {
+        return droppedInputs.sum();
+    }
+
+    @Override
+    public String[] getPhaseNames() {
+        return PHASES.clone();
+    }
+
+    @Override
+    public double[] getPhaseAvgMillis() {
+        double[] values = new double[PHASES.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = phaseTimes[i].getAverageMillis();
+        }
+        return values;
+    }
+
+    @Override
+    public double[] getPhaseP99Millis() {
+        double[] values = new double[PHASES.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = phaseTimes[i].getPercentileMillis(99);
+        }
+        return values;
+    }
+
+    @Override
+    public long getInboundMessages() {
+        return sum(inboundMessages[TEXT]) + sum(inboundMessages[BINARY]);
+    }
+
+    @Override
+    public long getInboundBytes() {
+        return sum(inboundBytes[TEXT]) + sum(inboundBytes[BINARY]);
+    }
+
+    @Override
+    public long getOutboundMessages() {
+        return sum(outboundTextMessages) + sum(outboundBinaryMessages);
+    }
+
+    @Override
+    public long getOutboundBytes() {
+        return sum(outboundTextBytes) + sum(outboundBinaryBytes);
+    }
+
+    @Override
+    public long getOutboundQueuedFrames() {
+        return queuedFrames.sum();
+    }
+
+    @Override
+    public long getDroppedSnapshots() {
+        return droppedSnapshots.sum();
+    }
+
+    @Override
+    public long getEvictedConnections() {
+        return sum(evictions);
+    }
+
+    @Override
+    public long getSocketWrites() {
+        return socketWrites.sum();
+    }
+
+    @Override
+    public double getBytesPerSocketWrite() {
+        long writes = socketWrites.sum();
+        return writes == 0 ? 0 : (double) socketWriteBytes.sum() / writes;
+    }
+
+    @Override
+    public int getPooledMaps() {
+        return ShootingGameServer.mapManager.getPooledMaps();
+    }
+
+    @Override
+    public long getCreatedMaps() {
+        return ShootingGameServer.mapManager.getCreatedMaps();
+    }
+
+    @Override
+    public long getReusedMaps() {
+        return ShootingGameServer.mapManager.getReusedMaps();
+    }
+
+    @Override
+    public int getWaitingPlayers() {
+        return ShootingGameServer.mapManager.getMatchmaker().getWaitingPlayers();
+    }
+
+    @Override
+    public double getMatchWaitAvgMillis() {
+        long count = 0;
+        double total = 0;
+        for (LatencyHistogram histogram : matchWaits.values()) {
+            count += histogram.getCount();
+            total += histogram.getAverageMillis() * histogram.getCount();
+        }
+        return count == 0 ? 0 : total / count;
+    }
+
+    // 마지막 틱이 가장 오래 걸린 맵 SLOWEST_MAPS개 (맵 ID는 방마다 새로 발급되므로 Prometheus 라벨로는 내보내지 않는다)
+    @Override
+    public String[] getSlowestMaps() {
+        List<MapInstance> maps = new ArrayList<>(ShootingGameServer.mapManager.getMaps().values());
+        long[] ticks = new long[maps.size()];
+        Integer[] order = new Integer[maps.size()];
+        for (int i = 0; i < ticks.length; i++) {
+            ticks[i] = maps.get(i).getLastTickNanos(); // 정렬 중에 바뀌지 않도록 먼저 읽어 둔다
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(ticks[b], ticks[a]));
+
+        String[] slowest = new String[Math.min(SLOWEST_MAPS, order.length)];
+        for (int i = 0; i < slowest.length; i++) {
+            MapInstance map = maps.get(order[i]);
+            slowest[i] = String.format("%s tick=%.3fms players=%d missiles=%d obstacles=%d items=%d",
+                    map.getMapId(), ticks[order[i]] / 1e6, map.getPlayers().size(),
+                    map.getMissiles().size(), map.getObstacles().size(), map.getItems().size());
+        }
+        return slowest;
+    }
+
+    // ---- 집계 ----
+
+    // 맵 상태별 수와 플레이어/엔티티 합계
+    // 엔티티 수는 틱 스레드가 갱신하는 값을 그대로 읽으므로 진행 중인 틱의 값이 섞일 수 있다 (지표용으로는 충분).
+    // 끝난 맵은 대부분 맵 목록에서 바로 삭제되므로, 삭제된 뒤 아직 정리되지 않은 맵도 over로 센다.
+    private static MapCounts countMaps() {
+        MapCounts counts = new MapCounts();
+        counts.over = ShootingGameServer.mapManager.getEndedMaps();
+        for (MapInstance map : ShootingGameServer.mapManager.getMaps().values()) {
+            if (map.isGameOver()) {
+                counts.over++;
+            } else if (map.isGameStarted()) {
+                counts.running++;
+            } else {
+                counts.waiting++;
+            }
+            int playerCount = map.getPlayers().size();
+            int missiles = map.getMissiles().size();
+            int obstacles = map.getObstacles().size();
+            int items = map.getItems().size();
+            counts.players += playerCount;
+            counts.missiles += missiles;
+            counts.obstacles += obstacles;
+            counts.items += items;
+        }
+        return counts;
+    }
+
+    private static void writeTraffic(StringBuilder out, String name, String[] types, LongAdder[][] values) {
+        for (int protocol = 0; protocol < PROTOCOLS.length; protocol++) {
+            if (values[protocol] == null) continue;
+            for (int i = 0; i < types.length; i++) {
+                out.append(name).append("{type=\"").append(types[i]).append("\",protocol=\"").append(PROTOCOLS[protocol])
+                        .append("\"} ").append(values[protocol][i].sum()).append('\n');
+            }
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, "gauge", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, "counter", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    // 레이블 값 이스케이프 (맵 ID는 클라이언트가 정하므로 그대로 넣지 않는다)
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    // 바이너리 프레임 전체 크기: 타입 1바이트 + 길이 varint + payload
+    private static int frameSize(int payloadLength) {
+        int header = 2;
+        for (int rest = payloadLength >>> 7; rest != 0; rest >>>= 7) {
+            header++;
+        }
+        return header + payloadLength;
+    }
+
+    private static long sum(LongAdder[] adders) {
+        long total = 0;
+        for (LongAdder adder : adders) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    private static LongAdder[][] adders(int rows, int columns) {
+        LongAdder[][] adders = new LongAdder[rows][columns];
+        for (LongAdder[] row : adders) {
+            for (int i = 0; i < columns; i++) {
+                row[i] = new LongAdder();
+            }
+        }
+        return adders;
+    }
+
+    private static class MapCounts {
+        int waiting;
+        int running;
+        int over;
+        int players;
+        int missiles;
+        int obstacles;
+        int items;
+    }
+}
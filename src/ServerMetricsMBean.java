@@ -0,0 +1,71 @@
+// ServerMetrics의 JMX 관리 인터페이스 (jconsole 등에서 shooting:type=ServerMetrics로 조회)
+public interface ServerMetricsMBean {
+    int getActiveConnections();
+
+    long getAcceptedConnections();
+
+    long getRejectedConnections();
+
+    int getWaitingMaps();
+
+    int getRunningMaps();
+
+    int getOverMaps();
+
+    long getFinishedGames();
+
+    int getPlayers();
+
+    int getMissiles();
+
+    int getObstacles();
+
+    int getItems();
+
+    long getTickOverruns();
+
+    long getDroppedInputs();
+
+    String[] getPhaseNames();
+
+    // 단계별 평균/99분위 틱 시간 (ms, getPhaseNames 순서)
+    double[] getPhaseAvgMillis();
+
+    double[] getPhaseP99Millis();
+
+    long getInboundMessages();
+
+    long getInboundBytes();
+
+    long getOutboundMessages();
+
+    long getOutboundBytes();
+
+    long getOutboundQueuedFrames();
+
+    long getDroppedSnapshots();
+
+    long getEvictedConnections();
+
+    long getSocketWrites();
+
+    double getBytesPerSocketWrite();
+
+    // 맵 풀: 재사용 대기 중인 맵 수, 새로 만든 맵 수, 풀에서 다시 쓴 맵 수
+    int getPooledMaps();
+
+    long getCreatedMaps();
+
+    long getReusedMaps();
+
+    int getWaitingPlayers();
+
+    // 매치메이킹에서 먼저 온 플레이어가 상대를 기다린 평균 시간 (ms)
+    double getMatchWaitAvgMillis();
+
+    // 마지막 틱이 가장 오래 걸린 맵의 ID, 틱 시간, 플레이어/엔티티 수 (맵별 값은 JMX로만 내보낸다)
+    String[] getSlowestMaps();
+
+    // Prometheus 텍스트 형식 전체 (HTTP 엔드포인트와 같은 내용)
+    String scrape();
+}
@@ -4,52 +4,103 @@ import java.awt.event.*;
 import java.io.*;
 import java.net.*;
 import java.util.*;
-import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ShootingGameClient extends JPanel implements ActionListener, KeyListener {
     private Socket socket;
-    private PrintWriter out;
-    private BufferedReader in;
-    private String clientId;
+    private OutputStream out; // 서버로 보내는 스트림 (텍스트 줄, 바이너리 프레임 공용)
+    private BinaryProtocol.FrameReader in;
+    private volatile String clientId; // 디코더 스레드가 정하고 EDT/그리기 스레드가 읽는다
     private String currentMapId; // 현재 맵 ID
 
     private javax.swing.Timer timer;
 
-    private Map<String, Player> players = new ConcurrentHashMap<>();
-    private List<Missile> missiles = new CopyOnWriteArrayList<>();
-    private List<Obstacle> obstacles = new CopyOnWriteArrayList<>();
-    private List<Item> items = new CopyOnWriteArrayList<>();
+    // 수신 파이프라인: 수신 스레드는 바이트를 프레임으로 끊어 큐에 넣기만 하고(ServerReader),
+    // 디코더 스레드가 프레임을 해석해 월드 상태를 채운 뒤(SnapshotDecoder) 삼중 버퍼로 발행하면,
+    // 그리기 쪽(EDT 또는 렌더 스레드)은 가장 최근 월드를 교환해 가져간다. 세 단계는 서로 락을 잡지 않는다.
+    private final BlockingQueue<InboundFrame> inbound = new ArrayBlockingQueue<>(1024); // 디코더가 많이 밀릴 때만 수신이 기다린다
+    private final BlockingQueue<InboundFrame> freeFrames = new ArrayBlockingQueue<>(1024); // 다 쓴 프레임 재사용
+    private final ClientWorld.Exchange worlds = new ClientWorld.Exchange();
+    private final GameStateDecoder decoder = new GameStateDecoder(worlds, new DecodedState()); // 디코더 스레드 전용
 
     private boolean[] keys = new boolean[256];
-    private boolean gameOver = false;
-    private String winner = "";
+    private volatile boolean gameOver = false; // 그리기 스레드(능동 렌더링)에서도 읽는 상태는 volatile
+    private volatile String winner = "";
     private boolean spacePressed = false;
 
-    private Image backgroundImage, playerImage, missileImage;
+    // 이미지는 경로만 기억하고, 그릴 때 스프라이트 캐시에서 크기/회전이 맞춰진 이미지를 꺼낸다
+    private final SpriteCache sprites = new SpriteCache();
+    private static final Font MESSAGE_FONT = new Font("Arial", Font.BOLD, 30);
+    private static final Font HUD_FONT = new Font("Arial", Font.BOLD, 12);
 
-    private String backgroundImagePath;
-    private String playerImagePath;
+    // SETTINGS로 디코더 스레드가 정하고 그리기 쪽이 읽는다
+    private volatile String backgroundImagePath;
+    private volatile String playerImagePath;
+    private volatile String missileImagePath;
 
-    private int playerWidth = ShootingGameServer.PLAYER_WIDTH; // 기본값 설정
-    private int playerHeight = ShootingGameServer.PLAYER_HEIGHT;
-    private int missileWidth = ShootingGameServer.MISSILE_WIDTH;
-    private int missileHeight = ShootingGameServer.MISSILE_HEIGHT;
+    private volatile int playerWidth = ShootingGameServer.PLAYER_WIDTH; // 기본값 설정
+    private volatile int playerHeight = ShootingGameServer.PLAYER_HEIGHT;
+    private volatile int missileWidth = ShootingGameServer.MISSILE_WIDTH;
+    private volatile int missileHeight = ShootingGameServer.MISSILE_HEIGHT;
 
-    private boolean isReady = false;
-    private boolean isGameStarted = false;
+    private volatile boolean isReady = false;
+    private volatile boolean isGameStarted = false;
 
     private JFrame mainFrame; // 초기 화면 프레임
     private JPanel mapSelectionPanel; // 맵 선택 패널
     private JButton startButton;
     private JComboBox<String> mapSelector; // 맵 선택 드롭다운
-    private boolean inGame = false; // 게임 중인지 여부
+    private volatile boolean inGame = false; // 게임 중인지 여부
     private CardLayout cardLayout; // CardLayout 참조 변수 추가
 
-    private boolean timerStarted = false;
     private long lastMissileFiredTime = 0; // 마지막 미사일 발사 시간
 
+    // 바이너리 프로토콜 요청 여부 (-Dshooting.protocol=text 이면 텍스트 프로토콜만 사용)
+    private static final boolean REQUEST_BINARY =
+            !"text".equalsIgnoreCase(System.getProperty("shooting.protocol", "binary"));
+    private volatile boolean binaryProtocol = false; // 서버가 SETTINGS에서 바이너리 프로토콜을 수락했는지
+
+    // delta 스냅샷 요청 여부 (-Dshooting.snapshots=full 이면 매번 전체 상태 수신)
+    private static final boolean REQUEST_DELTA =
+            !"full".equalsIgnoreCase(System.getProperty("shooting.snapshots", "delta"));
+
+    // 렌더링 방식: passive는 타이머 -> repaint() -> paintComponent (EDT),
+    // active는 전용 스레드가 Canvas/BufferStrategy로 직접 그림 (-Dshooting.render=active, -Dshooting.fps=0이면 제한 없음)
+    // 어느 쪽이든 입력 샘플링과 이동 예측은 EDT 타이머(약 60Hz)가 따로 맡는다.
+    private static final boolean ACTIVE_RENDERING = "active".equalsIgnoreCase(System.getProperty("shooting.render", "passive"));
+    private static final int FPS_CAP = Integer.getInteger("shooting.fps", 60);
+    private static final int INPUT_TICK_MILLIS = 16;
+    private final FrameStats frameStats = new FrameStats( // 목표 간격: 능동이면 FPS 제한, 수동이면 타이머 간격
+            ACTIVE_RENDERING ? (FPS_CAP > 0 ? 1_000_000_000L / FPS_CAP : 0) : INPUT_TICK_MILLIS * 1_000_000L,
+            Long.getLong("shooting.frameStats", 5000)); // 프레임 통계 출력 간격 (ms, 0이면 출력 안 함)
+    private Canvas gameCanvas; // 능동 렌더링일 때만
+
+    // 스냅샷 보간: 수신 시각과 함께 보관한 최근 스냅샷 사이에서 "현재 - 지연" 시점 위치를 그린다
+    // (-Dshooting.interpolation=off 이면 마지막으로 받은 위치를 그대로 그림)
+    private static final boolean INTERPOLATION =
+            !"off".equalsIgnoreCase(System.getProperty("shooting.interpolation", "on"));
+    private final InterpolationBuffer interpolation = new InterpolationBuffer(
+            Long.getLong("shooting.interpolationDelay", 100), // 스냅샷 간격(50ms)의 두 배
+            Long.getLong("shooting.maxExtrapolation", 100)); // 그리기 쪽 전용
+    private long interpolatedVersion = 0; // 보간 버퍼에 마지막으로 기록한 월드 (그리기 쪽 전용)
+
+    // 클라이언트 예측: 이동 입력에 seq를 붙여 보내고 바로 내 플레이어를 움직인 뒤,
+    // 스냅샷이 오면 서버 위치에 서버가 아직 적용하지 않은 입력을 다시 적용한다
+    // (-Dshooting.prediction=off 이면 기존처럼 절대 좌표 MOVE 전송, 서버도 -Dshooting.absoluteMoves=true여야 움직인다)
+    private static final boolean PREDICTION =
+            !"off".equalsIgnoreCase(System.getProperty("shooting.prediction", "on"));
+    // 예측 상태는 EDT 전용: 디코더가 발행한 내 플레이어의 서버 상태로 보정하고, 그릴 위치는 localPosition으로 넘긴다
+    private final AtomicReference<LocalPlayerState> localState = new AtomicReference<>(); // 디코더 -> EDT
+    private LocalPlayerState reconciledState; // 마지막으로 보정에 쓴 서버 상태
+    private String predictionClientId; // 예측 상태가 속한 세션 (바뀌면 seq를 처음부터)
+    private int inputSeq = 0; // 마지막으로 보낸 입력 seq
+    private final int[] pendingInputs = new int[256]; // seq별 방향키 (서버 미적용분만 의미 있음, 약 4초 분량)
+    private int predictedX, predictedY;
+    private static final long NO_POSITION = Long.MIN_VALUE;
+    private volatile long localPosition = NO_POSITION; // EDT -> 그리기 쪽, 내 플레이어를 그릴 위치 (x << 32 | y)
+
     //클라이언트 초기 설정
     public ShootingGameClient(String serverAddress, int port) {
         // 더블 버퍼링 활성화
@@ -57,27 +108,44 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
 
         try {
             socket = new Socket(serverAddress, port);
-            out = new PrintWriter(socket.getOutputStream(), true);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            out = new BufferedOutputStream(socket.getOutputStream());
+            in = new BinaryProtocol.FrameReader(socket.getInputStream(), 1 << 20);
 
-            // 서버 리스너 시작
-            new Thread(new ServerListener()).start();
+            // 수신 스레드와 디코더 스레드 시작
+            new Thread(new ServerReader(), "server-reader").start();
+            Thread decoder = new Thread(new SnapshotDecoder(), "snapshot-decoder");
+            decoder.setDaemon(true);
+            decoder.start();
 
             // 메인 프레임 생성
             createMainFrame();
 
+            // 능동 렌더링이면 게임 화면 패널을 Canvas로 채운다
+            if (ACTIVE_RENDERING) {
+                gameCanvas = new Canvas();
+                gameCanvas.setIgnoreRepaint(true); // OS 다시 그리기 요청 무시 (렌더 스레드만 그린다)
+                gameCanvas.setFocusable(true);
+                gameCanvas.addKeyListener(this);
+                setLayout(new BorderLayout());
+                add(gameCanvas, BorderLayout.CENTER);
+            }
+
             // 초기 맵 선택 화면 표시
             showMapSelection();
 
             // 키 리스너 등록 및 포커스 설정
             setFocusable(true);
             addKeyListener(this); // KeyListener 등록
-            requestFocusInWindow(); // 이 패널에 포커스 설정
+            focusGameScreen(); // 이 패널에 포커스 설정
 
-            // 타이머 시작
-            timer = new javax.swing.Timer(16, this); // 약 60FPS
+            // 입력 타이머 시작 (입력 샘플링, 이동 예측, 수동 렌더링이면 repaint 요청)
+            timer = new javax.swing.Timer(INPUT_TICK_MILLIS, this); // 약 60Hz
             timer.start();
 
+            if (ACTIVE_RENDERING) {
+                new ActiveRenderLoop(gameCanvas, this::render, FPS_CAP, frameStats).start();
+            }
+
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -87,9 +155,12 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
     private void createMainFrame() {
         mainFrame = new JFrame("Shooting Game Client");
         mainFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        mainFrame.setSize(500, 770);
-        mainFrame.setLocationRelativeTo(null);
         mainFrame.setResizable(false);
+        // 게임 화면 크기를 서버 좌표계(정규 좌표, 이동 범위)와 일치시킨다
+        mainFrame.getContentPane().setPreferredSize(
+                new Dimension(ShootingGameServer.SERVER_WIDTH, ShootingGameServer.SERVER_HEIGHT));
+        mainFrame.pack();
+        mainFrame.setLocationRelativeTo(null);
 
         cardLayout = new CardLayout(); // CardLayout 초기화
         mainFrame.setLayout(cardLayout); // CardLayout을 JFrame에 설정
@@ -205,8 +276,10 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
 
         startButton.addActionListener(e -> {
             if (selectedMap[0] != null) {
-                out.println("MAPSELECT " + selectedMap[0]); // 선택된 맵 전달
-                out.println("READY"); // 준비 상태 전달
+                // 선택된 맵 전달 (바이너리 프로토콜 요청 포함)
+                sendLine("MAPSELECT " + selectedMap[0] + (REQUEST_BINARY
+                        ? " " + BinaryProtocol.NAME + (REQUEST_DELTA ? " " + BinaryProtocol.DELTA : "") : ""));
+                sendLine("READY"); // 준비 상태 전달
 
                 // 화면 전환: 맵 선택 -> 게임 화면
                 cardLayout.show(mainFrame.getContentPane(), "GAME_SCREEN");
@@ -214,7 +287,7 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
 
                 // 게임 화면에 포커스 설정
                 setFocusable(true);
-                requestFocusInWindow();
+                focusGameScreen();
             }
         });
 
@@ -231,24 +304,6 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
         mainFrame.setVisible(true);
     }
 
-    // 받은 이미지 경로로 이미지 로드
-    private Image loadImage(String path) {
-        try {
-            Image img = new ImageIcon(path).getImage();
-            if (img == null) throw new IOException("Image not found: " + path);
-            return img;
-        } catch (Exception e) {
-            System.err.println("Failed to load image: " + path);
-            e.printStackTrace();
-            return null;
-        }
-    }
-
-    // 이미지 크기 맞추기
-    private Image scaleImage(Image srcImg, int width, int height) {
-        return srcImg.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-    }
-
     // 맵 선택시 플레이어, 미사일 , 배경 설정
     private void parseSettings(String[] tokens) {
         for (int i = 0; i < tokens.length; i++) {
@@ -267,103 +322,170 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
                     break;
                 case "BACKGROUND_IMAGE":
                     backgroundImagePath = tokens[++i];
-                    backgroundImage = loadImage(backgroundImagePath);
                     System.out.println("Background image set to: " + backgroundImagePath);
                     break;
                 case "PLAYER_IMAGE":
                     playerImagePath = tokens[++i];
-                    playerImage = loadImage(playerImagePath);
                     break;
                 case "MISSILE_IMAGE":
-                    String missileImagePath = tokens[++i];
-                    missileImage = scaleImage(loadImage(missileImagePath), missileWidth, missileHeight);
+                    missileImagePath = tokens[++i];
                     System.out.println("Missile image set to: " + missileImagePath);
                     break;
+                case "PROTOCOL":
+                    decoder.resetStrings();
+                    binaryProtocol = BinaryProtocol.NAME.equals(tokens[++i]);
+                    System.out.println("Protocol set to: " + tokens[i]);
+                    break;
+                case "SNAPSHOT":
+                    decoder.resetSnapshots(BinaryProtocol.DELTA.equals(tokens[++i]));
+                    System.out.println("Snapshot mode set to: " + tokens[i]);
+                    break;
+                case "PERSPECTIVE":
+                    // 서버는 슬롯 0 플레이어 기준의 정규 좌표를 보내므로, 다른 슬롯이면 받은 좌표를 직접 대칭 변환한다
+                    decoder.setMirrorView(Integer.parseInt(tokens[++i]) != 0);
+                    break;
             }
         }
+        decoder.setPlayerSize(playerWidth, playerHeight);
+        decoder.setMissileSize(missileWidth, missileHeight);
         repaint();
     }
 
-    // 플레이어, 이미지, 장애물, 아이템 등 움직이는 모든 것을 그려주는 메서드
+    // 수동 렌더링: EDT가 repaint 요청을 처리할 때 그림 (능동 렌더링이면 Canvas가 덮고 있으므로 그리지 않음)
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
+        if (ACTIVE_RENDERING) return;
+
+        long start = System.nanoTime();
+        render((Graphics2D) g, getWidth(), getHeight());
+        frameStats.frame(start, System.nanoTime() - start);
+    }
 
+    // 플레이어, 이미지, 장애물, 아이템 등 움직이는 모든 것을 그려주는 메서드 (EDT 또는 렌더 스레드 하나에서만 호출)
+    private void render(Graphics2D g, int width, int height) {
         if (!inGame) return; // 게임 시작 전에는 그리지 않음
 
+        // 배경은 현재 화면 크기로 미리 맞춰 둔 이미지 사용 (창 크기가 바뀌면 그 크기로 한 번 더 만든다)
+        Image backgroundImage = sprites.get(backgroundImagePath, width, height, false);
         if (backgroundImage != null) {
-            g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
+            g.drawImage(backgroundImage, 0, 0, this);
         } else {
+            g.setColor(Color.BLACK); // 능동 렌더링 버퍼에는 이전 프레임이 남아 있으므로 지운다
+            g.fillRect(0, 0, width, height);
             System.err.println("Background image is null.");
         }
 
-        synchronized (players) {
-
-            // 게임 시작 전 메시지
-            if (!isGameStarted) {
-                g.setFont(new Font("Arial", Font.BOLD, 30));
-                g.setColor(Color.CYAN);
-                if (isReady) {
-                    g.drawString("READY! Waiting for the game to start.", 30, (getHeight() / 2) - 20);
-                } else {
-                    g.drawString("Waiting for another player...", 50, (getHeight() / 2) - 20);
-                }
-                return;
+        // 게임 시작 전 메시지
+        if (!isGameStarted) {
+            g.setFont(MESSAGE_FONT);
+            g.setColor(Color.CYAN);
+            if (isReady) {
+                g.drawString("READY! Waiting for the game to start.", 30, (height / 2) - 20);
+            } else {
+                g.drawString("Waiting for another player...", 50, (height / 2) - 20);
             }
+            return;
+        }
 
-            // 게임 종료 메시지
-            if (gameOver) {
-                g.setFont(new Font("Arial", Font.BOLD, 30));
-                g.setColor(Color.RED);
-                g.drawString(winner.equals("패배") ? "패배" : "승리", 150, getHeight() / 2);
-                return;
-            }
+        // 게임 종료 메시지
+        if (gameOver) {
+            g.setFont(MESSAGE_FONT);
+            g.setColor(Color.RED);
+            g.drawString(winner.equals("패배") ? "패배" : "승리", 150, height / 2);
+            return;
+        }
 
-            // 플레이어 그리기
-            for (Player player : players.values()) {
-                drawPlayer(g, player);
+        // 디코더가 마지막으로 발행한 월드 (교환해 가져온 뒤로는 이 스레드만 읽는다)
+        ClientWorld world = worlds.latest();
+        boolean interpolate = INTERPOLATION && world.hasStableKeys();
+        if (interpolate) {
+            if (world.getVersion() != interpolatedVersion) {
+                recordInterpolationFrame(world);
             }
+            interpolation.prepare(System.nanoTime());
+        } else {
+            interpolation.clear(); // x()/y()가 받은 위치를 그대로 돌려준다
         }
 
-        synchronized (missiles) {
-            // 미사일 그리기
-            for (Missile missile : missiles) {
-                drawMissile(g, missile);
+        // 플레이어 그리기 (내 플레이어는 EDT가 입력을 바로 반영한 예측 위치)
+        String localId = clientId;
+        long position = localPosition;
+        ClientEntityTable<Player> players = world.players;
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            if (player.getId().equals(localId) && position != NO_POSITION) {
+                drawPlayer(g, player, (int) (position >> 32), (int) position);
+            } else {
+                int key = players.keyAt(i);
+                drawPlayer(g, player, renderX(key, player.getX()), renderY(key, player.getY()));
             }
         }
 
-        synchronized (obstacles) {
-            // 장애물 그리기
-            for (Obstacle obstacle : obstacles) {
-                drawObstacle(g, obstacle);
-            }
+        // 미사일 그리기
+        ClientEntityTable<Missile> missiles = world.missiles;
+        for (int i = 0; i < missiles.size(); i++) {
+            Missile missile = missiles.get(i);
+            int key = missiles.keyAt(i);
+            drawMissile(g, missile, renderX(key, missile.getX()), renderY(key, missile.getY()));
+        }
+
+        // 장애물 그리기
+        ClientEntityTable<Obstacle> obstacles = world.obstacles;
+        for (int i = 0; i < obstacles.size(); i++) {
+            Obstacle obstacle = obstacles.get(i);
+            int key = obstacles.keyAt(i);
+            drawObstacle(g, obstacle, renderX(key, obstacle.getX()), renderY(key, obstacle.getY()));
         }
 
         // 아이템 그리기
-        synchronized (items) {
-            for (Item item : items) {
-                drawItem(g, item); // 여기에서 drawItem 호출
-            }
+        ClientEntityTable<Item> items = world.items;
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            int key = items.keyAt(i);
+            drawItem(g, item, renderX(key, item.getX()), renderY(key, item.getY()));
         }
     }
 
-    //플레이어 그리기
-    private void drawPlayer(Graphics g, Player player) {
-        int x = player.getX();
-        int y = player.getY();
-        Image image = loadImage(player.getImagePath()); // 이미지 로드
+    // 새로 받은 월드의 엔티티 위치를 수신 시각과 함께 보간 버퍼에 기록
+    private void recordInterpolationFrame(ClientWorld world) {
+        interpolatedVersion = world.getVersion();
+        interpolation.beginFrame(world.getReceivedAt());
+        for (int i = 0; i < world.players.size(); i++) {
+            Player player = world.players.get(i);
+            interpolation.record(world.players.keyAt(i), player.getX(), player.getY());
+        }
+        for (int i = 0; i < world.missiles.size(); i++) {
+            Missile missile = world.missiles.get(i);
+            interpolation.record(world.missiles.keyAt(i), missile.getX(), missile.getY());
+        }
+        for (int i = 0; i < world.obstacles.size(); i++) {
+            Obstacle obstacle = world.obstacles.get(i);
+            interpolation.record(world.obstacles.keyAt(i), obstacle.getX(), obstacle.getY());
+        }
+        for (int i = 0; i < world.items.size(); i++) {
+            Item item = world.items.get(i);
+            interpolation.record(world.items.keyAt(i), item.getX(), item.getY());
+        }
+    }
+
+    // 그릴 위치 (보간하지 않을 때는 prepare 전이라 마지막으로 받은 위치 그대로)
+    private int renderX(int key, int x) {
+        return interpolation.x(key, x);
+    }
 
-        Graphics2D g2d = (Graphics2D) g.create();
+    private int renderY(int key, int y) {
+        return interpolation.y(key, y);
+    }
 
-        if (!player.getId().equals(clientId)) {
-            // 상대 플레이어 이미지 180도 회전
-            g2d.rotate(Math.toRadians(180), x + playerWidth / 2.0, y + playerHeight / 2.0);
+    //플레이어 그리기
+    private void drawPlayer(Graphics g, Player player, int x, int y) {
+        // 상대 플레이어는 180도 회전해 둔 이미지 사용
+        Image image = sprites.get(player.getImagePath(), playerWidth, playerHeight, !player.getId().equals(clientId));
+        if (image != null) {
+            g.drawImage(image, x, y, this);
         }
 
-        // 플레이어 이미지 그리기
-        g2d.drawImage(image, x, y, playerWidth, playerHeight, this);
-        g2d.dispose(); // Graphics2D 리소스 정리
-
         // 체력 바 그리기
         int healthBarX = x;
         int healthBarY = y - 15; // 체력 바는 플레이어 위에 표시
@@ -376,50 +498,38 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
         g.fillRect(healthBarX, healthBarY, healthBarWidth, 5);
 
         // 체력 숫자 표시
-        g.setFont(new Font("Arial", Font.BOLD, 12));
+        g.setFont(HUD_FONT);
         g.setColor(Color.WHITE);
         g.drawString("HP: " + player.getHealth(), healthBarX + 5, healthBarY - 2);
     }
 
     // 미사일 그리기
-    private void drawMissile(Graphics g, Missile missile) {
-        int x = missile.getX();
-        int y = missile.getY();
-
-        Graphics2D g2d = (Graphics2D) g.create();
-
-        // 상대 플레이어의 미사일 대칭 처리
-        if (!missile.getOwnerId().equals(clientId)) {
-            g2d.translate(getWidth(), getHeight()); // 화면 크기만큼 이동
-            g2d.scale(-1, -1); // X축, Y축 대칭
-            x = getWidth() - x - missileWidth; // 대칭된 좌표로 변환
-            y = getHeight() - y - missileHeight; // 대칭된 좌표로 변환
+    private void drawMissile(Graphics g, Missile missile, int x, int y) {
+        // 상대 플레이어의 미사일은 180도 회전해 둔 이미지 사용
+        Image image = sprites.get(missileImagePath, missileWidth, missileHeight, !missile.getOwnerId().equals(clientId));
+        if (image != null) {
+            g.drawImage(image, x, y, this);
         }
-
-        // 미사일 이미지 그리기
-        g2d.drawImage(missileImage, x, y, missileWidth, missileHeight, this);
-        g2d.dispose(); // 리소스 정리
     }
 
     // 장애물 그리기
-    private void drawObstacle(Graphics g, Obstacle obstacle) {
-        if (obstacle.getImage() == null) {
-            System.err.println("Obstacle image is null for obstacle at: " + obstacle.getX() + ", " + obstacle.getY());
+    private void drawObstacle(Graphics g, Obstacle obstacle, int x, int y) {
+        Image image = sprites.get(obstacle.getImagePath(), obstacle.getWidth(), obstacle.getHeight(), false);
+        if (image == null) {
+            System.err.println("Obstacle image is null for obstacle at: " + x + ", " + y);
             return;
         }
-        g.drawImage(obstacle.getImage(), obstacle.getX(), obstacle.getY(),
-                obstacle.getWidth(), obstacle.getHeight(), this);
+        g.drawImage(image, x, y, this);
     }
 
     // 아이템 그리기
-    private void drawItem(Graphics g, Item item) {
-        if (item.getImage() == null) {
-            System.err.println("Item image is null for item at: " + item.getX() + ", " + item.getY());
+    private void drawItem(Graphics g, Item item, int x, int y) {
+        Image image = sprites.get(item.getImagePath(), item.getWidth(), item.getHeight(), false);
+        if (image == null) {
+            System.err.println("Item image is null for item at: " + x + ", " + y);
             return;
         }
-
-        g.drawImage(item.getImage(), item.getX(), item.getY(),
-                item.getWidth(), item.getHeight(), this);
+        g.drawImage(image, x, y, this);
     }
 
     // 플레이어의 움직임 관리
@@ -431,44 +541,127 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
             return;
         }
 
-        Player player = players.get(clientId);
-        if (player == null) {
+        // 방향키 입력
+        int inputKeys = 0;
+        if (keys[KeyEvent.VK_A]) inputKeys |= PlayerMovement.LEFT;
+        if (keys[KeyEvent.VK_D]) inputKeys |= PlayerMovement.RIGHT;
+        if (keys[KeyEvent.VK_W]) inputKeys |= PlayerMovement.UP;
+        if (keys[KeyEvent.VK_S]) inputKeys |= PlayerMovement.DOWN;
+
+        if (!reconcile()) {
             System.err.println("Error: Player object is null for clientId: " + clientId);
             return;
         }
 
-        int dx = 0, dy = 0;
+        // 서버와 같은 규칙으로 바로 이동 (예측)
+        int newX = PlayerMovement.stepX(predictedX, inputKeys);
+        int newY = PlayerMovement.stepY(predictedY, inputKeys);
+        setPredictedPosition(newX, newY);
 
-        // 방향키 입력에 따른 이동 계산
-        if (keys[KeyEvent.VK_A]) dx -= 10;
-        if (keys[KeyEvent.VK_D]) dx += 10;
-        if (keys[KeyEvent.VK_W]) dy -= 10;
-        if (keys[KeyEvent.VK_S]) dy += 10;
+        int seq = 0;
+        if (PREDICTION && inputKeys != 0) {
+            seq = ++inputSeq;
+            pendingInputs[seq % pendingInputs.length] = inputKeys; // 서버가 적용할 때까지 보관
+        }
 
-        int newX = player.getX() + dx;
-        int newY = player.getY() + dy;
+        // 서버에 전송 (예측 모드는 입력만, 아니면 기존처럼 절대 좌표)
+        if (PREDICTION) {
+            if (seq != 0) sendInput(seq, inputKeys);
+        } else {
+//            System.out.println("Sending MOVE: " + newX + ", " + newY); // 디버깅 출력
+            sendMove(newX, newY);
+        }
+        if (!ACTIVE_RENDERING) {
+            repaint(); // 능동 렌더링은 렌더 스레드가 알아서 다음 프레임을 그린다
+        }
+    }
 
-        // 화면 경계 조건
-        if (newX < 0) newX = 0;
-        if (newX + playerWidth > getWidth()) newX = getWidth() - playerWidth;
+    // 디코더가 새 서버 상태를 발행했으면 그 위치에 서버가 아직 적용하지 않은 입력을 다시 적용해 예측 위치 복원
+    // (EDT에서만 호출, 내 플레이어 상태가 아직 없으면 false)
+    private boolean reconcile() {
+        String id = clientId;
+        if (!Objects.equals(id, predictionClientId)) {
+            predictionClientId = id; // 새 세션: 서버의 새 플레이어는 입력 seq가 0부터 시작
+            inputSeq = 0;
+            reconciledState = null;
+            localPosition = NO_POSITION;
+        }
+
+        LocalPlayerState state = localState.get();
+        if (state == null || !state.id.equals(id)) return false;
+        if (state == reconciledState) return true;
+        reconciledState = state;
+
+        int x = state.x;
+        int y = state.y;
+        if (PREDICTION) {
+            int from = Math.max(state.ackedInputSeq + 1, inputSeq - pendingInputs.length + 1);
+            for (int seq = from; seq <= inputSeq; seq++) {
+                int inputKeys = pendingInputs[seq % pendingInputs.length];
+                x = PlayerMovement.stepX(x, inputKeys);
+                y = PlayerMovement.stepY(y, inputKeys);
+            }
+        }
+        setPredictedPosition(x, y);
+        return true;
+    }
 
-        // 세로 경계 조건: 플레이어는 화면 아래 절반에서만 움직일 수 있음
-        int screenHalfHeight = getHeight() / 2;
-        if (player.getId().equals(clientId)) {
-            // 플레이어 1: 화면 아래쪽 절반에서만 이동 가능
-            if (newY < screenHalfHeight) newY = screenHalfHeight;
-            if (newY + playerHeight > getHeight()) newY = getHeight() - playerHeight;
+    private void setPredictedPosition(int x, int y) {
+        predictedX = x;
+        predictedY = y;
+        localPosition = ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    // 키 입력을 받을 게임 화면 컴포넌트에 포커스
+    private void focusGameScreen() {
+        if (gameCanvas != null) {
+            gameCanvas.requestFocusInWindow();
         } else {
-            // 상대 플레이어: 화면 위쪽 절반에서만 이동 가능
-            if (newY < 0) newY = 0;
-            if (newY + playerHeight > screenHalfHeight) newY = screenHalfHeight - playerHeight;
+            requestFocusInWindow();
         }
+    }
 
-        // 새로운 위치 설정 및 서버에 전송
-        player.setPosition(newX, newY);
-//        System.out.println("Sending MOVE: " + newX + ", " + newY); // 디버깅 출력
-        out.println("MOVE " + newX + " " + newY);
-        repaint();
+    // 이동 입력 전송 (협상된 프로토콜에 맞게)
+    private void sendInput(int seq, int inputKeys) {
+        if (binaryProtocol) {
+            sendFrame(BinaryProtocol.encodeInput(seq, inputKeys));
+        } else {
+            sendLine("INPUT " + seq + " " + inputKeys);
+        }
+    }
+
+    // 이동 명령 전송 (협상된 프로토콜에 맞게)
+    private void sendMove(int x, int y) {
+        if (binaryProtocol) {
+            sendFrame(BinaryProtocol.encodePoint(BinaryProtocol.FRAME_MOVE, x, y));
+        } else {
+            sendLine("MOVE " + x + " " + y);
+        }
+    }
+
+    // 미사일 발사 명령 전송 (협상된 프로토콜에 맞게)
+    private void sendMissile(int x, int y) {
+        if (binaryProtocol) {
+            sendFrame(BinaryProtocol.encodePoint(BinaryProtocol.FRAME_MISSILE, x, y));
+        } else {
+            sendLine("MISSILE " + x + " " + y);
+        }
+    }
+
+    // 텍스트 명령 한 줄 전송 (EDT와 수신 스레드가 함께 쓰므로 out 단위로 동기화)
+    private void sendLine(String line) {
+        sendFrame((line + "\n").getBytes(java.nio.charset.StandardCharsets.UTF_8));
+    }
+
+    private void sendFrame(byte[] frame) {
+        synchronized (out) {
+            try {
+                out.write(frame);
+                out.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 
     // 사용자의 미사일 발사 처리
@@ -482,14 +675,14 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
             if (currentTime - lastMissileFiredTime >= 1000) { // 1초(1000ms)가 지났는지 확인
                 lastMissileFiredTime = currentTime; // 마지막 발사 시간 업데이트
 
-                Player player = players.get(clientId);
-                if (player != null) {
-                    if (player.isDoubleMissileEnabled()) {
-                        out.println("MISSILE " + (player.getX() + 20) + " " + (player.getY() - 20));
-                        out.println("MISSILE " + (player.getX() + 60) + " " + (player.getY() - 20));
-                    } else {
-                        out.println("MISSILE " + (player.getX() + 40) + " " + (player.getY() - 20));
-                    }
+                if (!reconcile()) return;
+                int x = predictedX;
+                int y = predictedY;
+                if (reconciledState.doubleMissileEnabled) {
+                    sendMissile(x + 20, y - 20);
+                    sendMissile(x + 60, y - 20);
+                } else {
+                    sendMissile(x + 40, y - 20);
                 }
             } else {
                 System.out.println("Missile cooldown active. Wait before firing again.");
@@ -508,76 +701,187 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
 
     public void keyTyped(KeyEvent e) {}
 
-    // 서버에서 받는 내용들을 처리
-    private class ServerListener implements Runnable {
+    // 수신 스레드가 디코더 스레드로 넘기는 프레임 하나 (텍스트 줄 또는 바이너리 프레임 내용 복사본, 다 쓰면 재사용)
+    private static final class InboundFrame {
+        static final int TEXT = -1;
+
+        int type;
+        String text;
+        byte[] data = new byte[256];
+        int length;
+        long receivedAt; // 수신 시각 (System.nanoTime, 디코더가 밀려도 보간은 실제 수신 간격 기준)
+        final BinaryProtocol.Reader reader = new BinaryProtocol.Reader();
+    }
+
+    // 디코더가 스냅샷마다 발행하는 내 플레이어의 서버 상태 (불변, EDT가 예측 보정과 미사일 발사에 쓴다)
+    private static final class LocalPlayerState {
+        final String id;
+        final int x, y; // 내 시점 좌표
+        final int ackedInputSeq; // 서버가 적용한 마지막 입력
+        final boolean doubleMissileEnabled;
+
+        LocalPlayerState(String id, int x, int y, int ackedInputSeq, boolean doubleMissileEnabled) {
+            this.id = id;
+            this.x = x;
+            this.y = y;
+            this.ackedInputSeq = ackedInputSeq;
+            this.doubleMissileEnabled = doubleMissileEnabled;
+        }
+    }
+
+    // 1단계: 서버에서 받은 바이트를 프레임 단위로 끊어 디코더 큐에 넣기만 한다 (해석하지 않음)
+    private class ServerReader implements Runnable, BinaryProtocol.FrameHandler {
 
-        // 지속적으로 서버에서 메시지 수신
+        // 지속적으로 서버에서 메시지 수신 (텍스트 줄 또는 바이너리 프레임)
         public void run() {
             try {
-                String message;
-                while ((message = in.readLine()) != null) {
-//                    System.out.println("Received message: " + message); // 디버그용 출력
-                    String[] tokens = message.split(" ");
-                    switch (tokens[0]) {
-                        case "GAMESTART":
-                            isGameStarted = true;
-                            repaint();
-                            break;
-                        case "WAITING":
-                            break;
-                        case "SETTINGS":
-                            parseSettings(Arrays.copyOfRange(tokens, 1, tokens.length));
-//                            updateScaledImages();
-                            break;
-                        case "GAMESTATE":
-                            parseGameState(tokens);
-                            break;
-                        case "DEFEAT":
-                            gameOver = true;
-                            winner = "패배";
-                            showCustomDialog("Game Over", "You have been defeated!", false);
-                            resetClient(); // 클라이언트 초기화
-                            break;
-
-                        case "VICTORY":
-                            gameOver = true;
-                            winner = "승리";
-                            showCustomDialog("Victory", "Congratulations! You won!", true);
-                            resetClient(); // 클라이언트 초기화
-                            break;
-                        case "CONNECTED":
-                            handleConnectedMessage(tokens);
-                            break;
-                        case "MAPFULL":
-                            JOptionPane.showMessageDialog(mainFrame,
-                                    "The selected map is full. Please choose another map.",
-                                    "Map Full", JOptionPane.WARNING_MESSAGE);
-                            resetClient(); // 초기화면으로 돌아가기
-                            break;
-                        default:
-                            System.err.println("Unknown command: " + message);
-                    }
+                while (in.next(this)) {
+                    // 프레임마다 onText/onBinary에서 큐에 넣음
                 }
             } catch (IOException e) {
                 e.printStackTrace();
             }
         }
 
-        // 사용자 초기화
-        private void resetClient() {
-            inGame = false; // 게임 상태 초기화
-            isGameStarted = false;
-            gameOver = false;
+        @Override
+        public void onBinary(int type, BinaryProtocol.Reader payload) {
+            // 판독기 버퍼는 다음 프레임에서 덮어쓰므로 내용을 복사해 넘긴다
+            InboundFrame frame = obtainFrame();
+            int length = payload.remaining();
+            if (frame.data.length < length) {
+                frame.data = new byte[Math.max(length, frame.data.length * 2)];
+            }
+            payload.readBytes(frame.data, 0, length);
+            frame.type = type;
+            frame.length = length;
+            enqueue(frame);
+        }
+
+        @Override
+        public void onText(String message) {
+            InboundFrame frame = obtainFrame();
+            frame.type = InboundFrame.TEXT;
+            frame.text = message;
+            enqueue(frame);
+        }
 
-            players.clear(); // 플레이어 정보 초기화
-            missiles.clear(); // 미사일 정보 초기화
-            obstacles.clear(); // 장애물 정보 초기화
+        private InboundFrame obtainFrame() {
+            InboundFrame frame = freeFrames.poll();
+            if (frame == null) frame = new InboundFrame();
+            frame.receivedAt = System.nanoTime();
+            return frame;
+        }
+
+        private void enqueue(InboundFrame frame) {
+            try {
+                inbound.put(frame); // 큐가 차면(디코더가 크게 밀리면) 읽기를 멈춰 TCP로 서버에 압력을 전달
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // 2단계: 프레임을 해석해 월드 상태를 채우고 발행
+    // 문자열 테이블, delta 기준 스냅샷 등 해석 상태는 이 스레드만 쓰고, 화면 조작은 EDT로 넘긴다.
+    private class SnapshotDecoder implements Runnable, BinaryProtocol.FrameHandler {
+
+        public void run() {
+            while (true) {
+                InboundFrame frame;
+                try {
+                    frame = inbound.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    decoder.setReceivedAt(frame.receivedAt);
+                    if (frame.type == InboundFrame.TEXT) {
+                        onText(frame.text);
+                    } else {
+                        frame.reader.reset(frame.data, 0, frame.length);
+                        onBinary(frame.type, frame.reader);
+                    }
+                } catch (RuntimeException e) {
+                    e.printStackTrace(); // 프레임 하나 실패로 디코더가 멈추지 않도록
+                } finally {
+                    frame.text = null;
+                    freeFrames.offer(frame);
+                }
+            }
+        }
+
+        // 바이너리 프레임 처리 (문자열 테이블, GAMESTATE, delta 스냅샷)
+        @Override
+        public void onBinary(int type, BinaryProtocol.Reader payload) {
+            decoder.decodeBinary(type, payload);
+        }
+
+        // 텍스트 명령 처리
+        @Override
+        public void onText(String message) {
+            String[] tokens = message.split(" ");
+            switch (tokens[0]) {
+                case "GAMESTART":
+                    isGameStarted = true;
+                    repaint();
+                    break;
+                case "WAITING":
+                    break;
+                case "SETTINGS":
+                    parseSettings(Arrays.copyOfRange(tokens, 1, tokens.length));
+//                            updateScaledImages();
+                    break;
+                case "GAMESTATE":
+                    decoder.parseGameState(tokens);
+                    break;
+                case "DEFEAT":
+                    gameOver = true;
+                    winner = "패배";
+                    resetClient(() -> showCustomDialog("Game Over", "You have been defeated!", false)); // 클라이언트 초기화
+                    break;
+
+                case "VICTORY":
+                    gameOver = true;
+                    winner = "승리";
+                    resetClient(() -> showCustomDialog("Victory", "Congratulations! You won!", true)); // 클라이언트 초기화
+                    break;
+                case "CONNECTED":
+                    handleConnectedMessage(tokens);
+                    break;
+                case "MAPFULL":
+                    resetClient(() -> JOptionPane.showMessageDialog(mainFrame,
+                            "The selected map is full. Please choose another map.",
+                            "Map Full", JOptionPane.WARNING_MESSAGE)); // 초기화면으로 돌아가기
+                    break;
+                case "SERVERFULL":
+                    resetClient(() -> JOptionPane.showMessageDialog(mainFrame,
+                            "The server is full. Please try again later.",
+                            "Server Full", JOptionPane.WARNING_MESSAGE)); // 초기화면으로 돌아가기
+                    break;
+                default:
+                    System.err.println("Unknown command: " + message);
+            }
+        }
+
+        // 사용자 초기화 (notice: 초기 화면으로 돌아가기 전에 EDT에서 띄울 안내)
+        private void resetClient(Runnable notice) {
+            // 빈 월드 발행 (플레이어, 미사일, 장애물, 아이템 정보 초기화)
+            worlds.back().clear();
+            worlds.publish();
+            localState.set(null);
 
             clientId = null; // 클라이언트 ID 초기화
-            repaint(); // 화면 갱신
+            decoder.setClientId(null);
+            binaryProtocol = false; // 다음 맵 선택 시 다시 협상
 
-            // 초기 화면으로 전환
+            // 다이얼로그는 EDT에서 비동기로 띄운다 (모달로 떠 있는 동안에도 수신과 해석은 계속된다)
+            // 닫히면 게임 상태를 초기화하고 초기 화면으로 전환
             SwingUtilities.invokeLater(() -> {
+                notice.run();
+                inGame = false; // 게임 상태 초기화
+                isGameStarted = false;
+                gameOver = false;
+                repaint(); // 화면 갱신
                 cardLayout.show(mainFrame.getContentPane(), "MAP_SELECTION");
             });
         }
@@ -589,17 +893,12 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
                 return;
             }
 
-            clientId = tokens[1];
+            clientId = tokens[1]; // EDT가 새 ID를 보면 입력 seq를 0부터 다시 센다
+            decoder.setClientId(clientId);
             System.out.println("Connected with clientId: " + clientId);
-
-            // 타이머를 처음으로 시작
-            if (!timerStarted) {
-                timer.start();
-                timerStarted = true;
-            }
         }
 
-        // 게임 종료시 승리, 패배 표시 다이얼로그 로직
+        // 게임 종료시 승리, 패배 표시 다이얼로그 로직 (EDT에서 호출)
         private void showCustomDialog(String title, String message, boolean isVictory) {
             JDialog dialog = new JDialog(mainFrame, title, true);
             dialog.setSize(400, 400);
@@ -661,89 +960,22 @@ public class ShootingGameClient extends JPanel implements ActionListener, KeyLis
 
     }
 
-    // 서버에게서 게임 상태를 지속적으로 반영
-    public void parseGameState(String[] tokens) {
-        synchronized (players) {
-            players.clear();
-        }
-        synchronized (missiles) {
-            missiles.clear();
-        }
-        synchronized (obstacles) {
-            obstacles.clear();
-        }
-        synchronized (items) {
-            items.clear();
+    // 해석 결과 받기 (디코더 스레드): 월드가 발행되면 다시 그리고, 내 플레이어 상태는 EDT의 예측 보정으로 넘긴다
+    private class DecodedState implements GameStateDecoder.Listener {
+        @Override
+        public void worldPublished() {
+            repaint();
         }
 
-        int i = 1;
-        try {
-            while (i < tokens.length) {
-                if (tokens[i].equals("PLAYER")) {
-                    String id = tokens[i + 1];
-                    int x = Integer.parseInt(tokens[i + 2]);
-                    int y = Integer.parseInt(tokens[i + 3]);
-                    int health = Integer.parseInt(tokens[i + 4]);
-                    String imagePath = tokens[i + 5];
-                    boolean doubleMissileEnabled = Boolean.parseBoolean(tokens[i + 6]); // 상태 추가
-
-                    synchronized (players) {
-                        Player player = new Player(id, x, y, health, imagePath);
-                        player.setDoubleMissileEnabled(doubleMissileEnabled); // 상태 업데이트
-                        players.put(id, player);
-                    }
-                    i += 7; // 플레이어 데이터 길이 반영
-                } else if (tokens[i].equals("MISSILE")) {
-                    String ownerId = tokens[i + 1];
-                    int x = Integer.parseInt(tokens[i + 2]);
-                    int y = Integer.parseInt(tokens[i + 3]);
-
-                    synchronized (missiles) {
-                        missiles.add(new Missile(ownerId, x, y));
-                    }
-                    i += 4;
-                } else if (tokens[i].equals("OBSTACLE")) {
-                    int x = Integer.parseInt(tokens[i + 1]);
-                    int y = Integer.parseInt(tokens[i + 2]);
-                    int width = Integer.parseInt(tokens[i + 3]);
-                    int height = Integer.parseInt(tokens[i + 4]);
-                    boolean movingRight = Boolean.parseBoolean(tokens[i + 5]);
-                    String imagePath = tokens[i + 6]; // 이미지 경로 추가
-
-                    synchronized (obstacles) {
-                        Obstacle obstacle = new Obstacle(x, y, width, height, movingRight);
-                        obstacle.setImagePath(imagePath); // 이미지 경로 설정
-                        obstacles.add(obstacle);
-                    }
-                    i += 7;
-                } else if (tokens[i].equals("ITEM")) {
-                    int x = Integer.parseInt(tokens[i + 1]);
-                    int y = Integer.parseInt(tokens[i + 2]);
-                    int width = Integer.parseInt(tokens[i + 3]);
-                    int height = Integer.parseInt(tokens[i + 4]);
-                    String type = tokens[i + 5];
-                    boolean movingRight = Boolean.parseBoolean(tokens[i + 6]);
-
-                    synchronized (items) {
-                        items.add(new Item(x, y, width, height, type, movingRight));
-                    }
-                    i += 7;
-                } else {
-                    System.err.println("Unknown token type: " + tokens[i]);
-                    break;
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error parsing GAMESTATE: " + Arrays.toString(tokens));
-            e.printStackTrace();
+        @Override
+        public void ownPlayer(String id, int x, int y, int ackedInputSeq, boolean doubleMissileEnabled) {
+            localState.set(new LocalPlayerState(id, x, y, ackedInputSeq, doubleMissileEnabled));
         }
 
-        if (!timerStarted) {
-            timer.start();
-            timerStarted = true;
+        @Override
+        public void acknowledge(int seq) {
+            sendFrame(BinaryProtocol.encodeValue(BinaryProtocol.FRAME_ACK, seq));
         }
-
-        repaint();
     }
 
     // 클라이언트 서버 실행 메인
@@ -1,12 +1,13 @@
 import java.io.*;
 import java.net.*;
-import java.util.concurrent.*;
-import java.util.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 
 //서버 클래스
 public class ShootingGameServer {
     private static final int PORT = 12345;
-    private static ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    public static TickScheduler tickScheduler = new TickScheduler(ServerConfig.TICK_SHARDS, ServerConfig.TICK_MILLIS);
 
     public static final int PLAYER_WIDTH = 90;
     public static final int PLAYER_HEIGHT = 90;
@@ -16,586 +17,255 @@ public class ShootingGameServer {
     public static final int SERVER_HEIGHT = 770;
 
     public static MapManager mapManager = new MapManager(); // 접근 제어자를 public으로 변경
+    public static ConnectionLimiter connectionLimiter = new ConnectionLimiter(ServerConfig.MAX_CONNECTIONS);
+    public static ServerMetrics metrics = new ServerMetrics();
 
     public static void main(String[] args) {
+        // 서버는 이미지를 다루지 않으므로 디스플레이 없는 환경에서도 AWT 없이 실행
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
         System.out.println("Server is running...");
 
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
-            // 스케줄러 시작
-            scheduler.scheduleAtFixedRate(() -> {
-                for (MapInstance map : mapManager.getMaps().values()) {
-                    map.updateMissiles();
-                    map.checkCollisions();
-                    map.broadcastGameState();
-                }
-            }, 0, 50, TimeUnit.MILLISECONDS);
+        // 샤드 스케줄러 시작 (맵마다 하나의 샤드 스레드에서 틱 실행)
+        tickScheduler.start(ServerConfig.SHARD_REPORT_MILLIS);
+        metrics.start(ServerConfig.METRICS_PORT, ServerConfig.METRICS_JMX);
 
-            // 클라이언트 연결 처리
-            while (true) {
-                Socket clientSocket = serverSocket.accept();
-                new ClientHandler(clientSocket).start();
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        if ("nio".equalsIgnoreCase(ServerConfig.NETWORK_ENGINE)) {
+            runNioServer();
+        } else {
+            runBlockingServer();
         }
     }
-}
-
-// 맵 관리 클래스
-class MapManager {
-    private Map<String, MapInstance> maps = new ConcurrentHashMap<>();
 
-    public Map<String, MapInstance> getMaps() {
-        return maps;
+    // NIO 셀렉터 기반 엔진: 소수의 이벤트 루프 스레드가 모든 연결 처리
+    private static void runNioServer() {
+        try {
+            new NioServer(PORT, ServerConfig.NIO_EVENT_LOOPS, connectionLimiter).run();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
-    // 맵과 클라이언트 연결 로직
-    public MapInstance assignPlayerToMap(Player player, String mapId) {
-        if (mapId == null || player == null) {
-            throw new IllegalArgumentException("Map ID and Player cannot be null");
-        }
+    // 블로킹 소켓 엔진: 연결마다 스레드 하나
+    private static void runBlockingServer() {
+        // 블로킹 모드 채널로 받아 연결마다 SocketChannel의 모아 쓰기를 쓸 수 있게 한다
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(PORT), ServerConfig.ACCEPT_BACKLOG);
+            // 클라이언트 연결 처리 (연결마다 가상 스레드 또는 플랫폼 스레드 하나)
+            Thread.Builder threadBuilder = "platform".equalsIgnoreCase(ServerConfig.CONNECTION_THREADS)
+                    ? Thread.ofPlatform().name("client-", 0)
+                    : Thread.ofVirtual().name("client-", 0);
+            System.out.println("Connection threads: " + ServerConfig.CONNECTION_THREADS
+                    + ", max connections: " + connectionLimiter.getMaxConnections());
 
-        // 맵이 없으면 새로 생성
-        MapInstance map = maps.computeIfAbsent(mapId, id -> {
-            System.out.println("Creating new map with ID: " + id);
-            return new MapInstance(id);
-        });
+            while (true) {
+                Socket clientSocket = serverChannel.accept().socket();
 
-        // 기존에 동일한 ID의 플레이어가 있으면 삭제
-        map.getPlayers().remove(player.getId());
+                // 연결 수 제한을 넘으면 바로 거절
+                if (!connectionLimiter.tryAcquire()) {
+                    rejectConnection(clientSocket);
+                    continue;
+                }
 
-        synchronized (map) {
-            if (!map.canAddPlayer()) {
-                throw new IllegalStateException("Map is full: " + mapId);
+                try {
+                    threadBuilder.start(new ClientHandler(clientSocket));
+                } catch (RuntimeException | OutOfMemoryError e) {
+                    // 스레드 생성 실패 시 슬롯 반환 후 연결 종료
+                    connectionLimiter.release();
+                    System.err.println("Failed to start client thread: " + e);
+                    clientSocket.close();
+                }
             }
-
-            map.addPlayer(player);
+        } catch (IOException e) {
+            e.printStackTrace();
         }
-
-        return map;
     }
-}
 
-// 맵 클래스
-class MapInstance {
-    private static final int MAX_PLAYERS = 2; // 맵당 최대 플레이어 수
-    private String mapId;
-    private String backgroundImagePath; // 맵 배경 이미지 경로
-    private String missileImagePath; // 맵에 따른 미사일 이미지 경로
-    private String obstacleImagePath; // 장애물 이미지 경로
-    private Map<String, Player> players = new ConcurrentHashMap<>();
-    private List<Missile> missiles = Collections.synchronizedList(new ArrayList<>());
-    private ObstacleManager obstacleManager;
-
-    private boolean gameStarted = false; // 게임 시작 여부
-
-    private boolean gameOver = false;
-
-    private ItemManager itemManager;
-
-    // 맵 생성 및 초기 설정
-    public MapInstance(String mapId) {
-        this.mapId = mapId;
-
-        // 맵 ID에 따라 배경 이미지 설정
-        switch (mapId) {
-            case "Map1":
-                this.backgroundImagePath = "images/back1.png";
-                this.missileImagePath = "images/saliva.png"; // 사막 테마 미사일
-                this.obstacleImagePath = "images/obstacle1.png"; // 맵1의 장애물 이미지
-                break;
-            case "Map2":
-                this.backgroundImagePath = "images/back2.png";
-                this.missileImagePath = "images/missile.png"; // 우주 테마 미사일
-                this.obstacleImagePath = "images/obstacle2.png"; // 맵2의 장애물 이미지
-                break;
-            case "Map3":
-                this.backgroundImagePath = "images/back3.png";
-                this.missileImagePath = "images/ink.png"; // 바다 테마 미사일
-                this.obstacleImagePath = "images/obstacle3.png"; // 맵3의 장애물 이미지
-                break;
-            default:
-                this.backgroundImagePath = "images/back1.png"; // 기본 맵 설정
-                this.missileImagePath = "images/saliva.png"; // 사막 테마 미사일
-                this.obstacleImagePath = "images/obstacle1.png"; // 맵1의 장애물 이미지
-                System.err.println("Invalid mapId: " + mapId + ", defaulting to back1.png");
+    // 연결 수 초과 시 거절 메시지 전송 후 종료
+    // 메시지 뒤에 FIN을 보내고 정상적으로 닫는다 (RST로 끊으면 클라이언트가 SERVERFULL을 받기 전에 버려질 수 있다)
+    private static void rejectConnection(Socket socket) {
+        try (socket) {
+            new PrintWriter(socket.getOutputStream(), true).println("SERVERFULL");
+            socket.shutdownOutput();
+        } catch (IOException e) {
+            // 거절 대상 연결이므로 오류는 무시
+        }
+        long rejected = connectionLimiter.getRejected();
+        if (rejected == 1 || rejected % 1000 == 0) {
+            System.err.println("Connection rejected: " + connectionLimiter);
         }
-
-        this.obstacleManager = new ObstacleManager(ShootingGameServer.SERVER_WIDTH, ShootingGameServer.SERVER_HEIGHT);
-        this.obstacleManager.setObstacleImagePath(obstacleImagePath); // 이미지 경로 설정
-
-        this.itemManager = new ItemManager(ShootingGameServer.SERVER_WIDTH, ShootingGameServer.SERVER_HEIGHT);
-
-    }
-
-    // 게임 종료
-    public boolean isGameOver() {
-        return gameOver;
-    }
-
-    // 게임 오버 상태 관리
-    public void setGameOver(boolean gameOver) {
-        this.gameOver = gameOver;
     }
+}
 
-    // 게임 시작
-    public void startGame() {
-        if (gameStarted) return; // 이미 시작된 경우 무시
-
-        gameStarted = true;
-        startObstacleThreads();
-        broadcast("GAMESTART");
-        System.out.println("Game started in map: " + mapId);
-    }
+// 클라이언트에게서 받은 메시지 처리 (블로킹 엔진: 연결 하나당 스레드 하나에서 실행)
+class ClientHandler implements Runnable {
+    private Socket socket;
+    private BinaryProtocol.FrameReader in;
 
-    public String getMissileImagePath() {
-        return missileImagePath;
+    public ClientHandler(Socket socket) {
+        this.socket = socket;
     }
 
-    public String getBackgroundImagePath() {
-        return backgroundImagePath;
+    @Override
+    public void run() {
+        ClientSession session = null;
+        BlockingConnection connection = null;
+        try {
+            in = new BinaryProtocol.FrameReader(socket.getInputStream(), ServerConfig.MAX_FRAME_BYTES);
+            connection = new BlockingConnection(socket.getChannel());
+            connection.start();
+            session = new ClientSession(connection);
+
+            // 클라이언트 요청 처리 (텍스트 명령 또는 바이너리 프레임)
+            while (in.next(session)) {
+                // 프레임마다 세션에서 처리
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (RuntimeException e) {
+            // 잘못된 명령/프레임은 NIO 엔진과 동일하게 로그를 남기고 연결 종료
+            System.err.println("Invalid frame from " + socket.getRemoteSocketAddress() + ": " + e);
+            e.printStackTrace();
+        } finally {
+            if (session != null) {
+                session.handleDisconnect();
+            }
+            if (connection != null) {
+                connection.close(); // 쓰기 스레드 종료 + 소켓 닫기
+            } else {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            ShootingGameServer.connectionLimiter.release(); // 연결 슬롯 반환
+        }
     }
+}
 
-    public String getMapId() {
-        return mapId;
-    }
+// 블로킹 소켓으로 메시지 전송 (텍스트 줄과 바이너리 프레임 공용)
+// 보내는 스레드는 송신 대기열에 넣기만 하고, 연결마다 하나인 쓰기 스레드가 소켓에 쓴다.
+// 소켓 송신 버퍼가 가득 차 쓰기 스레드가 막혀도 틱 스레드는 기다리지 않는다.
+// 틱 안에서 보낸 프레임은 틱이 끝날 때(WriteBatch) 한 번에 깨워, 쌓인 프레임을 모아 쓰기 한 번으로 보낸다.
+class BlockingConnection implements ClientConnection, WriteBatch.Target {
+    private static final int MAX_GATHER = 64; // 쓰기 한 번에 모아 보낼 최대 프레임 수
 
-    public Map<String, Player> getPlayers() {
-        return players;
-    }
+    private final SocketChannel channel;
+    private final OutboundQueue outbound = new OutboundQueue(ServerConfig.OUTBOUND_MAX_BYTES, ServerConfig.OUTBOUND_MAX_LAG_MILLIS);
+    private volatile boolean closed = false;
 
-    public List<Missile> getMissiles() {
-        return missiles;
+    BlockingConnection(SocketChannel channel) {
+        this.channel = channel;
     }
 
-    public synchronized boolean canAddPlayer() {
-        return players.size() < MAX_PLAYERS; // 플레이어 수가 제한 이하인지 확인
+    // 쓰기 스레드 시작 (연결 처리 스레드와 같은 종류)
+    void start() {
+        Thread.Builder builder = "platform".equalsIgnoreCase(ServerConfig.CONNECTION_THREADS)
+                ? Thread.ofPlatform().daemon(true) : Thread.ofVirtual();
+        builder.name("writer-" + channel.socket().getPort()).start(this::writeLoop);
     }
 
-    // 맵에 플레이어 추가
-    public synchronized void addPlayer(Player player) {
-        if (players.size() >= MAX_PLAYERS) {
-            throw new IllegalStateException("Cannot add more players to the map: " + mapId);
-        }
-        players.put(player.getId(), player);
-        player.setAssignedMap(this);
-
-        if (!gameStarted) {
-            checkAndStartGame(); // 게임 시작 여부를 확인
-        }
+    @Override
+    public void send(String message) {
+        enqueueText(message, false);
     }
 
-    // 플레이어 수 체크하고 게임 시작
-    private void checkAndStartGame() {
-        if (players.size() == 2 && !gameStarted) { // 플레이어가 2명이고 게임이 시작되지 않은 경우
-            gameStarted = true;
-            startObstacleThreads();
-            broadcast("GAMESTART");
-            System.out.println("Game started in map: " + mapId);
-        }
+    @Override
+    public void sendBinary(byte[] data, int offset, int length) {
+        enqueueBinary(data, offset, length, false);
     }
 
-    // 장애물 스레드 시작
-    private void startObstacleThreads() {
-        obstacleManager.startSpawnThread();
-        obstacleManager.startMoveThread();
-        itemManager.startSpawnThread();
-        itemManager.startMoveThread();
-        System.out.println("Obstacle threads started for map: " + mapId);
+    @Override
+    public void sendSnapshot(String message) {
+        enqueueText(message, true);
     }
 
-    // 맵에 있는 플레이어들에게 메시지 전송
-    public void broadcast(String message) {
-        // 모든 플레이어에게 메시지를 전송
-        for (Player player : players.values()) {
-            PrintWriter out = player.getOut();
-            if (out != null) {
-                out.println(message); // 메시지를 전송
-            }
-        }
+    @Override
+    public void sendSnapshotBinary(byte[] data, int offset, int length) {
+        enqueueBinary(data, offset, length, true);
     }
 
-    // 미사일 움직임 관리 로직
-    public void updateMissiles() {
-        List<Missile> toRemove = new ArrayList<>();
-        synchronized (missiles) {
-            for (Missile missile : missiles) {
-                missile.setY(missile.getY() - 7); // 미사일 위로 이동
-                if (missile.getY() < 0) {
-                    toRemove.add(missile);
-                }
-            }
-            missiles.removeAll(toRemove);
-        }
+    private void enqueueText(String message, boolean snapshot) {
+        if (closed) return;
+        ByteBuffer frame = BufferPool.encodeLine(message.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        ShootingGameServer.metrics.outboundText(message, frame.remaining());
+        enqueue(frame, snapshot);
     }
 
-    // 아이템을 먹었을 때 적용시키는 로직
-    private void applyItemEffect(Player player, Item item) {
-        System.out.println("Applying effect of item type: " + item.getType());
-
-        if ("DOUBLE_MISSILE".equals(item.getType())) {
-            player.enableDoubleMissile();
-            System.out.println("Double missile enabled for player: " + player.getId());
-
-            new Timer().schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    player.disableDoubleMissile();
-                    System.out.println("Double missile disabled for player: " + player.getId());
-                }
-            }, 10000);
-        } else {
-            System.out.println("Unknown item type: " + item.getType());
-        }
+    private void enqueueBinary(byte[] data, int offset, int length, boolean snapshot) {
+        if (closed) return;
+        ShootingGameServer.metrics.outboundBinary(data, offset, length);
+        enqueue(BufferPool.copyOf(data, offset, length), snapshot);
     }
 
-    // 미사일, 장애물, 아이템에 맞았는지 확인 로직
-    public void checkCollisions() {
-        if (gameOver) return; // 게임 종료 시 충돌 판정 중지
-
-        List<Missile> toRemoveMissiles = new ArrayList<>();
-        synchronized (missiles) {
-            for (Missile missile : missiles) {
-                for (Player player : players.values()) {
-                    // 자신이 쏜 미사일은 충돌 대상에서 제외
-                    if (missile.getOwnerId().equals(player.getId())) {
-                        continue;
-                    }
-
-                    int playerX = player.getX();
-                    int playerY = player.getY();
-
-                    // 상대 플레이어의 좌표 대칭 처리
-                    if (!missile.getOwnerId().equals(player.getId())) {
-                        playerX = ShootingGameServer.SERVER_WIDTH - playerX - ShootingGameServer.PLAYER_WIDTH;
-                        playerY = ShootingGameServer.SERVER_HEIGHT - playerY - ShootingGameServer.PLAYER_HEIGHT;
-                    }
-
-                    // 충돌 판정
-                    if (missile.getX() >= playerX && missile.getX() <= playerX + ShootingGameServer.PLAYER_WIDTH &&
-                            missile.getY() >= playerY && missile.getY() <= playerY + ShootingGameServer.PLAYER_HEIGHT) {
-                        player.reduceHealth(10); // 체력 감소
-                        toRemoveMissiles.add(missile); // 충돌한 미사일 제거
-                        checkGameOver(player); // 게임 종료 여부 확인
-                    }
-                }
-            }
-            missiles.removeAll(toRemoveMissiles); // 충돌한 미사일 제거
-        }
-
-        // 장애물과 플레이어 충돌 확인
-        List<Obstacle> toRemoveObstacles = new ArrayList<>();
-        for (Obstacle obstacle : obstacleManager.getObstacles()) {
-            for (Player player : players.values()) {
-                int obstacleX = obstacle.getX();
-                int obstacleY = obstacle.getY();
-
-                // 플레이어 2의 경우 장애물 대칭 좌표를 사용
-                if (!player.getId().equals(players.keySet().iterator().next())) {
-                    obstacleX = ShootingGameServer.SERVER_WIDTH - obstacleX - obstacle.getWidth();
-                    obstacleY = ShootingGameServer.SERVER_HEIGHT - obstacleY - obstacle.getHeight();
-                }
-
-                // 충돌 판정
-                if (player.getX() < obstacleX + obstacle.getWidth() &&
-                        player.getX() + ShootingGameServer.PLAYER_WIDTH > obstacleX &&
-                        player.getY() < obstacleY + obstacle.getHeight() &&
-                        player.getY() + ShootingGameServer.PLAYER_HEIGHT > obstacleY) {
-                    player.reduceHealth(10); // 체력 감소
-                    toRemoveObstacles.add(obstacle); // 충돌한 장애물 제거
-                    checkGameOver(player); // 게임 종료 여부 확인
-                }
-            }
+    private void enqueue(ByteBuffer frame, boolean snapshot) {
+        int result = outbound.offer(frame, snapshot);
+        if (result != OutboundQueue.ACCEPTED) {
+            System.err.println("Slow client (" + OutboundQueue.describe(result) + "), closing connection: "
+                    + channel.socket().getRemoteSocketAddress());
+            close(); // 읽기 스레드가 종료 처리
+            return;
         }
-        obstacleManager.getObstacles().removeAll(toRemoveObstacles);
-
-        // 아이템과 플레이어 충돌 확인
-        List<Item> toRemoveItems = new ArrayList<>();
-        for (Player player : players.values()) {
-            for (Item item : itemManager.getItems()) {
-                int itemX = item.getX();
-                int itemY = item.getY();
-
-                // 상대 플레이어의 대칭 좌표 계산
-                if (!player.getId().equals(players.keySet().iterator().next())) {
-                    itemX = ShootingGameServer.SERVER_WIDTH - itemX - item.getWidth();
-                    itemY = ShootingGameServer.SERVER_HEIGHT - itemY - item.getHeight();
-                }
-
-                // 충돌 판정
-                if (player.getX() < itemX + item.getWidth() &&
-                        player.getX() + ShootingGameServer.PLAYER_WIDTH > itemX &&
-                        player.getY() < itemY + item.getHeight() &&
-                        player.getY() + ShootingGameServer.PLAYER_HEIGHT > itemY) {
-                    applyItemEffect(player, item); // 아이템 효과 적용
-                    toRemoveItems.add(item); // 충돌한 아이템 제거
-                }
-            }
+        if (!WriteBatch.defer(this)) {
+            outbound.requestFlush();
         }
-        itemManager.getItems().removeAll(toRemoveItems);
     }
 
-    // 게임 종료되었는지 확인
-    public void checkGameOver(Player player) {
-        if (player.getHealth() <= 0) {
-            System.out.println(player.getId() + " defeated in map " + mapId);
-            player.getOut().println("DEFEAT");
-
-            players.values().stream()
-                    .filter(p -> !p.getId().equals(player.getId()))
-                    .forEach(winner -> winner.getOut().println("VICTORY"));
-
-            // 맵 객체 삭제
-            ShootingGameServer.mapManager.getMaps().remove(mapId);
-            System.out.println("Map " + mapId + " has been deleted.");
-
-            // 게임 종료 상태 설정
-            setGameOver(true);
-        }
+    @Override
+    public void flushBatch() {
+        outbound.requestFlush();
     }
 
-    // 게임 상태를 클라이언트에게 전송
-    public void broadcastGameState() {
-        if (!gameStarted) return;
-
-        for (Player player : players.values()) {
-            StringBuilder state = new StringBuilder("GAMESTATE ");
-
-            // 플레이어 데이터
-            for (Player otherPlayer : players.values()) {
-                int x = otherPlayer.getX();
-                int y = otherPlayer.getY();
-
-                if (!player.getId().equals(otherPlayer.getId())) {
-                    x = ShootingGameServer.SERVER_WIDTH - x - ShootingGameServer.PLAYER_WIDTH;
-                    y = ShootingGameServer.SERVER_HEIGHT - y - ShootingGameServer.PLAYER_HEIGHT;
+    // 쓰기 요청이 오면 쌓인 프레임을 한 번의 모아 쓰기로 보낸다
+    private void writeLoop() {
+        ByteBuffer[] batch = new ByteBuffer[MAX_GATHER];
+        int count = 0;
+        try {
+            while ((count = outbound.take(batch)) >= 0) {
+                long total = 0;
+                for (int i = 0; i < count; i++) {
+                    total += batch[i].remaining();
                 }
-
-                state.append("PLAYER ").append(otherPlayer.getId()).append(" ")
-                        .append(x).append(" ").append(y).append(" ")
-                        .append(otherPlayer.getHealth()).append(" ")
-                        .append(otherPlayer.getImagePath()).append(" ")
-                        .append(otherPlayer.isDoubleMissileEnabled()).append(" ");
-            }
-
-            // 미사일 데이터
-            synchronized (missiles) {
-                for (Missile missile : missiles) {
-                    int x = missile.getX();
-                    int y = missile.getY();
-
-                    // 미사일 좌표 대칭
-                    if (!missile.getOwnerId().equals(player.getId())) {
-                        x = ShootingGameServer.SERVER_WIDTH - x - ShootingGameServer.MISSILE_WIDTH;
-                        y = ShootingGameServer.SERVER_HEIGHT - y - ShootingGameServer.MISSILE_HEIGHT;
+                // 블로킹 모드에서는 보통 한 번에 다 쓰지만, 나눠 쓰인 경우에도 남은 부분을 이어서 보낸다
+                int start = 0;
+                while (total > 0) {
+                    long written = channel.write(batch, start, count - start);
+                    ShootingGameServer.metrics.socketWrite(count - start, written);
+                    total -= written;
+                    while (start < count && !batch[start].hasRemaining()) {
+                        start++;
                     }
-
-                    state.append("MISSILE ").append(missile.getOwnerId()).append(" ")
-                            .append(x).append(" ").append(y).append(" ");
-                }
-            }
-
-            // 장애물 데이터
-            for (Obstacle obstacle : obstacleManager.getObstacles()) {
-                int x = obstacle.getX();
-                int y = obstacle.getY();
-
-                // 현재 플레이어 기준으로 장애물 대칭
-                if (!player.getId().equals(players.keySet().iterator().next())) {
-                    x = ShootingGameServer.SERVER_WIDTH - x - obstacle.getWidth();
-                    y = ShootingGameServer.SERVER_HEIGHT - y - obstacle.getHeight();
-                }
-
-                state.append("OBSTACLE ").append(x).append(" ")
-                        .append(y).append(" ").append(obstacle.getWidth()).append(" ")
-                        .append(obstacle.getHeight()).append(" ").append(obstacle.isMovingRight()).append(" ").append(obstacle.getImagePath())      .append(" ");
-            }
-
-            // 아이템 데이터
-            for (Item item : itemManager.getItems()) {
-                int x = item.getX();
-                int y = item.getY();
-
-                // 대칭 처리
-                if (!player.getId().equals(players.keySet().iterator().next())) {
-                    x = ShootingGameServer.SERVER_WIDTH - x - item.getWidth();
-                    y = ShootingGameServer.SERVER_HEIGHT - y - item.getHeight();
                 }
-
-                state.append("ITEM ").append(x).append(" ").append(y).append(" ")
-                        .append(item.getWidth()).append(" ").append(item.getHeight()).append(" ")
-                        .append(item.getType()).append(" ").append(item.isMovingRight()).append(" ");
-            }
-
-            // 클라이언트에 전송
-            PrintWriter out = player.getOut();
-            if (out != null) {
-                out.println(state.toString());
-//                    System.out.println("Broadcasted state to player: " + player.getId());
+                releaseAll(batch, count);
+                count = 0;
             }
+        } catch (IOException e) {
+            close(); // 끊긴 연결: 읽기 스레드가 종료 처리
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            releaseAll(batch, count);
         }
     }
-}
-
-// 클라이언트에게서 받은 메시지 처리
-class ClientHandler extends Thread {
-    private Socket socket;
-    private PrintWriter out;
-    private BufferedReader in;
-    private Player player;
-    private String selectedMapId;
 
-    public ClientHandler(Socket socket) {
-        this.socket = socket;
+    private static void releaseAll(ByteBuffer[] batch, int count) {
+        for (int i = 0; i < count; i++) {
+            BufferPool.release(batch[i]);
+            batch[i] = null;
+        }
     }
 
     @Override
-    public void run() {
+    public void close() {
+        if (closed) return;
+        closed = true;
+        outbound.close();
         try {
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-            out = new PrintWriter(socket.getOutputStream(), true);
-
-            // 클라이언트 요청 처리
-            String message;
-            while ((message = in.readLine()) != null) {
-                String[] tokens = message.split(" ");
-                switch (tokens[0]) {
-                    case "MAPSELECT":
-                        handleMapSelect(tokens[1]); // 맵 선택 처리
-                        break;
-                    case "READY":
-                        handleReady(); // 준비 상태 처리
-                        break;
-                    case "MOVE":
-                        handleMove(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
-                        break;
-                    case "MISSILE":
-                        handleMissile(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
-                        break;
-                    default:
-                        System.err.println("Unknown command: " + message);
-                }
-            }
+            channel.close();
         } catch (IOException e) {
             e.printStackTrace();
-        } finally {
-            // 클라이언트 종료 시 로그 출력
-            if (player != null) {
-                System.out.println("Client disconnected: " + player.getId());
-
-                MapInstance map = player.getAssignedMap();
-                if (map != null) {
-                    map.getPlayers().remove(player.getId()); // 맵에서 플레이어 제거
-
-                    // 게임이 종료되지 않은 상태에서만 승리 메시지 전송
-                    if (!map.isGameOver() && !map.getPlayers().isEmpty()) {
-                        Player remainingPlayer = map.getPlayers().values().iterator().next();
-                        PrintWriter out = remainingPlayer.getOut();
-                        if (out != null) {
-                            out.println("VICTORY"); // 승리 메시지 전송
-                        }
-                    }
-
-                    // 게임 종료 상태에서 맵 삭제
-                    if (map.getPlayers().isEmpty()) {
-                        ShootingGameServer.mapManager.getMaps().remove(map.getMapId());
-                        System.out.println("Map " + map.getMapId() + " has been deleted.");
-                    }
-                }
-            } else {
-                System.out.println("Client disconnected before map selection.");
-            }
-            try {
-                socket.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
-
-
-    private void handleMapSelect(String mapId) {
-        selectedMapId = mapId; // 선택된 맵 ID 저장
-
-        // 새로운 Player 객체 생성
-        // 맵에 따른 플레이어 이미지 설정
-        String playerImagePath;
-        switch (mapId) {
-            case "Map1": // 사막
-                playerImagePath = "images/camel" + (new Random().nextInt(5) + 1)  +".png";
-                break;
-            case "Map2": // 우주
-                playerImagePath = "images/spaceship" + (new Random().nextInt(5) + 2) + ".png";
-                break;
-            case "Map3": // 바다
-                playerImagePath = "images/octopus" + (new Random().nextInt(9) + 1) +".png";
-                break;
-            default:
-                playerImagePath = "images/default_player.png"; // 기본 이미지
-                break;
-        }
-
-        player = new Player(UUID.randomUUID().toString(), 180, 600, 100, playerImagePath);
-        player.setOut(out);
-
-        try {
-            MapInstance map = ShootingGameServer.mapManager.assignPlayerToMap(player, selectedMapId);
-
-            out.println("SETTINGS " +
-                    "PLAYER_WIDTH " + ShootingGameServer.PLAYER_WIDTH + " " +
-                    "PLAYER_HEIGHT " + ShootingGameServer.PLAYER_HEIGHT + " " +
-                    "MISSILE_WIDTH " + ShootingGameServer.MISSILE_WIDTH + " " +
-                    "MISSILE_HEIGHT " + ShootingGameServer.MISSILE_HEIGHT + " " +
-                    "BACKGROUND_IMAGE " + map.getBackgroundImagePath() + " " +
-                    "PLAYER_IMAGE " + player.getImagePath() + " " +
-                    "MISSILE_IMAGE " + map.getMissileImagePath());
-
-            out.println("CONNECTED " + player.getId());
-        } catch (IllegalStateException e) {
-            out.println("MAPFULL"); // 맵이 가득 찬 경우 클라이언트에 알림
-        }
-    }
-
-    private void handleReady() {
-        if (player != null) {
-            player.setReady(true); // 현재 플레이어를 준비 상태로 설정
-            MapInstance map = player.getAssignedMap();
-
-            if (map != null) {
-                System.out.println("Player " + player.getId() + " is ready in map: " + map.getMapId());
-
-                // 맵의 모든 플레이어가 준비되었는지 확인
-                if (map.getPlayers().size() == 2 && map.getPlayers().values().stream().allMatch(Player::isReady)) {
-                    map.startGame(); // 게임 시작
-                } else {
-                    map.broadcast("WAITING"); // 아직 준비되지 않음
-                }
-            } else {
-                System.err.println("Player is not assigned to any map.");
-            }
-        }
-    }
-
-    private void handleMove(int x, int y) {
-        // 현재 플레이어의 맵 정보 가져오기
-        MapInstance map = player.getAssignedMap();
-        if (map != null) {
-//                System.out.println("Handling MOVE for player: " + player.getId() + " in map: " + map.getMapId());
-            player.setPosition(x, y); // 플레이어 위치 업데이트
-            map.broadcastGameState(); // 상태 전송
-        } else {
-            System.err.println("Player is not assigned to any map.");
-        }
-    }
-
-    private void handleMissile(int x, int y) {
-        // 현재 플레이어의 맵 정보 가져오기
-        MapInstance map = player.getAssignedMap();
-        if (map != null) {
-            map.getMissiles().add(new Missile(player.getId(), x, y)); // 미사일 추가
-            map.broadcastGameState(); // 상태 전송
-        } else {
-            System.err.println("Player is not assigned to any map.");
-        }
-    }
-}
\ No newline at end of file
+}
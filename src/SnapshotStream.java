@@ -0,0 +1,39 @@
+// 연결 하나가 게임 상태를 받는 방식과 수신 진행 상황
+// 직렬화는 맵에서 형식별로 틱당 한 번만 하고, 연결마다 다른 부분(문자열 테이블 동기화, delta ACK)만 여기에 둔다.
+public class SnapshotStream {
+    public static final int FORMAT_TEXT = 0;
+    public static final int FORMAT_BINARY = 1;
+    public static final int FORMAT_DELTA = 2;
+    public static final int FORMATS = 3;
+
+    private final int format;
+    private int definedStrings = 0; // 이 연결에 이미 보낸 문자열 테이블 항목 수 (틱 스레드에서만 접근)
+    private volatile int ackedSeq = 0; // 클라이언트가 마지막으로 적용한 스냅샷 (연결 스레드에서 갱신)
+
+    public SnapshotStream(int format) {
+        this.format = format;
+    }
+
+    public int getFormat() {
+        return format;
+    }
+
+    public int getDefinedStrings() {
+        return definedStrings;
+    }
+
+    public void setDefinedStrings(int definedStrings) {
+        this.definedStrings = definedStrings;
+    }
+
+    public int getAckedSeq() {
+        return ackedSeq;
+    }
+
+    // 클라이언트 ACK 처리 (0은 전체 스냅샷 요청)
+    public void acknowledge(int seq) {
+        if (seq == 0 || seq > ackedSeq) {
+            ackedSeq = seq;
+        }
+    }
+}
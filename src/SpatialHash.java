@@ -0,0 +1,83 @@
+import java.util.Arrays;
+
+// 균일 격자 공간 해시 (충돌 판정 broadphase)
+// 맵을 cellSize 크기의 칸으로 나누고 엔티티를 왼쪽 위 꼭짓점이 속한 칸 하나에만 등록한다.
+// 질의 영역은 등록된 엔티티 중 가장 큰 너비/높이만큼 왼쪽 위로 넓혀서 보므로 중복 없이 후보를 찾는다.
+// 틱마다 clear() 후 다시 채우며, 배열은 재사용한다.
+public class SpatialHash {
+    private final int cellSize;
+    private final int columns, rows;
+    private final int[] cellHeads; // 칸별 첫 번째 엔티티 (-1이면 비어 있음)
+    private int[] next = new int[64]; // 같은 칸의 다음 엔티티
+    private int count = 0;
+    private int maxWidth = 0, maxHeight = 0; // 등록된 엔티티 중 가장 큰 크기
+
+    private int[] results = new int[32];
+    private int resultCount = 0;
+
+    public SpatialHash(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        this.cellHeads = new int[columns * rows];
+        Arrays.fill(cellHeads, -1);
+    }
+
+    public void clear() {
+        Arrays.fill(cellHeads, -1);
+        count = 0;
+        maxWidth = maxHeight = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // 영역 [x, x + width] x [y, y + height]인 엔티티 등록 후 번호 반환 (등록 순서대로 0, 1, 2 ...)
+    public int insert(int x, int y, int width, int height) {
+        int entity = count++;
+        if (entity == next.length) {
+            next = Arrays.copyOf(next, entity * 2);
+        }
+        int cell = row(y) * columns + column(x);
+        next[entity] = cellHeads[cell];
+        cellHeads[cell] = entity;
+        if (width > maxWidth) maxWidth = width;
+        if (height > maxHeight) maxHeight = height;
+        return entity;
+    }
+
+    // 영역 [x, x + width] x [y, y + height]와 겹칠 수 있는 엔티티 후보 수집 (정확한 판정은 호출자가 수행)
+    public int query(int x, int y, int width, int height) {
+        resultCount = 0;
+        if (count == 0) return 0;
+
+        int minColumn = column(x - maxWidth), maxColumn = column(x + width);
+        int minRow = row(y - maxHeight), maxRow = row(y + height);
+        for (int r = minRow; r <= maxRow; r++) {
+            int rowBase = r * columns;
+            for (int c = minColumn; c <= maxColumn; c++) {
+                for (int e = cellHeads[rowBase + c]; e >= 0; e = next[e]) {
+                    if (resultCount == results.length) {
+                        results = Arrays.copyOf(results, resultCount * 2);
+                    }
+                    results[resultCount++] = e;
+                }
+            }
+        }
+        return resultCount;
+    }
+
+    public int resultAt(int index) {
+        return results[index];
+    }
+
+    // 맵 밖 좌표는 가장자리 칸으로 (후보가 늘어날 뿐 누락되지 않음)
+    private int column(int x) {
+        return Math.min(columns - 1, Math.max(0, Math.floorDiv(x, cellSize)));
+    }
+
+    private int row(int y) {
+        return Math.min(rows - 1, Math.max(0, Math.floorDiv(y, cellSize)));
+    }
+}
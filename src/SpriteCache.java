@@ -0,0 +1,95 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 클라이언트 스프라이트 캐시: 이미지 경로 + 그릴 크기 + 회전(0도/180도)별로 미리 변환해 둔 이미지
+// 화면 장치에 맞는 compatible 이미지로 한 번만 디코딩/확대/회전해 두므로 그리기 시에는 복사(blit)만 한다.
+// 그리기 스레드 하나(수동 렌더링이면 EDT, 능동 렌더링이면 렌더 스레드)에서만 사용한다.
+public class SpriteCache {
+    private final Map<String, BufferedImage> sources = new HashMap<>(); // 디코딩한 원본 (경로별)
+    private final Map<String, List<Sprite>> sprites = new HashMap<>(); // 경로별 크기/회전 변형
+    private final GraphicsConfiguration configuration;
+
+    public SpriteCache() {
+        GraphicsConfiguration config = null;
+        if (!GraphicsEnvironment.isHeadless()) {
+            config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        }
+        this.configuration = config;
+    }
+
+    // 경로의 이미지를 width x height 크기로 (rotated면 180도 회전해서) 반환, 이미지가 없으면 null
+    // 같은 인자로 다시 호출하면 할당 없이 캐시된 이미지를 돌려준다.
+    public Image get(String path, int width, int height, boolean rotated) {
+        if (path == null || width <= 0 || height <= 0) return null;
+
+        List<Sprite> variants = sprites.get(path);
+        if (variants == null) {
+            variants = new ArrayList<>(2);
+            sprites.put(path, variants);
+        }
+        for (int i = 0; i < variants.size(); i++) {
+            Sprite sprite = variants.get(i);
+            if (sprite.width == width && sprite.height == height && sprite.rotated == rotated) {
+                return sprite.image;
+            }
+        }
+
+        Sprite sprite = new Sprite(width, height, rotated, render(source(path), width, height, rotated));
+        variants.add(sprite);
+        return sprite.image;
+    }
+
+    // 원본 이미지 디코딩 (실패하면 null을 캐시해서 다시 시도하지 않음)
+    private BufferedImage source(String path) {
+        if (sources.containsKey(path)) return sources.get(path);
+
+        BufferedImage image = null;
+        try {
+            image = ImageIO.read(new File(path));
+            if (image == null) throw new IOException("Unsupported image: " + path);
+        } catch (IOException e) {
+            System.err.println("Failed to load image: " + path);
+        }
+        sources.put(path, image);
+        return image;
+    }
+
+    // 크기 조정 + 회전을 한 번에 적용한 compatible 이미지 생성
+    private BufferedImage render(BufferedImage source, int width, int height, boolean rotated) {
+        if (source == null) return null;
+
+        BufferedImage target = configuration != null
+                ? configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = target.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        if (rotated) {
+            g.rotate(Math.PI, width / 2.0, height / 2.0); // 상대 플레이어/미사일용 180도 회전
+        }
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return target;
+    }
+
+    // 캐시된 변형 하나
+    private static final class Sprite {
+        final int width, height;
+        final boolean rotated;
+        final BufferedImage image;
+
+        Sprite(int width, int height, boolean rotated, BufferedImage image) {
+            this.width = width;
+            this.height = height;
+            this.rotated = rotated;
+            this.image = image;
+        }
+    }
+}
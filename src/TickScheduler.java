@@ -0,0 +1,284 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+// 맵 시뮬레이션을 여러 샤드 스레드에 나누어 실행하는 스케줄러
+// 각 맵은 한 번에 하나의 샤드에만 속하므로 맵 내부 상태는 항상 한 스레드에서만 갱신된다.
+public class TickScheduler {
+    private static final double EWMA_ALPHA = 0.2; // 맵별 평균 틱 시간 가중치
+    private static final double NEW_MAP_NANOS = 50_000; // 측정된 맵이 없는 샤드에서 새 맵 하나의 틱 시간 추정치 (2인 맵 실측 평균 수준)
+    private static final double MIGRATION_HYSTERESIS = 0.1; // 이동 후에도 대상 샤드가 차이의 이 비율만큼은 가볍게 남도록
+
+    private final TickShard[] shards;
+    private final long tickNanos;
+    private final Map<MapInstance, Entry> entries = new ConcurrentHashMap<>();
+    private ScheduledExecutorService reporter;
+
+    public TickScheduler(int shardCount, long tickMillis) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.shards = new TickShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new TickShard(i);
+        }
+    }
+
+    // 모든 샤드 스레드 시작
+    public void start(long reportMillis) {
+        long tickMillis = TimeUnit.NANOSECONDS.toMillis(tickNanos);
+        for (TickShard shard : shards) {
+            shard.executor.scheduleAtFixedRate(shard::tick, 0, tickMillis, TimeUnit.MILLISECONDS);
+        }
+        if (reportMillis > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(daemonFactory("tick-reporter"));
+            reporter.scheduleAtFixedRate(this::report, reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+        }
+        System.out.println("Tick scheduler started with " + shards.length + " shard(s)");
+    }
+
+    public void shutdown() {
+        for (TickShard shard : shards) {
+            shard.executor.shutdownNow();
+        }
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+    }
+
+    // 부하가 가장 적은 샤드에 맵 배정
+    public void register(MapInstance map) {
+        Entry entry = new Entry(map);
+        if (entries.putIfAbsent(map, entry) != null) {
+            return; // 이미 등록된 맵
+        }
+        leastLoadedShard(null).incoming.add(entry);
+    }
+
+    // 맵을 스케줄러에서 제거 (실제 제거는 담당 샤드의 다음 틱에서 처리)
+    public void unregister(MapInstance map) {
+        unregister(map, null);
+    }
+
+    // 맵을 제거하고, 담당 샤드가 맵을 내려놓은 뒤(더 이상 틱이 돌지 않을 때) 샤드 스레드에서 onRemoved 실행
+    public void unregister(MapInstance map, Runnable onRemoved) {
+        Entry entry = entries.remove(map);
+        if (entry != null) {
+            entry.onRemoved = onRemoved;
+            entry.cancelled = true;
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    // 샤드 한 번의 틱(담당 맵 전체) 시간 분포
+    public LatencyHistogram getTickHistogram(int shard) {
+        return shards[shard].tickTimes;
+    }
+
+    // 샤드별 통계 스냅샷
+    public List<ShardStats> getShardStats() {
+        List<ShardStats> stats = new ArrayList<>(shards.length);
+        for (TickShard shard : shards) {
+            stats.add(shard.stats());
+        }
+        return stats;
+    }
+
+    private void report() {
+        for (ShardStats stats : getShardStats()) {
+            System.out.println(stats);
+        }
+    }
+
+    private TickShard leastLoadedShard(TickShard exclude) {
+        TickShard best = null;
+        for (TickShard shard : shards) {
+            if (shard == exclude) continue;
+            if (best == null || shard.load() < best.load()
+                    || (shard.load() == best.load() && shard.mapCount < best.mapCount)) {
+                best = shard;
+            }
+        }
+        return best;
+    }
+
+    private static ThreadFactory daemonFactory(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // 샤드에 배정된 맵 정보
+    private static class Entry {
+        final MapInstance map;
+        volatile Runnable onRemoved; // cancelled보다 먼저 기록
+        volatile boolean cancelled = false;
+        double avgTickNanos = 0; // 이 맵의 평균 틱 시간 (담당 샤드 스레드에서만 갱신)
+
+        Entry(MapInstance map) {
+            this.map = map;
+        }
+
+        // 샤드가 맵을 내려놓을 때 호출 (한 항목은 한 샤드에만 있으므로 한 번만 실행된다)
+        void removed() {
+            if (onRemoved == null) return;
+            try {
+                onRemoved.run();
+            } catch (RuntimeException ex) {
+                System.err.println("Cleanup failed for map " + map.getMapId() + ": " + ex);
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    // 샤드별 틱 통계
+    public static class ShardStats {
+        public final int shardId;
+        public final int mapCount;
+        public final double lastTickMillis;
+        public final double avgTickMillis;
+        public final double maxTickMillis;
+        public final long overruns;
+        public final long migrations;
+
+        ShardStats(int shardId, int mapCount, double lastTickMillis, double avgTickMillis,
+                   double maxTickMillis, long overruns, long migrations) {
+            this.shardId = shardId;
+            this.mapCount = mapCount;
+            this.lastTickMillis = lastTickMillis;
+            this.avgTickMillis = avgTickMillis;
+            this.maxTickMillis = maxTickMillis;
+            this.overruns = overruns;
+            this.migrations = migrations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[shard-%d] maps=%d last=%.2fms avg=%.2fms max=%.2fms overruns=%d migrations=%d",
+                    shardId, mapCount, lastTickMillis, avgTickMillis, maxTickMillis, overruns, migrations);
+        }
+    }
+
+    // 하나의 스레드에서 여러 맵의 틱을 순서대로 실행하는 샤드
+    private class TickShard {
+        final int id;
+        final ScheduledExecutorService executor;
+        final Queue<Entry> incoming = new ConcurrentLinkedQueue<>(); // 새로 배정되거나 이동해 온 맵
+        final List<Entry> owned = new ArrayList<>(); // 샤드 스레드에서만 접근
+
+        // 다른 스레드에서 읽는 통계 값
+        volatile double loadNanos = 0;
+        volatile int mapCount = 0;
+        volatile long lastTickNanos = 0;
+        volatile double avgTickNanos = 0;
+        volatile long maxTickNanos = 0;
+        volatile long overruns = 0;
+        volatile long migrations = 0;
+        final LatencyHistogram tickTimes = new LatencyHistogram();
+
+        TickShard(int id) {
+            this.id = id;
+            this.executor = Executors.newSingleThreadScheduledExecutor(daemonFactory("tick-shard-" + id));
+        }
+
+        // 아직 받지 않은 새 맵은 이 샤드의 맵 하나 평균 틱 시간(측정된 맵이 없으면 추정치)만큼의 부하로 계산
+        double load() {
+            int queued = incoming.size();
+            if (queued == 0) return loadNanos;
+            double measured = loadNanos;
+            int maps = mapCount;
+            double perMap = maps > 0 && measured > 0 ? measured / maps : NEW_MAP_NANOS;
+            return measured + queued * perMap;
+        }
+
+        void tick() {
+            Entry entry;
+            while ((entry = incoming.poll()) != null) {
+                if (!entry.cancelled) {
+                    owned.add(entry);
+                } else {
+                    entry.removed();
+                }
+            }
+
+            long start = System.nanoTime();
+            double load = 0;
+            Iterator<Entry> it = owned.iterator();
+            while (it.hasNext()) {
+                Entry e = it.next();
+                if (e.cancelled) {
+                    it.remove();
+                    e.removed();
+                    continue;
+                }
+
+                long mapStart = System.nanoTime();
+                WriteBatch.begin(); // 이 맵의 틱 동안 보낸 메시지는 연결마다 모아 틱 끝에 한 번에 전송
+                try {
+                    e.map.tick();
+                } catch (RuntimeException ex) {
+                    // 한 맵의 오류가 같은 샤드의 다른 맵을 멈추지 않도록 처리
+                    System.err.println("Tick failed for map " + e.map.getMapId() + ": " + ex);
+                    ex.printStackTrace();
+                } finally {
+                    WriteBatch.end();
+                }
+                long mapNanos = System.nanoTime() - mapStart;
+                e.avgTickNanos = e.avgTickNanos == 0 ? mapNanos
+                        : e.avgTickNanos + EWMA_ALPHA * (mapNanos - e.avgTickNanos);
+                load += e.avgTickNanos;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            loadNanos = load;
+            mapCount = owned.size();
+            lastTickNanos = elapsed;
+            tickTimes.record(elapsed);
+            avgTickNanos = avgTickNanos == 0 ? elapsed : avgTickNanos + EWMA_ALPHA * (elapsed - avgTickNanos);
+            if (elapsed > maxTickNanos) {
+                maxTickNanos = elapsed;
+            }
+            if (elapsed > tickNanos) {
+                overruns++;
+                migrateOverload();
+            }
+        }
+
+        // 틱 예산을 넘긴 경우 가장 한가한 샤드로 맵 하나를 이동
+        private void migrateOverload() {
+            if (owned.size() < 2 || shards.length < 2) return;
+
+            TickShard target = leastLoadedShard(this);
+            double gap = loadNanos - target.load();
+            if (gap <= 0) return;
+
+            // 옮긴 뒤 대상 샤드가 이 샤드보다 무거워지지 않는 맵(L - m >= T + m, 즉 m <= 차이/2) 중 가장 무거운 맵 선택
+            // 여유를 두어 옮긴 맵 때문에 두 샤드의 무게가 뒤집혀 맵이 오가지 않도록 한다.
+            double limit = gap / 2 * (1 - MIGRATION_HYSTERESIS);
+            Entry candidate = null;
+            for (Entry e : owned) {
+                if (e.avgTickNanos < limit && (candidate == null || e.avgTickNanos > candidate.avgTickNanos)) {
+                    candidate = e;
+                }
+            }
+            if (candidate == null) return;
+
+            owned.remove(candidate);
+            loadNanos -= candidate.avgTickNanos;
+            mapCount = owned.size();
+            migrations++;
+            target.incoming.add(candidate);
+            System.out.println("Map " + candidate.map.getMapId() + " migrated from shard-" + id + " to shard-" + target.id);
+        }
+
+        ShardStats stats() {
+            return new ShardStats(id, mapCount + incoming.size(), lastTickNanos / 1e6, avgTickNanos / 1e6,
+                    maxTickNanos / 1e6, overruns, migrations);
+        }
+    }
+}
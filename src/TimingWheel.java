@@ -0,0 +1,135 @@
+// 틱 기반 해시 타이밍 휠: 아이템 효과 만료, 무기 쿨다운, 장애물/아이템 생성 같은 지연 작업을 맵 틱으로 실행
+// 작업은 만료 틱을 칸 수로 나눈 나머지 칸의 이중 연결 리스트에 들어가므로 등록과 취소가 O(1)이고,
+// advance()는 이번 틱 칸 하나만 훑는다 (칸 수보다 먼 작업은 만료 틱이 될 때까지 건너뛴다).
+// 별도 스레드나 java.util.Timer 없이 맵 틱 스레드에서만 사용하며, 맵을 정리할 때 clear()로 남은 작업을 모두 버린다.
+public final class TimingWheel {
+    private final Timeout[] slots; // 칸별 리스트의 머리
+    private final int mask;
+    private long tick = 0; // advance()가 진행한 틱 수
+    private int size = 0; // 등록된 작업 수
+
+    // slotCount는 2의 거듭제곱으로 올림 (자주 쓰는 지연 시간보다 크게 잡으면 칸마다 한 바퀴 안의 작업만 남는다)
+    public TimingWheel(int slotCount) {
+        int capacity = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+        slots = new Timeout[capacity];
+        mask = capacity - 1;
+    }
+
+    // delayTicks번째 advance()에서 task 실행 (0 이하면 다음 advance)
+    public Timeout schedule(long delayTicks, Runnable task) {
+        Timeout timeout = new Timeout(this, task, tick + Math.max(1, delayTicks));
+        link(timeout);
+        return timeout;
+    }
+
+    // 한 틱 진행: 이번 틱 칸에서 만료된 작업을 등록 순서와 상관없이 실행
+    // 먼저 만료된 작업을 칸에서 떼어 낸 뒤 실행하므로, 작업 안에서 다른 작업을 등록하거나 취소해도 된다.
+    public void advance() {
+        tick++;
+        Timeout expired = null;
+        Timeout timeout = slots[(int) (tick & mask)];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.deadline <= tick) {
+                unlink(timeout);
+                timeout.state = Timeout.EXPIRED;
+                timeout.next = expired;
+                expired = timeout;
+            }
+            timeout = next;
+        }
+
+        while (expired != null) {
+            Timeout next = expired.next;
+            expired.next = null;
+            if (expired.state == Timeout.EXPIRED) { // 앞선 작업이 취소했으면 건너뜀
+                expired.state = Timeout.DONE;
+                expired.task.run();
+            }
+            expired = next;
+        }
+    }
+
+    // 등록된 작업을 모두 버리고 틱을 처음으로 (맵 재사용)
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            Timeout timeout = slots[i];
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.state = Timeout.CANCELLED;
+                timeout.prev = timeout.next = null;
+                timeout = next;
+            }
+            slots[i] = null;
+        }
+        size = 0;
+        tick = 0;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void link(Timeout timeout) {
+        int index = (int) (timeout.deadline & mask);
+        Timeout head = slots[index];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        slots[index] = timeout;
+        size++;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[(int) (timeout.deadline & mask)] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = timeout.next = null;
+        size--;
+    }
+
+    // 등록된 작업 하나 (취소용 핸들)
+    public static final class Timeout {
+        static final int PENDING = 0;
+        static final int EXPIRED = 1; // 칸에서 떼어 냈고 이번 advance에서 실행 예정
+        static final int DONE = 2;
+        static final int CANCELLED = 3;
+
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final long deadline; // 실행할 틱
+        private Timeout prev, next;
+        private int state = PENDING;
+
+        private Timeout(TimingWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        // 아직 실행되지 않았으면 취소하고 true
+        public boolean cancel() {
+            if (state == PENDING) {
+                wheel.unlink(this);
+            } else if (state != EXPIRED) {
+                return false;
+            }
+            state = CANCELLED;
+            return true;
+        }
+
+        public boolean isPending() {
+            return state == PENDING || state == EXPIRED;
+        }
+    }
+}
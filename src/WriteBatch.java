@@ -0,0 +1,50 @@
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+// 틱 하나 동안 보낸 메시지를 연결별로 모아 두었다가 틱이 끝날 때 연결마다 한 번만 내보낸다.
+// 틱 스레드가 begin ~ end 사이에 보낸 프레임은 대기열에만 쌓이고, end에서 연결별 쓰기(모아 쓰기 한 번)를 요청한다.
+// 틱 밖(연결 스레드의 응답 등)에서 보낸 메시지는 defer가 false를 돌려주므로 바로 내보낸다.
+public final class WriteBatch {
+    // 틱이 끝날 때 쓰기를 요청받는 연결
+    public interface Target {
+        void flushBatch();
+    }
+
+    private static final ThreadLocal<WriteBatch> CURRENT = new ThreadLocal<>(); // 틱 스레드에만 생긴다
+
+    private final Set<Target> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean active = false;
+
+    private WriteBatch() {
+    }
+
+    // 현재 스레드에서 모으기 시작
+    public static void begin() {
+        WriteBatch batch = CURRENT.get();
+        if (batch == null) {
+            batch = new WriteBatch();
+            CURRENT.set(batch);
+        }
+        batch.active = true;
+    }
+
+    // 모은 연결마다 한 번씩 쓰기 요청
+    public static void end() {
+        WriteBatch batch = CURRENT.get();
+        if (batch == null) return;
+        batch.active = false;
+        for (Target target : batch.targets) {
+            target.flushBatch();
+        }
+        batch.targets.clear();
+    }
+
+    // 현재 스레드가 모으는 중이면 연결을 등록하고 true, 아니면 false (호출한 쪽이 바로 내보낸다)
+    public static boolean defer(Target target) {
+        WriteBatch batch = CURRENT.get();
+        if (batch == null || !batch.active) return false;
+        batch.targets.add(target);
+        return true;
+    }
+}